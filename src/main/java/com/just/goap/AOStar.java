@@ -5,21 +5,177 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.PriorityQueue;
+import java.util.Map;
 
 import com.just.goap.action.Action;
+import com.just.goap.condition.Condition;
 import com.just.goap.condition.ConditionContainer;
+import com.just.goap.event.PlanningEvent;
+import com.just.goap.goal.Goal;
+import com.just.goap.graph.CompiledGraph;
 import com.just.goap.graph.Graph;
+import com.just.goap.search.Heuristic;
+import com.just.goap.search.OpenList;
+import com.just.goap.search.impl.AdditiveHeuristic;
 import com.just.goap.state.ReadableWorldState;
 import com.just.goap.state.SimulatedWorldState;
+import com.just.goap.state.TickCache;
 
 public final class AOStar {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AOStar.class);
 
-    private static final Comparator<AOStarNode<?>> F_COST_COMPARATOR = Comparator.comparingDouble(node -> node.fCost);
+    public static <T> @Nullable List<ActionWithCost<? super T>> solve(
+        Graph<T> graph,
+        Goal goal,
+        ReadableWorldState currentWorldState,
+        T actor
+    ) {
+        return solve(graph, goal, currentWorldState, actor, Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Solves for the given goal, only looking for plans that cost less than {@code costBound}.
+     * <p>
+     * Partial plans that cannot finish below the bound are discarded as soon as they are generated, so a tight bound
+     * cuts most of the search.
+     *
+     * @return The plan, or {@code null} if there is no plan cheaper than {@code costBound}.
+     */
+    public static <T> @Nullable List<ActionWithCost<? super T>> solve(
+        Graph<T> graph,
+        Goal goal,
+        ReadableWorldState currentWorldState,
+        T actor,
+        float costBound
+    ) {
+        return solve(
+            graph,
+            goal.getName(),
+            goal.getDesiredConditions(),
+            currentWorldState,
+            actor,
+            costBound,
+            SearchOptions.DEFAULT
+        );
+    }
+
+    /**
+     * Solves for the given goal with the given search options, only looking for plans that cost less than
+     * {@code costBound}.
+     *
+     * @return The plan, or {@code null} if there is no plan cheaper than {@code costBound}.
+     */
+    public static <T> @Nullable List<ActionWithCost<? super T>> solve(
+        Graph<T> graph,
+        Goal goal,
+        ReadableWorldState currentWorldState,
+        T actor,
+        float costBound,
+        SearchOptions options
+    ) {
+        return solve(
+            graph,
+            goal.getName(),
+            goal.getDesiredConditions(),
+            currentWorldState,
+            actor,
+            costBound,
+            options
+        );
+    }
+
+    /**
+     * Solves for the given goal with the given search options on the given workspace instead of the workspace of the
+     * current thread, only looking for plans that cost less than {@code costBound}. This lets a scheduler that plans
+     * for many agents give each of its worker threads a workspace of its own.
+     *
+     * @return The plan, or {@code null} if there is no plan cheaper than {@code costBound}.
+     */
+    public static <T> @Nullable List<ActionWithCost<? super T>> solve(
+        Graph<T> graph,
+        Goal goal,
+        ReadableWorldState currentWorldState,
+        T actor,
+        float costBound,
+        SearchOptions options,
+        SearchWorkspace workspace
+    ) {
+        return solve(
+            graph,
+            goal.getName(),
+            goal.getDesiredConditions(),
+            currentWorldState,
+            actor,
+            costBound,
+            options,
+            workspace
+        );
+    }
+
+    /**
+     * Solves for the given goal with weighted A*, ordering nodes by {@code g + weight * h}. A weight above {@code 1}
+     * trusts the heuristic more, which finds a plan with far fewer expansions, at the price of the plan possibly
+     * costing more than the cheapest one.
+     *
+     * @return The first plan found cheaper than {@code costBound}, or {@code null} if there is none.
+     */
+    public static <T> @Nullable List<ActionWithCost<? super T>> solveWeighted(
+        Graph<T> graph,
+        Goal goal,
+        ReadableWorldState currentWorldState,
+        T actor,
+        float costBound,
+        float weight
+    ) {
+        return solve(
+            graph,
+            goal.getName(),
+            goal.getDesiredConditions(),
+            currentWorldState,
+            actor,
+            costBound,
+            SearchOptions.builder().withWeight(weight).build()
+        );
+    }
+
+    /**
+     * Solves for the given goal with anytime repairing A* (ARA*). The search starts out as weighted A* with
+     * {@code initialWeight} to find a plan quickly. Every time a plan is found, the weight is lowered by
+     * {@code weightStep} (down to {@code 1}), the open list is reordered, and the search continues looking for a
+     * cheaper plan, bounded by the cost of the best plan so far.
+     * <p>
+     * Once {@code expansionBudget} nodes have been expanded the best plan so far is returned. The budget does not apply
+     * until a first plan was found.
+     *
+     * @return The cheapest plan found cheaper than {@code costBound}, or {@code null} if there is none.
+     */
+    public static <T> @Nullable List<ActionWithCost<? super T>> solveAnytime(
+        Graph<T> graph,
+        Goal goal,
+        ReadableWorldState currentWorldState,
+        T actor,
+        float costBound,
+        float initialWeight,
+        float weightStep,
+        int expansionBudget
+    ) {
+        return solve(
+            graph,
+            goal.getName(),
+            goal.getDesiredConditions(),
+            currentWorldState,
+            actor,
+            costBound,
+            SearchOptions.builder()
+                .withWeight(initialWeight)
+                .withAnytime(weightStep, expansionBudget)
+                .build()
+        );
+    }
 
     public static <T> @Nullable List<ActionWithCost<? super T>> solve(
         Graph<T> graph,
@@ -27,142 +183,813 @@ public final class AOStar {
         ReadableWorldState currentWorldState,
         T actor
     ) {
-        var open = new PriorityQueue<AOStarNode<T>>(F_COST_COMPARATOR);
+        return solve(
+            graph,
+            null,
+            desiredConditions,
+            currentWorldState,
+            actor,
+            Float.POSITIVE_INFINITY,
+            SearchOptions.DEFAULT
+        );
+    }
 
-        var rootUnsatisfied = desiredConditions.filterUnsatisfied(currentWorldState);
-        var rootState = new SimulatedWorldState(currentWorldState);
+    /**
+     * Starts a search for the given goal without running it, see {@link Search}.
+     */
+    public static <T> Search<T> search(Graph<T> graph, Goal goal, ReadableWorldState currentWorldState, T actor) {
+        return search(graph, goal, currentWorldState, actor, SearchOptions.DEFAULT);
+    }
 
-        LOGGER.trace("Start state: {}", currentWorldState);
-        LOGGER.trace("Root unsatisfied conditions: {}", rootUnsatisfied.getConditions());
+    /**
+     * Starts a search for the given goal with the given search options without running it, see {@link Search}.
+     */
+    public static <T> Search<T> search(
+        Graph<T> graph,
+        Goal goal,
+        ReadableWorldState currentWorldState,
+        T actor,
+        SearchOptions options
+    ) {
+        return search(graph, goal, currentWorldState, actor, options, new SearchWorkspace());
+    }
 
-        open.add(
-            new AOStarNode<>(
-                rootUnsatisfied,
-                new ArrayList<>(),
-                rootState,
-                0.0f,
-                heuristic(rootUnsatisfied, graph, actor, currentWorldState)
-            )
+    /**
+     * Starts a search for the given goal with the given search options on the given workspace without running it, see
+     * {@link Search}. The search must be done or dropped before the workspace is used for another search.
+     */
+    public static <T> Search<T> search(
+        Graph<T> graph,
+        Goal goal,
+        ReadableWorldState currentWorldState,
+        T actor,
+        SearchOptions options,
+        SearchWorkspace workspace
+    ) {
+        return new Search<>(
+            graph,
+            goal.getName(),
+            goal.getDesiredConditions(),
+            currentWorldState,
+            actor,
+            Float.POSITIVE_INFINITY,
+            options,
+            workspace
+        );
+    }
+
+    /**
+     * Returns a lower bound on the cost of any plan for the given goal: the most expensive of the cheapest ways to
+     * satisfy each unsatisfied desired condition. Unlike the search heuristic this never overestimates, as long as
+     * action costs do not drop in simulated world states.
+     *
+     * @return The lower bound, or {@link Float#MAX_VALUE} if a desired condition cannot be satisfied by any action.
+     */
+    public static <T> float getLowerBound(
+        Graph<T> graph,
+        Goal goal,
+        ReadableWorldState currentWorldState,
+        T actor
+    ) {
+        var compiledGraph = graph.getCompiledGraph();
+        var conditions = new SearchConditions(compiledGraph);
+        var tickCache = TickCache.of(graph, currentWorldState);
+        var unsatisfied = conditions.idsOf(goal.getDesiredConditions().filterUnsatisfied(currentWorldState));
+
+        return lowerBound(unsatisfied, compiledGraph, tickCache, actor, currentWorldState);
+    }
+
+    private static <T> @Nullable List<ActionWithCost<? super T>> solve(
+        Graph<T> graph,
+        @Nullable String goalName,
+        ConditionContainer desiredConditions,
+        ReadableWorldState currentWorldState,
+        T actor,
+        float costBound,
+        SearchOptions options
+    ) {
+        var workspace = SearchWorkspace.acquire();
+
+        try {
+            return solve(graph, goalName, desiredConditions, currentWorldState, actor, costBound, options, workspace);
+        } finally {
+            workspace.release();
+        }
+    }
+
+    private static <T> @Nullable List<ActionWithCost<? super T>> solve(
+        Graph<T> graph,
+        @Nullable String goalName,
+        ConditionContainer desiredConditions,
+        ReadableWorldState currentWorldState,
+        T actor,
+        float costBound,
+        SearchOptions options,
+        SearchWorkspace workspace
+    ) {
+        var search = new Search<>(
+            graph,
+            goalName,
+            desiredConditions,
+            currentWorldState,
+            actor,
+            costBound,
+            options,
+            workspace
         );
+        search.step(Integer.MAX_VALUE);
+        return search.getPlan();
+    }
+
+    /**
+     * Returns the root node of a search, with the desired conditions that the given world state does not satisfy.
+     * Its costs are left for the caller to set.
+     */
+    static <T> AOStarNode<T> root(
+        SearchWorkspace workspace,
+        ConditionContainer desiredConditions,
+        ReadableWorldState currentWorldState
+    ) {
+        var conditions = workspace.getConditions();
+        var root = workspace.<T>allocateNode();
+        root.parent = null;
+        root.action = null;
+        root.actionCost = 0.0f;
+        root.depth = 0;
+        root.conditionsStart = workspace.getConditionIdCount();
+
+        for (var condition : desiredConditions.filterUnsatisfied(currentWorldState).getConditions()) {
+            workspace.addConditionId(conditions.idOf(condition));
+        }
 
-        while (!open.isEmpty()) {
-            var node = open.poll();
+        root.conditionsEnd = workspace.getConditionIdCount();
 
-            LOGGER.trace("\n--- Expanding node ---");
-            LOGGER.trace("Plan so far: {}", node.planSoFar);
-            LOGGER.trace("Unsatisfied conditions: {}", node.unsatisfiedConditions.getConditions());
-            LOGGER.trace("g={} h={} f={}", node.gCost, node.hCost, node.fCost);
+        if (root.simulatedState == null) {
+            root.simulatedState = new SimulatedWorldState(currentWorldState);
+        } else {
+            root.simulatedState.reset(currentWorldState);
+        }
 
-            if (node.unsatisfiedConditions.isEmpty()) {
-                LOGGER.trace("Goal reached! Returning plan.");
-                // All conditions are satisfied, return the plan.
-                return node.planSoFar.reversed();
-            }
+        return root;
+    }
+
+    /**
+     * Returns the node reached from {@code parent} by satisfying the given condition with the given action. The
+     * action's effects are applied to a copy of the parent's world state, and the node's unsatisfied conditions are
+     * what is left of the parent's plus the action's unmet preconditions. Its cost so far is set, its heuristic is
+     * left for the caller to set.
+     */
+    static <T> AOStarNode<T> child(
+        SearchWorkspace workspace,
+        TickCache<T> tickCache,
+        AOStarNode<T> parent,
+        int satisfiedConditionId,
+        int actionId,
+        Action<? super T> action,
+        float actionCost
+    ) {
+        var conditions = workspace.getConditions();
+        var child = workspace.<T>allocateNode();
+        child.parent = parent;
+        child.action = action;
+        child.actionCost = actionCost;
+        child.depth = parent.depth + 1;
+        child.gCost = parent.gCost + actionCost;
+
+        // Simulate applying the action.
+        var newState = child.simulatedState;
+
+        if (newState == null) {
+            newState = parent.simulatedState.copy();
+            child.simulatedState = newState;
+        } else {
+            newState.copyFrom(parent.simulatedState);
+        }
 
-            for (var condition : node.unsatisfiedConditions.getConditions()) {
-                LOGGER.trace("Expanding condition: {}", condition);
+        newState.apply(action.getEffectContainer());
 
-                var satisfyingActions = graph.getActionsThatSatisfy(condition);
-                LOGGER.trace("Candidate actions: {}", satisfyingActions);
+        // Remaining desired conditions that weren’t satisfied by this action.
+        var start = workspace.getConditionIdCount();
 
-                for (var action : satisfyingActions) {
-                    LOGGER.trace(" Trying action: {}", action);
-                    // Simulate applying the action
-                    var newState = node.simulatedState.copy();
-                    newState.apply(action.getEffectContainer());
-                    LOGGER.trace("  Applied effects, new state: {}", newState);
+        for (var i = parent.conditionsStart; i < parent.conditionsEnd; i++) {
+            var conditionId = workspace.getConditionIds()[i];
 
-                    // Collect remaining unsatisfied conditions (action’s preconditions + what was left).
+            if (conditionId != satisfiedConditionId && !conditions.get(conditionId).satisfiedBy(newState)) {
+                workspace.addConditionId(conditionId);
+            }
+        }
 
-                    // Preconditions must be true before the action runs
-                    var unmetPreconditions = action.getPreconditionContainer()
-                        .filterUnsatisfied(currentWorldState);
+        // Union with the action’s unmet preconditions, which must be true before the action runs.
+        for (var conditionId : tickCache.getUnmetPreconditions(actionId)) {
+            if (!contains(workspace.getConditionIds(), start, workspace.getConditionIdCount(), conditionId)) {
+                workspace.addConditionId(conditionId);
+            }
+        }
 
-                    // Remaining desired conditions that weren’t satisfied by this action.
-                    var remaining = node.unsatisfiedConditions
-                        .without(condition)
-                        .filterUnsatisfied(newState);
+        child.conditionsStart = start;
+        child.conditionsEnd = workspace.getConditionIdCount();
+        return child;
+    }
 
-                    // Union what’s left of the original goals + action’s unmet preconditions.
-                    var newUnsatisfied = remaining.union(unmetPreconditions);
+    /**
+     * Gives back a node returned by {@link #child} before any other node was allocated.
+     */
+    static void free(SearchWorkspace workspace, AOStarNode<?> node) {
+        workspace.truncateConditionIds(node.conditionsStart);
+        workspace.freeLastNode();
+    }
 
-                    LOGGER.trace("  New unsatisfied after action: {}", newUnsatisfied.getConditions());
+    static int[] remaining(
+        int[] unsatisfied,
+        int satisfiedConditionId,
+        SearchConditions conditions,
+        ReadableWorldState worldState
+    ) {
+        var remaining = new int[unsatisfied.length];
+        var count = 0;
 
-                    // Compute action cost using the current simulated state.
-                    var actionCost = action.getCost(actor, node.simulatedState);
+        for (var conditionId : unsatisfied) {
+            if (conditionId != satisfiedConditionId && !conditions.get(conditionId).satisfiedBy(worldState)) {
+                remaining[count++] = conditionId;
+            }
+        }
 
-                    // Build plan so far.
-                    var newPlan = new ArrayList<>(node.planSoFar);
-                    newPlan.add(new ActionWithCost<>(action, actionCost));
+        return count == remaining.length ? remaining : Arrays.copyOf(remaining, count);
+    }
 
-                    // Costs.
-                    var g = node.gCost + actionCost;
-                    var h = heuristic(newUnsatisfied, graph, actor, node.simulatedState);
-                    LOGGER.trace("  Action cost={} → g={} h={} f={}", actionCost, g, h, g + h);
+    static int[] union(int[] first, int[] second) {
+        if (second.length == 0) {
+            return first;
+        }
 
-                    open.add(new AOStarNode<>(newUnsatisfied, newPlan, newState, g, h));
-                }
+        var union = Arrays.copyOf(first, first.length + second.length);
+        var count = first.length;
+
+        // Condition lists are short, so a linear scan beats hashing here.
+        for (var conditionId : second) {
+            if (!contains(union, 0, count, conditionId)) {
+                union[count++] = conditionId;
+            }
+        }
+
+        return count == union.length ? union : Arrays.copyOf(union, count);
+    }
+
+    private static boolean contains(int[] array, int from, int to, int value) {
+        for (var i = from; i < to; i++) {
+            if (array[i] == value) {
+                return true;
             }
         }
 
-        LOGGER.trace("No plan found.");
-        return null;
+        return false;
+    }
+
+    static <T> float heuristic(
+        int[] unsatisfied,
+        SearchConditions conditions,
+        CompiledGraph<T> compiledGraph,
+        TickCache<T> tickCache,
+        T actor,
+        ReadableWorldState worldState
+    ) {
+        return heuristic(unsatisfied, 0, unsatisfied.length, conditions, compiledGraph, tickCache, actor, worldState);
+    }
+
+    /**
+     * The heuristic of the unsatisfied conditions {@code conditionIds[from, to)}.
+     */
+    static <T> float heuristic(
+        int[] conditionIds,
+        int from,
+        int to,
+        SearchConditions conditions,
+        CompiledGraph<T> compiledGraph,
+        TickCache<T> tickCache,
+        T actor,
+        ReadableWorldState worldState
+    ) {
+        return heuristic(
+            AdditiveHeuristic.INSTANCE,
+            conditionIds,
+            from,
+            to,
+            conditions,
+            compiledGraph,
+            tickCache,
+            actor,
+            worldState
+        );
     }
 
+    /**
+     * The estimate of the given heuristic for the unsatisfied conditions {@code conditionIds[from, to)}.
+     */
     private static <T> float heuristic(
-        ConditionContainer unsatisfied,
-        Graph<T> graph,
+        Heuristic heuristic,
+        int[] conditionIds,
+        int from,
+        int to,
+        SearchConditions conditions,
+        CompiledGraph<T> compiledGraph,
+        TickCache<T> tickCache,
+        T actor,
+        ReadableWorldState worldState
+    ) {
+        var h = heuristic.estimate(conditionIds, from, to, compiledGraph, tickCache, actor, worldState);
+
+        if (h == Float.MAX_VALUE) {
+            var unsatisfied = conditions.describe(conditionIds, from, to);
+            LOGGER.trace(" Heuristic: {} cannot all be satisfied → returning ∞", unsatisfied);
+        }
+
+        return h;
+    }
+
+    static <T> float lowerBound(
+        int[] unsatisfied,
+        CompiledGraph<T> compiledGraph,
+        TickCache<T> tickCache,
+        T actor,
+        ReadableWorldState worldState
+    ) {
+        return lowerBound(unsatisfied, 0, unsatisfied.length, compiledGraph, tickCache, actor, worldState);
+    }
+
+    /**
+     * The lower bound of the unsatisfied conditions {@code conditionIds[from, to)}.
+     */
+    static <T> float lowerBound(
+        int[] conditionIds,
+        int from,
+        int to,
+        CompiledGraph<T> compiledGraph,
+        TickCache<T> tickCache,
         T actor,
         ReadableWorldState worldState
     ) {
-        var h = 0.0f;
+        var lowerBound = 0.0f;
+
+        for (var c = from; c < to; c++) {
+            var conditionId = conditionIds[c];
+            var start = compiledGraph.getSatisfierStart(conditionId);
+            var end = compiledGraph.getSatisfierEnd(conditionId);
+
+            if (start == end) {
+                return Float.MAX_VALUE;
+            }
+
+            var minCost = Float.MAX_VALUE;
+
+            for (var i = start; i < end; i++) {
+                minCost = Math.min(minCost, tickCache.getCost(compiledGraph.getSatisfier(i), actor, worldState));
+            }
+
+            lowerBound = Math.max(lowerBound, minCost);
+        }
+
+        return lowerBound;
+    }
+
+    /**
+     * A search for one goal that can be run a few expansions at a time, keeping its open list between calls to
+     * {@link #step(int)}. This spreads the search for a large graph over several ticks without ever exceeding a fixed
+     * amount of work per tick.
+     * <p>
+     * The search keeps reading the world state it was started with. Nodes generated in earlier steps keep the values
+     * seen at the time, so a plan found by a long running search may already be outdated, in which case it is
+     * invalidated while executing like any other plan.
+     *
+     * @param <T> The actor type.
+     */
+    public static final class Search<T> {
+
+        private final PlanningEvent event;
+
+        private final @Nullable String goalName;
+
+        private final T actor;
+
+        private final SearchOptions options;
+
+        private final SearchWorkspace workspace;
+
+        private final CompiledGraph<T> compiledGraph;
 
-        for (var condition : unsatisfied.getConditions()) {
-            var candidates = graph.getActionsThatSatisfy(condition);
+        private final SearchConditions conditions;
 
-            if (!candidates.isEmpty()) {
-                var minCost = Float.MAX_VALUE;
+        private final TickCache<T> tickCache;
 
-                for (var action : candidates) {
-                    var cost = action.getCost(actor, worldState);
+        private final OpenList<AOStarNode<T>> open;
 
-                    if (cost < minCost) {
-                        minCost = cost;
+        private final Heuristic heuristic;
+
+        private float weight;
+
+        private float costBound;
+
+        private boolean isBounded;
+
+        // The cheapest plan found so far, only kept past the first plan in anytime mode.
+        private @Nullable List<ActionWithCost<? super T>> bestPlan;
+
+        private float bestCost;
+
+        private int expansions;
+
+        private int generatedNodes;
+
+        private boolean done;
+
+        private Search(
+            Graph<T> graph,
+            @Nullable String goalName,
+            ConditionContainer desiredConditions,
+            ReadableWorldState currentWorldState,
+            T actor,
+            float costBound,
+            SearchOptions options,
+            SearchWorkspace workspace
+        ) {
+            this.event = new PlanningEvent();
+            event.begin();
+
+            this.goalName = goalName;
+            this.actor = actor;
+            this.options = options;
+            this.workspace = workspace;
+            this.compiledGraph = graph.getCompiledGraph();
+            workspace.reset(compiledGraph);
+            this.conditions = workspace.getConditions();
+            // Unmet preconditions and sensed-only costs are shared by every search in this tick.
+            this.tickCache = TickCache.of(graph, currentWorldState);
+            this.weight = options.getWeight();
+            this.open = workspace.getOpenList(options.getOpenList());
+            this.heuristic = workspace.getHeuristic(options.getHeuristic());
+            heuristic.prepare(compiledGraph, tickCache, actor, currentWorldState);
+            this.costBound = costBound;
+            this.isBounded = costBound < Float.POSITIVE_INFINITY;
+            this.bestPlan = null;
+            this.bestCost = 0.0f;
+            this.expansions = 0;
+            this.generatedNodes = 0;
+            this.done = false;
+
+            var root = AOStar.<T>root(workspace, desiredConditions, currentWorldState);
+
+            LOGGER.trace("Start state: {}", currentWorldState);
+            LOGGER.trace("Root unsatisfied conditions: {}", describe(root));
+
+            root.setCosts(
+                0.0f,
+                heuristic(
+                    heuristic,
+                    workspace.getConditionIds(),
+                    root.conditionsStart,
+                    root.conditionsEnd,
+                    conditions,
+                    compiledGraph,
+                    tickCache,
+                    actor,
+                    currentWorldState
+                ),
+                false
+            );
+            enqueue(root);
+        }
+
+        /**
+         * Expands up to the given number of nodes.
+         *
+         * @return {@code true} if the search is done, see {@link #getPlan()}.
+         */
+        public boolean step(int maxExpansions) {
+            var stepExpansions = 0;
+
+            while (!done && stepExpansions < maxExpansions) {
+                if (open.isEmpty() || (bestPlan != null && expansions >= options.getExpansionBudget())) {
+                    finish();
+                    break;
+                }
+
+                var node = open.poll();
+
+                if (node.gCost >= costBound) {
+                    // Queued before a cheaper plan was found.
+                    continue;
+                }
+
+                if (node.heuristicPending) {
+                    evaluateHeuristic(node);
+
+                    if (priority(node) > open.peekPriority()) {
+                        // No longer the most promising node.
+                        enqueue(node);
+                        continue;
                     }
                 }
 
-                h += minCost;
+                expansions++;
+                stepExpansions++;
+                expand(node);
+            }
+
+            return done;
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+
+        /**
+         * @return The plan found, or {@code null} if the search is not done or found no plan.
+         */
+        public @Nullable List<ActionWithCost<? super T>> getPlan() {
+            return done ? bestPlan : null;
+        }
+
+        public int getExpansions() {
+            return expansions;
+        }
+
+        private void enqueue(AOStarNode<T> node) {
+            open.add(node, priority(node), options.getTieBreaking().of(node.gCost, node.hCost));
+        }
+
+        private float priority(AOStarNode<T> node) {
+            return weight == 1.0f ? node.fCost : node.gCost + weight * node.hCost;
+        }
+
+        private void evaluateHeuristic(AOStarNode<T> node) {
+            var h = heuristic(
+                heuristic,
+                workspace.getConditionIds(),
+                node.conditionsStart,
+                node.conditionsEnd,
+                conditions,
+                compiledGraph,
+                tickCache,
+                actor,
+                node.simulatedState
+            );
+
+            node.setCosts(node.gCost, h, false);
+        }
+
+        private void finish() {
+            done = true;
 
+            if (bestPlan == null) {
+                LOGGER.trace("No plan found.");
+                event.complete(goalName, expansions, generatedNodes, -1, 0.0f);
             } else {
-                LOGGER.trace(" Heuristic: condition {} has no satisfiers → returning ∞", condition);
-                // No known action can satisfy this condition.
-                return Float.MAX_VALUE;
+                event.complete(goalName, expansions, generatedNodes, bestPlan.size(), bestCost);
             }
         }
 
-        return h;
+        private Object describe(AOStarNode<T> node) {
+            return conditions.describe(workspace.getConditionIds(), node.conditionsStart, node.conditionsEnd);
+        }
+
+        private void expand(AOStarNode<T> node) {
+            LOGGER.trace("\n--- Expanding node ---");
+            LOGGER.trace("Plan so far: {}", node);
+            LOGGER.trace("Unsatisfied conditions: {}", describe(node));
+            LOGGER.trace("g={} h={} f={}", node.gCost, node.hCost, node.fCost);
+
+            if (node.isGoal()) {
+                // All conditions are satisfied.
+                bestPlan = node.toPlan();
+                bestCost = node.gCost;
+
+                if (weight <= 1.0f || options.getWeightStep() <= 0.0f) {
+                    LOGGER.trace("Goal reached! Returning plan.");
+                    finish();
+                    return;
+                }
+
+                // Look for a cheaper plan with a weight closer to plain A*.
+                LOGGER.trace("Goal reached with weight {}, looking for a plan cheaper than {}", weight, bestCost);
+                costBound = bestCost;
+                isBounded = true;
+                weight = Math.max(1.0f, weight - options.getWeightStep());
+
+                var queued = new ArrayList<AOStarNode<T>>(open.size());
+
+                while (!open.isEmpty()) {
+                    queued.add(open.poll());
+                }
+
+                queued.forEach(this::enqueue);
+                return;
+            }
+
+            for (var c = node.conditionsStart; c < node.conditionsEnd; c++) {
+                // The ids are fetched again every time, as adding the ids of a child may replace the array.
+                var conditionId = workspace.getConditionIds()[c];
+                LOGGER.trace("Expanding condition: {}", conditions.get(conditionId));
+
+                var satisfierEnd = compiledGraph.getSatisfierEnd(conditionId);
+
+                for (var i = compiledGraph.getSatisfierStart(conditionId); i < satisfierEnd; i++) {
+                    var actionId = compiledGraph.getSatisfier(i);
+                    var action = compiledGraph.getAction(actionId);
+                    LOGGER.trace(" Trying action: {}", action);
+
+                    // Compute action cost using the current simulated state.
+                    var actionCost = tickCache.getCost(actionId, actor, node.simulatedState);
+
+                    // Simulate applying the action and collect what is left unsatisfied.
+                    var child = child(workspace, tickCache, node, conditionId, actionId, action, actionCost);
+                    var g = child.gCost;
+                    LOGGER.trace("  Applied effects, new state: {}", child.simulatedState);
+                    LOGGER.trace("  New unsatisfied after action: {}", describe(child));
+
+                    var isOverBound = isBounded
+                        && g + lowerBound(
+                            workspace.getConditionIds(),
+                            child.conditionsStart,
+                            child.conditionsEnd,
+                            compiledGraph,
+                            tickCache,
+                            actor,
+                            child.simulatedState
+                        ) >= costBound;
+
+                    if (isOverBound) {
+                        LOGGER.trace("  Pruned, cannot finish below the cost bound {}", costBound);
+                        free(workspace, child);
+                        continue;
+                    }
+
+                    if (options.isLazyHeuristic() && !child.isGoal()) {
+                        // Estimated with the parent's heuristic until taken from the open list.
+                        LOGGER.trace("  Action cost={} → g={} h~{} f~{}", actionCost, g, node.hCost, g + node.hCost);
+                        child.setCosts(g, node.hCost, true);
+                        enqueue(child);
+                        generatedNodes++;
+                        continue;
+                    }
+
+                    var h = heuristic(
+                        heuristic,
+                        workspace.getConditionIds(),
+                        child.conditionsStart,
+                        child.conditionsEnd,
+                        conditions,
+                        compiledGraph,
+                        tickCache,
+                        actor,
+                        node.simulatedState
+                    );
+                    LOGGER.trace("  Action cost={} → g={} h={} f={}", actionCost, g, h, g + h);
+
+                    child.setCosts(g, h, false);
+                    enqueue(child);
+                    generatedNodes++;
+                }
+            }
+        }
     }
 
-    record AOStarNode<T>(
-        ConditionContainer unsatisfiedConditions,
-        List<ActionWithCost<? super T>> planSoFar,
-        SimulatedWorldState simulatedState,
+    /**
+     * A node of the search, owned by a {@link SearchWorkspace} and reused by later searches. Its unsatisfied
+     * conditions are the range {@code [conditionsStart, conditionsEnd)} of the workspace's condition ids, and its plan
+     * is found by following the parents back to the root, so creating a node copies neither.
+     *
+     * @param <T> The actor type.
+     */
+    static final class AOStarNode<T> {
+
+        @Nullable AOStarNode<T> parent;
+
+        // The action taken from the parent to get here, and its cost.
+        @Nullable Action<? super T> action;
+
+        float actionCost;
+
+        // The number of actions from the root.
+        int depth;
+
+        int conditionsStart;
+
+        int conditionsEnd;
+
+        // Only null before the node was first used.
+        @Nullable SimulatedWorldState simulatedState;
+
         // cost so far.
-        float gCost,
+        float gCost;
+
         // heuristic estimate.
-        float hCost,
+        float hCost;
+
         // g + h.
-        float fCost
-    ) {
+        float fCost;
 
-        AOStarNode(
-            ConditionContainer unsatisfiedConditions,
-            List<ActionWithCost<? super T>> planSoFar,
-            SimulatedWorldState simulatedState,
-            float gCost,
-            float hCost
-        ) {
-            this(unsatisfiedConditions, planSoFar, simulatedState, gCost, hCost, gCost + hCost);
+        // whether hCost is the parent's heuristic, see SearchOptions#isLazyHeuristic().
+        boolean heuristicPending;
+
+        void setCosts(float gCost, float hCost, boolean heuristicPending) {
+            this.gCost = gCost;
+            this.hCost = hCost;
+            this.fCost = gCost + hCost;
+            this.heuristicPending = heuristicPending;
+        }
+
+        boolean isGoal() {
+            return conditionsStart == conditionsEnd;
+        }
+
+        /**
+         * Returns the actions from this node back to the root, which is the order they are executed in.
+         */
+        List<ActionWithCost<? super T>> toPlan() {
+            var plan = new ArrayList<ActionWithCost<? super T>>(depth);
+
+            for (var node = this; node.parent != null; node = node.parent) {
+                plan.add(new ActionWithCost<>(node.action, node.actionCost));
+            }
+
+            return plan;
+        }
+
+        @Override
+        public String toString() {
+            // The plan so far, in search order.
+            return toPlan().reversed().toString();
+        }
+    }
+
+    /**
+     * Numbers the conditions seen by one search. Conditions of the graph keep their {@link CompiledGraph} id, and any
+     * other condition (such as a desired condition that is not part of the graph) is numbered after them, which the
+     * compiled graph treats as a condition without satisfiers.
+     */
+    static final class SearchConditions {
+
+        private final CompiledGraph<?> compiledGraph;
+
+        private final List<Condition<?>> localConditions;
+
+        private final Map<Condition<?>, Integer> localConditionIds;
+
+        SearchConditions(CompiledGraph<?> compiledGraph) {
+            this.compiledGraph = compiledGraph;
+            this.localConditions = new ArrayList<>();
+            this.localConditionIds = new HashMap<>();
+        }
+
+        boolean isFor(CompiledGraph<?> compiledGraph) {
+            return this.compiledGraph == compiledGraph;
+        }
+
+        /**
+         * Forgets the conditions numbered after the graph's, for reuse by another search.
+         */
+        void clear() {
+            localConditions.clear();
+            localConditionIds.clear();
+        }
+
+        int[] idsOf(ConditionContainer conditionContainer) {
+            var conditions = conditionContainer.getConditions();
+            var ids = new int[conditions.size()];
+
+            for (var i = 0; i < ids.length; i++) {
+                ids[i] = idOf(conditions.get(i));
+            }
+
+            return ids;
+        }
+
+        int idOf(Condition<?> condition) {
+            var id = compiledGraph.getConditionId(condition);
+
+            if (id >= 0) {
+                return id;
+            }
+
+            return localConditionIds.computeIfAbsent(condition, $ -> {
+                localConditions.add(condition);
+                return compiledGraph.getConditionCount() + localConditions.size() - 1;
+            });
+        }
+
+        Condition<?> get(int id) {
+            var conditionCount = compiledGraph.getConditionCount();
+            return id < conditionCount ? compiledGraph.getCondition(id) : localConditions.get(id - conditionCount);
+        }
+
+        // Only called for logging, the returned object is only turned into a string if tracing is enabled.
+        Object describe(int[] ids, int from, int to) {
+            return new Object() {
+
+                @Override
+                public String toString() {
+                    return Arrays.stream(ids, from, to).mapToObj(SearchConditions.this::get).toList().toString();
+                }
+            };
         }
     }
 
@@ -8,6 +8,7 @@ import java.util.ArrayDeque;
 import java.util.List;
 import java.util.function.UnaryOperator;
 
+import com.just.goap.event.PlanExecutionEvent;
 import com.just.goap.graph.Graph;
 import com.just.goap.plan.DefaultPlanFactory;
 import com.just.goap.plan.Plan;
@@ -127,7 +128,8 @@ public final class Agent<T> {
     private void supplyPlansIfNeeded(Graph<T> graph, T actor) {
         var context = new ReplanPolicy.Context<>(this, graph, currentWorldState, previousWorldState);
 
-        if (replanPolicy.shouldReplan(context)) {
+        // A factory that is still working on plans is resumed every tick, whatever the replan policy says.
+        if (planFactory.isPending() || replanPolicy.shouldReplan(context)) {
             debugger.push("planFactory.create()");
             var plans = planFactory.create(graph, actor, currentWorldState, debugger);
             debugger.pop();
@@ -147,7 +149,10 @@ public final class Agent<T> {
             previousWorldState
         );
 
-        planExecutor.execute(context);
+        var event = new PlanExecutionEvent();
+        event.begin();
+        var result = planExecutor.execute(context);
+        event.complete(planExecutor, tick, result);
 
         debugger.pop();
     }
@@ -155,6 +160,14 @@ public final class Agent<T> {
     public interface PlanFactory<T> {
 
         List<Plan<T>> create(Graph<T> graph, T actor, SensingWorldState<T> worldState, Debugger debugger);
+
+        /**
+         * Returns whether this factory spreads its work over several calls and has not finished yet, in which case the
+         * agent calls {@link #create} again on the next tick regardless of its replan policy.
+         */
+        default boolean isPending() {
+            return false;
+        }
     }
 
     public static class Builder<T> {
@@ -0,0 +1,218 @@
+package com.just.goap;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import com.just.goap.event.PlanningEvent;
+import com.just.goap.goal.Goal;
+import com.just.goap.graph.Graph;
+import com.just.goap.plan.Solver;
+import com.just.goap.state.ReadableWorldState;
+import com.just.goap.state.TickCache;
+
+/**
+ * Beam search. The search goes one plan step at a time, and only keeps the {@code beamWidth} most promising nodes of
+ * each step, skipping nodes whose state is already in the step. Nodes that are not kept are freed right away, so the
+ * search holds at most {@code beamWidth} nodes per step taken, plus the children of the current step. Time is bounded
+ * by the beam width and {@code maxDepth}, but the search may miss the cheapest plan, or any plan at all if every way
+ * to one was dropped.
+ *
+ * @param <T> The actor type.
+ */
+public final class BeamSolver<T> implements Solver<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BeamSolver.class);
+
+    private static final Comparator<AOStar.AOStarNode<?>> F_COST_COMPARATOR = Comparator.comparingDouble(
+        node -> node.fCost
+    );
+
+    private final int beamWidth;
+
+    private final int maxDepth;
+
+    public BeamSolver(int beamWidth, int maxDepth) {
+        this.beamWidth = beamWidth;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * @return The cheapest plan found at the first step that finishes one, or {@code null} if there is none.
+     */
+    @Override
+    public @Nullable List<AOStar.ActionWithCost<? super T>> solve(
+        Graph<T> graph,
+        Goal goal,
+        ReadableWorldState worldState,
+        T actor,
+        float costBound
+    ) {
+        var workspace = SearchWorkspace.acquire();
+
+        try {
+            return solve(graph, goal, worldState, actor, costBound, workspace);
+        } finally {
+            workspace.release();
+        }
+    }
+
+    /**
+     * @return {@code false}, as every way to a plan may have been dropped.
+     */
+    @Override
+    public boolean isComplete() {
+        return false;
+    }
+
+    private @Nullable List<AOStar.ActionWithCost<? super T>> solve(
+        Graph<T> graph,
+        Goal goal,
+        ReadableWorldState currentWorldState,
+        T actor,
+        float costBound,
+        SearchWorkspace workspace
+    ) {
+        var event = new PlanningEvent();
+        event.begin();
+
+        var expansions = 0;
+        var generatedNodes = 0;
+        var compiledGraph = graph.getCompiledGraph();
+        workspace.reset(compiledGraph);
+        var conditions = workspace.getConditions();
+        var tickCache = TickCache.of(graph, currentWorldState);
+        var isBounded = costBound < Float.POSITIVE_INFINITY;
+
+        var root = AOStar.<T>root(workspace, goal.getDesiredConditions(), currentWorldState);
+        root.setCosts(
+            0.0f,
+            AOStar.heuristic(
+                workspace.getConditionIds(),
+                root.conditionsStart,
+                root.conditionsEnd,
+                conditions,
+                compiledGraph,
+                tickCache,
+                actor,
+                currentWorldState
+            ),
+            false
+        );
+
+        if (root.isGoal()) {
+            event.complete(goal.getName(), expansions, generatedNodes, 0, 0.0f);
+            return List.of();
+        }
+
+        var beam = new ArrayList<AOStar.AOStarNode<T>>();
+        var children = new ArrayList<AOStar.AOStarNode<T>>();
+        var beamStates = new HashSet<StateId>();
+        var retained = Collections.newSetFromMap(new IdentityHashMap<AOStar.AOStarNode<?>, Boolean>());
+        beam.add(root);
+
+        for (var depth = 0; depth < maxDepth && !beam.isEmpty(); depth++) {
+            AOStar.AOStarNode<T> bestGoalNode = null;
+            // Every node from here on is a child of the current beam.
+            var childrenFrom = workspace.getNodeCount();
+
+            for (var node : beam) {
+                expansions++;
+
+                for (var c = node.conditionsStart; c < node.conditionsEnd; c++) {
+                    var conditionId = workspace.getConditionIds()[c];
+                    var satisfierEnd = compiledGraph.getSatisfierEnd(conditionId);
+
+                    for (var i = compiledGraph.getSatisfierStart(conditionId); i < satisfierEnd; i++) {
+                        var actionId = compiledGraph.getSatisfier(i);
+                        var action = compiledGraph.getAction(actionId);
+                        var actionCost = tickCache.getCost(actionId, actor, node.simulatedState);
+                        var child = AOStar.child(workspace, tickCache, node, conditionId, actionId, action, actionCost);
+
+                        var isOverBound = isBounded
+                            && child.gCost + AOStar.lowerBound(
+                                workspace.getConditionIds(),
+                                child.conditionsStart,
+                                child.conditionsEnd,
+                                compiledGraph,
+                                tickCache,
+                                actor,
+                                child.simulatedState
+                            ) >= costBound;
+
+                        if (isOverBound) {
+                            AOStar.free(workspace, child);
+                            continue;
+                        }
+
+                        var h = AOStar.heuristic(
+                            workspace.getConditionIds(),
+                            child.conditionsStart,
+                            child.conditionsEnd,
+                            conditions,
+                            compiledGraph,
+                            tickCache,
+                            actor,
+                            node.simulatedState
+                        );
+                        child.setCosts(child.gCost, h, false);
+                        generatedNodes++;
+
+                        if (child.isGoal()) {
+                            if (bestGoalNode == null || child.gCost < bestGoalNode.gCost) {
+                                bestGoalNode = child;
+                            }
+                        } else {
+                            children.add(child);
+                        }
+                    }
+                }
+            }
+
+            if (bestGoalNode != null) {
+                var plan = bestGoalNode.toPlan();
+                event.complete(goal.getName(), expansions, generatedNodes, plan.size(), bestGoalNode.gCost);
+                return plan;
+            }
+
+            // Keep only the most promising nodes for the next step, once per state.
+            children.sort(F_COST_COMPARATOR);
+            beam.clear();
+
+            for (var child : children) {
+                if (beam.size() == beamWidth) {
+                    break;
+                }
+
+                var state = StateId.of(
+                    workspace.getConditionIds(),
+                    child.conditionsStart,
+                    child.conditionsEnd,
+                    child.simulatedState
+                );
+
+                if (beamStates.add(state)) {
+                    beam.add(child);
+                }
+            }
+
+            // The dropped children are freed, so that memory grows with the beam width rather than with every child.
+            retained.addAll(beam);
+            workspace.retainNodes(childrenFrom, retained);
+            retained.clear();
+            beamStates.clear();
+            children.clear();
+        }
+
+        LOGGER.trace("No plan found.");
+        event.complete(goal.getName(), expansions, generatedNodes, -1, 0.0f);
+        return null;
+    }
+}
@@ -0,0 +1,458 @@
+package com.just.goap;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import com.just.goap.action.Action;
+import com.just.goap.event.PlanningEvent;
+import com.just.goap.goal.Goal;
+import com.just.goap.graph.CompiledGraph;
+import com.just.goap.graph.Graph;
+import com.just.goap.plan.Solver;
+import com.just.goap.search.OpenList;
+import com.just.goap.search.OpenLists;
+import com.just.goap.state.ReadableWorldState;
+import com.just.goap.state.SimulatedWorldState;
+import com.just.goap.state.TickCache;
+
+/**
+ * Bidirectional search. Besides the usual backward search from the goal's unsatisfied conditions, a forward search
+ * applies the actions whose preconditions hold, starting from the current world state. A plan is found when a forward
+ * state satisfies every condition left by a backward node, and is made of the forward actions followed by the backward
+ * ones. Each step expands whichever side has the fewer open nodes, and both sides drop states they already reached
+ * more cheaply.
+ * <p>
+ * When few actions apply in the current world state, the forward search runs out of options quickly and guides the
+ * whole search. Both sides expand nodes in order of cost so far, without a heuristic, and the search stops once the
+ * cheapest costs left on both sides add up to the cheapest plan found, so plans are as cheap as possible given the
+ * actions of the goal's {@link com.just.goap.graph.GoalSlice}.
+ *
+ * @param <T> The actor type.
+ */
+public final class BidirectionalSolver<T> implements Solver<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BidirectionalSolver.class);
+
+    private static final StateKey<?>[] NO_KEYS = new StateKey<?>[0];
+
+    private final int maxExpansions;
+
+    /**
+     * @param maxExpansions The number of expansions, on both sides, after which the cheapest plan so far is returned.
+     */
+    public BidirectionalSolver(int maxExpansions) {
+        this.maxExpansions = maxExpansions;
+    }
+
+    /**
+     * @return The plan, or {@code null} if there is no plan cheaper than {@code costBound}.
+     */
+    @Override
+    public @Nullable List<AOStar.ActionWithCost<? super T>> solve(
+        Graph<T> graph,
+        Goal goal,
+        ReadableWorldState worldState,
+        T actor,
+        float costBound
+    ) {
+        return new Search<>(graph, goal, worldState, actor, costBound).solve(maxExpansions);
+    }
+
+    /**
+     * @return {@code false}, as the search may run out of expansions before both sides meet.
+     */
+    @Override
+    public boolean isComplete() {
+        return false;
+    }
+
+    /**
+     * The state of one bidirectional search. Each side keeps the cheapest node of every state it reached, and each new
+     * node of one side is only checked against the nodes of the other side it can meet with. A backward node is indexed
+     * by its blocking key, the key of its first unsatisfied condition that does not hold in the current world state, as
+     * only forward states that simulate that key can satisfy it. A forward node is indexed by every key the effects
+     * along its path wrote to.
+     * <p>
+     * Expanded nodes stay indexed: a forward state satisfying a backward node does not mean that its children satisfy
+     * that node's parent, so a node expanded before its match was generated would otherwise never meet it.
+     */
+    private static final class Search<T> {
+
+        private final Goal goal;
+
+        private final ReadableWorldState currentWorldState;
+
+        private final T actor;
+
+        private final CompiledGraph<T> compiledGraph;
+
+        private final AOStar.SearchConditions conditions;
+
+        private final TickCache<T> tickCache;
+
+        // The actions the forward search tries, the ones that can appear in a plan for the goal.
+        private final int[] actionIds;
+
+        private final OpenList<ForwardNode<T>> forwardOpen;
+
+        // The cheapest forward node of every state, overall and by each key it simulates.
+        private final Map<StateId, ForwardNode<T>> forwardNodes;
+
+        private final Map<StateKey<?>, Map<StateId, ForwardNode<T>>> forwardNodesByKey;
+
+        private final OpenList<RegressionNode<T>> backwardOpen;
+
+        private final Map<StateId, Float> backwardCosts;
+
+        // The cheapest backward node of every state, by blocking key or without one.
+        private final Map<StateKey<?>, Map<StateId, RegressionNode<T>>> backwardNodesByKey;
+
+        private final Map<StateId, RegressionNode<T>> unblockedBackwardNodes;
+
+        private float bestCost;
+
+        private @Nullable ForwardNode<T> bestForward;
+
+        private @Nullable RegressionNode<T> bestBackward;
+
+        private int expansions;
+
+        private int generatedNodes;
+
+        private Search(
+            Graph<T> graph,
+            Goal goal,
+            ReadableWorldState currentWorldState,
+            T actor,
+            float costBound
+        ) {
+            this.goal = goal;
+            this.currentWorldState = currentWorldState;
+            this.actor = actor;
+            this.compiledGraph = graph.getCompiledGraph();
+            this.conditions = new AOStar.SearchConditions(compiledGraph);
+            this.tickCache = TickCache.of(graph, currentWorldState);
+
+            var slice = compiledGraph.getGoalSlice(goal);
+            this.actionIds = slice == null
+                ? IntStream.range(0, compiledGraph.getActionCount()).toArray()
+                : slice.getActionIds();
+
+            this.forwardOpen = OpenLists.priorityQueue().create();
+            this.forwardNodes = new LinkedHashMap<>();
+            this.forwardNodesByKey = new HashMap<>();
+            this.backwardOpen = OpenLists.priorityQueue().create();
+            this.backwardCosts = new HashMap<>();
+            this.backwardNodesByKey = new HashMap<>();
+            this.unblockedBackwardNodes = new LinkedHashMap<>();
+            this.bestCost = costBound;
+            this.bestForward = null;
+            this.bestBackward = null;
+            this.expansions = 0;
+            this.generatedNodes = 0;
+        }
+
+        @Nullable List<AOStar.ActionWithCost<? super T>> solve(int maxExpansions) {
+            var event = new PlanningEvent();
+            event.begin();
+
+            var rootUnsatisfied = conditions.idsOf(goal.getDesiredConditions().filterUnsatisfied(currentWorldState));
+            var rootState = new SimulatedWorldState(currentWorldState);
+
+            if (rootUnsatisfied.length == 0) {
+                event.complete(goal.getName(), 0, 0, 0, 0.0f);
+                return List.of();
+            }
+
+            addForward(new ForwardNode<>(rootState, null, null, 0.0f, 0.0f, NO_KEYS));
+            addBackward(new RegressionNode<>(rootUnsatisfied, rootState, null, null, 0.0f, 0.0f, 0.0f));
+
+            while (!forwardOpen.isEmpty() && !backwardOpen.isEmpty() && expansions < maxExpansions) {
+                if (forwardOpen.peekPriority() + backwardOpen.peekPriority() >= bestCost) {
+                    // No plan left to find can be cheaper than the best one.
+                    break;
+                }
+
+                if (forwardOpen.size() <= backwardOpen.size()) {
+                    var node = forwardOpen.poll();
+
+                    if (forwardNodes.get(node.id()) == node) {
+                        expansions++;
+                        expandForward(node);
+                    }
+                } else {
+                    var node = backwardOpen.poll();
+
+                    if (node.gCost() <= backwardCosts.get(node.id())) {
+                        expansions++;
+                        expandBackward(node);
+                    }
+                }
+            }
+
+            if (bestForward == null || bestBackward == null) {
+                LOGGER.trace("No plan found.");
+                event.complete(goal.getName(), expansions, generatedNodes, -1, 0.0f);
+                return null;
+            }
+
+            var plan = bestForward.toPlan();
+            plan.addAll(bestBackward.toPlan());
+            event.complete(goal.getName(), expansions, generatedNodes, plan.size(), bestCost);
+            return plan;
+        }
+
+        private void expandForward(ForwardNode<T> node) {
+            for (var actionId : actionIds) {
+                if (!isApplicable(actionId, node.simulatedState())) {
+                    continue;
+                }
+
+                var action = compiledGraph.getAction(actionId);
+                var actionCost = tickCache.getCost(actionId, actor, node.simulatedState());
+                var g = node.gCost() + actionCost;
+
+                if (g >= bestCost) {
+                    continue;
+                }
+
+                var newState = node.simulatedState().copy();
+                newState.apply(action.getEffectContainer());
+                generatedNodes++;
+                addForward(new ForwardNode<>(newState, node, action, actionCost, g, simulatedKeys(node, action)));
+            }
+        }
+
+        private void expandBackward(RegressionNode<T> node) {
+            for (var conditionId : node.unsatisfiedConditions()) {
+                var satisfierEnd = compiledGraph.getSatisfierEnd(conditionId);
+
+                for (var i = compiledGraph.getSatisfierStart(conditionId); i < satisfierEnd; i++) {
+                    var actionId = compiledGraph.getSatisfier(i);
+                    var action = compiledGraph.getAction(actionId);
+                    var newState = node.simulatedState().copy();
+                    newState.apply(action.getEffectContainer());
+
+                    var remaining = AOStar.remaining(node.unsatisfiedConditions(), conditionId, conditions, newState);
+                    var newUnsatisfied = AOStar.union(remaining, tickCache.getUnmetPreconditions(actionId));
+                    var actionCost = tickCache.getCost(actionId, actor, node.simulatedState());
+                    var g = node.gCost() + actionCost;
+
+                    var isOverBound = bestCost < Float.POSITIVE_INFINITY
+                        && g + AOStar.lowerBound(newUnsatisfied, compiledGraph, tickCache, actor, newState) >= bestCost;
+
+                    if (isOverBound) {
+                        continue;
+                    }
+
+                    generatedNodes++;
+                    addBackward(new RegressionNode<>(newUnsatisfied, newState, node, action, actionCost, g, 0.0f));
+                }
+            }
+        }
+
+        private boolean isApplicable(int actionId, ReadableWorldState worldState) {
+            var end = compiledGraph.getPreconditionEnd(actionId);
+
+            for (var i = compiledGraph.getPreconditionStart(actionId); i < end; i++) {
+                if (!compiledGraph.getCondition(compiledGraph.getPrecondition(i)).satisfiedBy(worldState)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private void addForward(ForwardNode<T> node) {
+            var known = forwardNodes.get(node.id());
+
+            if (known != null && known.gCost() <= node.gCost()) {
+                return;
+            }
+
+            forwardOpen.add(node, node.gCost(), 0.0f);
+
+            for (var key : node.simulatedKeys()) {
+                var backwardNodes = backwardNodesByKey.get(key);
+
+                if (backwardNodes != null) {
+                    for (var backwardNode : backwardNodes.values()) {
+                        meet(node, backwardNode);
+                    }
+                }
+            }
+
+            for (var backwardNode : unblockedBackwardNodes.values()) {
+                meet(node, backwardNode);
+            }
+
+            var replaced = forwardNodes.put(node.id(), node);
+
+            if (replaced != null) {
+                // The state was reached more cheaply, so this node meets whatever the one reaching it before met.
+                for (var key : replaced.simulatedKeys()) {
+                    forwardNodesByKey.get(key).remove(node.id());
+                }
+            }
+
+            for (var key : node.simulatedKeys()) {
+                forwardNodesByKey.computeIfAbsent(key, $ -> new LinkedHashMap<>()).put(node.id(), node);
+            }
+        }
+
+        private void addBackward(RegressionNode<T> node) {
+            var knownCost = backwardCosts.get(node.id());
+
+            if (knownCost != null && knownCost <= node.gCost()) {
+                return;
+            }
+
+            backwardCosts.put(node.id(), node.gCost());
+            backwardOpen.add(node, node.gCost(), 0.0f);
+
+            var blockingKey = blockingKey(node);
+            var forwardCandidates = blockingKey == null ? forwardNodes : forwardNodesByKey.get(blockingKey);
+
+            if (forwardCandidates != null) {
+                for (var forwardNode : forwardCandidates.values()) {
+                    meet(forwardNode, node);
+                }
+            }
+
+            var replaced = backwardNodesOf(blockingKey).put(node.id(), node);
+
+            if (replaced != null) {
+                // The unsatisfied conditions are the same but may be in another order, so may block on another key.
+                var replacedNodes = backwardNodesOf(blockingKey(replaced));
+
+                if (replacedNodes.get(node.id()) == replaced) {
+                    replacedNodes.remove(node.id());
+                }
+            }
+        }
+
+        private Map<StateId, RegressionNode<T>> backwardNodesOf(@Nullable StateKey<?> blockingKey) {
+            return blockingKey == null
+                ? unblockedBackwardNodes
+                : backwardNodesByKey.computeIfAbsent(blockingKey, $ -> new LinkedHashMap<>());
+        }
+
+        /**
+         * Returns the key of the first unsatisfied condition of the given backward node that does not hold in the
+         * current world state, or {@code null} if they all do. A forward state that satisfies the condition differs
+         * from the current world state in that key, so it must simulate it.
+         */
+        private @Nullable StateKey<?> blockingKey(RegressionNode<T> node) {
+            for (var conditionId : node.unsatisfiedConditions()) {
+                var condition = conditions.get(conditionId);
+
+                if (!condition.satisfiedBy(currentWorldState)) {
+                    return condition.key();
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Returns the keys the given node simulates, along with the keys the effects of the given action write to.
+         * Reuses the node's array if the action writes to no new key.
+         */
+        private static StateKey<?>[] simulatedKeys(ForwardNode<?> node, Action<?> action) {
+            var keys = node.simulatedKeys();
+
+            for (var effect : action.getEffectContainer().getEffects()) {
+                if (!contains(keys, effect.key())) {
+                    keys = Arrays.copyOf(keys, keys.length + 1);
+                    keys[keys.length - 1] = effect.key();
+                }
+            }
+
+            return keys;
+        }
+
+        private static boolean contains(StateKey<?>[] keys, StateKey<?> key) {
+            for (var existingKey : keys) {
+                if (existingKey.equals(key)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Records the plan made of both nodes' actions if the forward node satisfies the conditions left by the
+         * backward node, and the plan is the cheapest so far.
+         */
+        private void meet(ForwardNode<T> forwardNode, RegressionNode<T> backwardNode) {
+            var cost = forwardNode.gCost() + backwardNode.gCost();
+
+            if (cost >= bestCost) {
+                return;
+            }
+
+            for (var conditionId : backwardNode.unsatisfiedConditions()) {
+                if (!conditions.get(conditionId).satisfiedBy(forwardNode.simulatedState())) {
+                    return;
+                }
+            }
+
+            LOGGER.trace("Forward and backward search met with a plan costing {}", cost);
+            bestCost = cost;
+            bestForward = forwardNode;
+            bestBackward = backwardNode;
+        }
+    }
+
+    /**
+     * A node of the forward search.
+     */
+    private record ForwardNode<T>(
+        SimulatedWorldState simulatedState,
+        @Nullable ForwardNode<T> parent,
+        // the action taken from the parent to get here.
+        @Nullable Action<? super T> action,
+        float actionCost,
+        float gCost,
+        // every key the effects from the root to here wrote to, which includes every key the state simulates.
+        StateKey<?>[] simulatedKeys,
+        StateId id
+    ) {
+
+        ForwardNode(
+            SimulatedWorldState simulatedState,
+            @Nullable ForwardNode<T> parent,
+            @Nullable Action<? super T> action,
+            float actionCost,
+            float gCost,
+            StateKey<?>[] simulatedKeys
+        ) {
+            this(simulatedState, parent, action, actionCost, gCost, simulatedKeys, StateId.of(simulatedState));
+        }
+
+        /**
+         * Returns the actions from the root to this node, which is the order they are executed in.
+         */
+        List<AOStar.ActionWithCost<? super T>> toPlan() {
+            var plan = new ArrayList<AOStar.ActionWithCost<? super T>>();
+
+            for (var node = this; node.parent != null; node = node.parent) {
+                plan.add(new AOStar.ActionWithCost<>(node.action, node.actionCost));
+            }
+
+            Collections.reverse(plan);
+            return plan;
+        }
+    }
+}
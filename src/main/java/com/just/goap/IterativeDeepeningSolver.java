@@ -0,0 +1,229 @@
+package com.just.goap;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.just.goap.condition.ConditionContainer;
+import com.just.goap.event.PlanningEvent;
+import com.just.goap.goal.Goal;
+import com.just.goap.graph.CompiledGraph;
+import com.just.goap.graph.Graph;
+import com.just.goap.plan.Solver;
+import com.just.goap.state.ReadableWorldState;
+import com.just.goap.state.SimulatedWorldState;
+import com.just.goap.state.TickCache;
+
+/**
+ * Iterative deepening A* (IDA*). Instead of keeping an open list, the search runs depth-first up to a cost threshold,
+ * raising the threshold to the cheapest cut off node until a plan is found. Memory use only grows with the length of
+ * the plan, at the price of expanding nodes again in every iteration.
+ * <p>
+ * Each iteration raises the threshold by at least 1%, so that costs that differ by tiny amounts do not each take an
+ * iteration of their own. A plan found may thus cost up to 1% more than the threshold that would have just let it
+ * through. Nodes whose state already appears on the path from the root are skipped, which keeps cycles of actions
+ * that undo each other from going deeper until the threshold stops them, or forever if they cost nothing.
+ *
+ * @param <T> The actor type.
+ */
+public final class IterativeDeepeningSolver<T> implements Solver<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IterativeDeepeningSolver.class);
+
+    // The least an iteration raises the threshold by, relative to the threshold.
+    private static final float MIN_THRESHOLD_GROWTH = 0.01f;
+
+    /**
+     * @return The plan, or {@code null} if there is no plan cheaper than {@code costBound}.
+     */
+    @Override
+    public @Nullable List<AOStar.ActionWithCost<? super T>> solve(
+        Graph<T> graph,
+        Goal goal,
+        ReadableWorldState worldState,
+        T actor,
+        float costBound
+    ) {
+        return new Search<>(graph, goal.getName(), worldState, actor, costBound).solve(goal.getDesiredConditions());
+    }
+
+    /**
+     * The state of one iterative deepening search. Only the current path is kept, along with the world state and
+     * unsatisfied conditions of each node on it.
+     */
+    private static final class Search<T> {
+
+        private final @Nullable String goalName;
+
+        private final ReadableWorldState currentWorldState;
+
+        private final T actor;
+
+        private final float costBound;
+
+        private final CompiledGraph<T> compiledGraph;
+
+        private final AOStar.SearchConditions conditions;
+
+        private final TickCache<T> tickCache;
+
+        // The actions from the goal back to the current node, in search order.
+        private final List<AOStar.ActionWithCost<? super T>> path;
+
+        // The states of the nodes on the current path, including the root.
+        private final Set<StateId> pathStates;
+
+        // The cheapest f cost cut off by the current iteration.
+        private float nextThreshold;
+
+        private int expansions;
+
+        private int generatedNodes;
+
+        private Search(
+            Graph<T> graph,
+            @Nullable String goalName,
+            ReadableWorldState currentWorldState,
+            T actor,
+            float costBound
+        ) {
+            this.goalName = goalName;
+            this.currentWorldState = currentWorldState;
+            this.actor = actor;
+            this.costBound = costBound;
+            this.compiledGraph = graph.getCompiledGraph();
+            this.conditions = new AOStar.SearchConditions(compiledGraph);
+            this.tickCache = TickCache.of(graph, currentWorldState);
+            this.path = new ArrayList<>();
+            this.pathStates = new HashSet<>();
+            this.nextThreshold = Float.POSITIVE_INFINITY;
+            this.expansions = 0;
+            this.generatedNodes = 0;
+        }
+
+        @Nullable List<AOStar.ActionWithCost<? super T>> solve(ConditionContainer desiredConditions) {
+            var event = new PlanningEvent();
+            event.begin();
+
+            var rootUnsatisfied = conditions.idsOf(desiredConditions.filterUnsatisfied(currentWorldState));
+            var rootState = new SimulatedWorldState(currentWorldState);
+            var rootH = AOStar.heuristic(
+                rootUnsatisfied,
+                conditions,
+                compiledGraph,
+                tickCache,
+                actor,
+                currentWorldState
+            );
+            var threshold = rootH;
+
+            // A threshold of Float.MAX_VALUE means that every cut off node has an unsatisfiable condition.
+            while (threshold < Float.MAX_VALUE) {
+                LOGGER.trace("Iterative deepening with threshold {}", threshold);
+                nextThreshold = Float.POSITIVE_INFINITY;
+                pathStates.clear();
+                pathStates.add(StateId.of(rootUnsatisfied, rootState));
+
+                if (search(rootUnsatisfied, rootState, 0.0f, rootH, threshold)) {
+                    var plan = new ArrayList<>(path).reversed();
+                    event.complete(goalName, expansions, generatedNodes, plan.size(), cost(plan));
+                    return plan;
+                }
+
+                var minThreshold = threshold + Math.max(threshold * MIN_THRESHOLD_GROWTH, Math.ulp(threshold));
+                threshold = Math.max(nextThreshold, minThreshold);
+            }
+
+            LOGGER.trace("No plan found.");
+            event.complete(goalName, expansions, generatedNodes, -1, 0.0f);
+            return null;
+        }
+
+        private boolean search(
+            int[] unsatisfied,
+            SimulatedWorldState simulatedState,
+            float g,
+            float h,
+            float threshold
+        ) {
+            var f = g + h;
+
+            if (f > threshold) {
+                nextThreshold = Math.min(nextThreshold, f);
+                return false;
+            }
+
+            expansions++;
+
+            if (unsatisfied.length == 0) {
+                return true;
+            }
+
+            for (var conditionId : unsatisfied) {
+                var satisfierEnd = compiledGraph.getSatisfierEnd(conditionId);
+
+                for (var i = compiledGraph.getSatisfierStart(conditionId); i < satisfierEnd; i++) {
+                    var actionId = compiledGraph.getSatisfier(i);
+                    var action = compiledGraph.getAction(actionId);
+                    var newState = simulatedState.copy();
+                    newState.apply(action.getEffectContainer());
+
+                    var remaining = AOStar.remaining(unsatisfied, conditionId, conditions, newState);
+                    var newUnsatisfied = AOStar.union(remaining, tickCache.getUnmetPreconditions(actionId));
+                    var actionCost = tickCache.getCost(actionId, actor, simulatedState);
+                    var newG = g + actionCost;
+
+                    var isOverBound = costBound < Float.POSITIVE_INFINITY
+                        && newG + AOStar.lowerBound(newUnsatisfied, compiledGraph, tickCache, actor, newState)
+                            >= costBound;
+
+                    if (isOverBound) {
+                        continue;
+                    }
+
+                    var state = StateId.of(newUnsatisfied, newState);
+
+                    if (!pathStates.add(state)) {
+                        // Already on the path, so this only goes around in a cycle.
+                        continue;
+                    }
+
+                    var newH = AOStar.heuristic(
+                        newUnsatisfied,
+                        conditions,
+                        compiledGraph,
+                        tickCache,
+                        actor,
+                        simulatedState
+                    );
+                    generatedNodes++;
+                    path.add(new AOStar.ActionWithCost<>(action, actionCost));
+
+                    if (search(newUnsatisfied, newState, newG, newH, threshold)) {
+                        return true;
+                    }
+
+                    path.removeLast();
+                    pathStates.remove(state);
+                }
+            }
+
+            return false;
+        }
+
+        private static float cost(List<? extends AOStar.ActionWithCost<?>> plan) {
+            var cost = 0.0f;
+
+            for (var actionWithCost : plan) {
+                cost += actionWithCost.cost();
+            }
+
+            return cost;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.just.goap;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.just.goap.state.ReadableWorldState;
+
+/**
+ * Serializes every read of a world state that is not thread-safe, such as a
+ * {@link com.just.goap.state.SensingWorldState} that senses values as they are first read.
+ */
+final class LockedWorldState implements ReadableWorldState {
+
+    private final ReadableWorldState worldState;
+
+    private final ReentrantLock lock;
+
+    LockedWorldState(ReadableWorldState worldState) {
+        this.worldState = worldState;
+        this.lock = new ReentrantLock();
+    }
+
+    @Override
+    public <V> @Nullable V getOrNull(StateKey<V> key) {
+        lock.lock();
+
+        try {
+            return worldState.getOrNull(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean has(StateKey<?> key) {
+        lock.lock();
+
+        try {
+            return worldState.has(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getInt(StateKey<Integer> key) {
+        lock.lock();
+
+        try {
+            return worldState.getInt(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getLong(StateKey<Long> key) {
+        lock.lock();
+
+        try {
+            return worldState.getLong(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public float getFloat(StateKey<Float> key) {
+        lock.lock();
+
+        try {
+            return worldState.getFloat(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean getBoolean(StateKey<Boolean> key) {
+        lock.lock();
+
+        try {
+            return worldState.getBoolean(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Map<StateKey<?>, Object> getMap() {
+        lock.lock();
+
+        try {
+            return new HashMap<>(worldState.getMap());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package com.just.goap;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import com.just.goap.event.PlanningEvent;
+import com.just.goap.goal.Goal;
+import com.just.goap.graph.CompiledGraph;
+import com.just.goap.graph.Graph;
+import com.just.goap.plan.Solver;
+import com.just.goap.search.OpenList;
+import com.just.goap.search.OpenLists;
+import com.just.goap.state.ReadableWorldState;
+import com.just.goap.state.SimulatedWorldState;
+import com.just.goap.state.TickCache;
+
+/**
+ * Hash distributed A* (HDA*), spreading a single search over several threads. Every node is owned by one thread,
+ * chosen by a hash of its unsatisfied conditions and simulated world state, and is sent to its owner through a
+ * lock-free queue. Each thread expands the nodes it owns in f cost order and drops nodes it has already reached more
+ * cheaply. The search ends once no thread has a node left that could beat the cheapest plan found.
+ * <p>
+ * The calling thread takes part in the search, the others run on virtual threads started for the search. Unmet
+ * preconditions and sensed-only costs of every action that can appear in the plan are computed up front, and reads
+ * that fall through to the current world state are serialized, so the world state and its sensors do not have to be
+ * thread-safe. Cost callbacks that are not sensed-only do run concurrently, and must be thread-safe.
+ *
+ * @param <T> The actor type.
+ */
+public final class ParallelSolver<T> implements Solver<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelSolver.class);
+
+    private final int threads;
+
+    /**
+     * @param threads The number of threads per search, including the calling thread.
+     */
+    public ParallelSolver(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * @return The plan, or {@code null} if there is no plan cheaper than {@code costBound}.
+     */
+    @Override
+    public @Nullable List<AOStar.ActionWithCost<? super T>> solve(
+        Graph<T> graph,
+        Goal goal,
+        ReadableWorldState worldState,
+        T actor,
+        float costBound
+    ) {
+        return new Search<>(graph, goal, worldState, actor, costBound, threads).solve();
+    }
+
+    /**
+     * The state of one hash distributed search. Nodes are immutable once sent to their owner, so the only state shared
+     * between threads is the inboxes, the cheapest plan found and the number of nodes that were not done with yet.
+     * Workers without a node to expand park until a node is sent to them or the search is over.
+     */
+    private static final class Search<T> {
+
+        private final Goal goal;
+
+        private final ReadableWorldState currentWorldState;
+
+        private final T actor;
+
+        private final CompiledGraph<T> compiledGraph;
+
+        private final AOStar.SearchConditions conditions;
+
+        private final TickCache<T> tickCache;
+
+        private final List<Worker> workers;
+
+        private final AtomicReference<Incumbent<T>> incumbent;
+
+        // Nodes sent but not yet expanded or dropped, counted before they are sent. The search is over at 0.
+        private final AtomicLong pendingNodes;
+
+        private final AtomicReference<@Nullable Throwable> failure;
+
+        private volatile boolean stopped;
+
+        private Search(
+            Graph<T> graph,
+            Goal goal,
+            ReadableWorldState currentWorldState,
+            T actor,
+            float costBound,
+            int threads
+        ) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("threads must be at least 1");
+            }
+
+            this.goal = goal;
+            this.currentWorldState = currentWorldState;
+            this.actor = actor;
+            this.compiledGraph = graph.getCompiledGraph();
+            this.conditions = new AOStar.SearchConditions(compiledGraph);
+            this.tickCache = TickCache.of(graph, currentWorldState);
+            this.workers = new ArrayList<>(threads);
+            this.incumbent = new AtomicReference<>(new Incumbent<>(costBound, null));
+            this.pendingNodes = new AtomicLong();
+            this.failure = new AtomicReference<>();
+            this.stopped = false;
+
+            for (var i = 0; i < threads; i++) {
+                workers.add(new Worker());
+            }
+        }
+
+        @Nullable List<AOStar.ActionWithCost<? super T>> solve() {
+            var event = new PlanningEvent();
+            event.begin();
+
+            var rootUnsatisfied = conditions.idsOf(goal.getDesiredConditions().filterUnsatisfied(currentWorldState));
+
+            if (rootUnsatisfied.length == 0) {
+                event.complete(goal.getName(), 0, 0, 0, 0.0f);
+                return List.of();
+            }
+
+            prepareTickCache();
+
+            var rootState = new SimulatedWorldState(new LockedWorldState(currentWorldState));
+            var rootH = AOStar.heuristic(
+                rootUnsatisfied,
+                conditions,
+                compiledGraph,
+                tickCache,
+                actor,
+                currentWorldState
+            );
+            send(new RegressionNode<>(rootUnsatisfied, rootState, null, null, 0.0f, 0.0f, rootH));
+
+            var threads = new ArrayList<Thread>(workers.size() - 1);
+
+            for (var i = 1; i < workers.size(); i++) {
+                threads.add(Thread.ofVirtual().name("goap-hda*-", i).start(workers.get(i)));
+            }
+
+            workers.getFirst().run();
+
+            // Only the calling thread can be interrupted, its worker stops the search when it is.
+            var interrupted = Thread.interrupted();
+
+            for (var thread : threads) {
+                while (true) {
+                    try {
+                        thread.join();
+                        break;
+                    } catch (InterruptedException e) {
+                        // Stop the search, but still wait for the workers to be done with the world state.
+                        interrupted = true;
+                        stop();
+                    }
+                }
+            }
+
+            var error = failure.get();
+
+            if (error instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            if (error instanceof Error e) {
+                throw e;
+            }
+
+            if (error != null) {
+                throw new IllegalStateException("Parallel search failed.", error);
+            }
+
+            var expansions = 0;
+            var generatedNodes = 0;
+
+            for (var worker : workers) {
+                expansions += worker.expansions;
+                generatedNodes += worker.generatedNodes;
+            }
+
+            var goalNode = incumbent.get().node();
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+                goalNode = null;
+            }
+
+            if (goalNode == null) {
+                LOGGER.trace("No plan found.");
+                event.complete(goal.getName(), expansions, generatedNodes, -1, 0.0f);
+                return null;
+            }
+
+            var plan = goalNode.toPlan();
+            event.complete(goal.getName(), expansions, generatedNodes, plan.size(), goalNode.gCost());
+            return plan;
+        }
+
+        /**
+         * Fills the tick cache for every action that can appear in the plan, so that the workers only ever read it.
+         */
+        private void prepareTickCache() {
+            var slice = compiledGraph.getGoalSlice(goal);
+            var actionCount = slice == null ? compiledGraph.getActionCount() : slice.getActionIds().length;
+
+            for (var i = 0; i < actionCount; i++) {
+                var actionId = slice == null ? i : slice.getActionIds()[i];
+                tickCache.getUnmetPreconditions(actionId);
+
+                if (compiledGraph.getAction(actionId).isCostSensedOnly()) {
+                    tickCache.getCost(actionId, actor, currentWorldState);
+                }
+            }
+        }
+
+        private void send(RegressionNode<T> node) {
+            pendingNodes.incrementAndGet();
+
+            var owner = workers.get(Math.floorMod(node.id().spreadHashCode(), workers.size()));
+            owner.inbox.add(node);
+            owner.wake();
+        }
+
+        /**
+         * Counts a node as done with, waking every worker if it was the last one so that they see the search is over.
+         */
+        private void done() {
+            if (pendingNodes.decrementAndGet() == 0) {
+                workers.forEach(Worker::wake);
+            }
+        }
+
+        private void stop() {
+            stopped = true;
+            workers.forEach(Worker::wake);
+        }
+
+        private void offerPlan(RegressionNode<T> goalNode) {
+            var current = incumbent.get();
+
+            while (goalNode.gCost() < current.cost()) {
+                var offered = new Incumbent<>(goalNode.gCost(), goalNode);
+
+                if (incumbent.compareAndSet(current, offered)) {
+                    LOGGER.trace("Found a plan costing {}", goalNode.gCost());
+                    return;
+                }
+
+                current = incumbent.get();
+            }
+        }
+
+        private final class Worker implements Runnable {
+
+            private final ConcurrentLinkedQueue<RegressionNode<T>> inbox;
+
+            private final OpenList<RegressionNode<T>> open;
+
+            // The cheapest cost so far each state was received with.
+            private final Map<StateId, Float> bestCosts;
+
+            private int expansions;
+
+            private int generatedNodes;
+
+            // The thread running this worker, null until it started.
+            private volatile @Nullable Thread thread;
+
+            // Whether the worker is about to park or parked, in which case it has to be woken for new nodes.
+            private volatile boolean idle;
+
+            private Worker() {
+                this.inbox = new ConcurrentLinkedQueue<>();
+                this.open = OpenLists.priorityQueue().create();
+                this.bestCosts = new HashMap<>();
+                this.expansions = 0;
+                this.generatedNodes = 0;
+                this.thread = null;
+                this.idle = false;
+            }
+
+            @Override
+            public void run() {
+                thread = Thread.currentThread();
+
+                try {
+                    while (!stopped) {
+                        receive();
+
+                        var node = open.poll();
+
+                        if (node == null) {
+                            if (pendingNodes.get() == 0) {
+                                return;
+                            }
+
+                            if (Thread.currentThread().isInterrupted()) {
+                                // Parking would return right away, so the search is stopped instead of spinning.
+                                stop();
+                                return;
+                            }
+
+                            idle = true;
+
+                            // Checked again once idle, as a node sent or the last node done with before that did not
+                            // wake this worker.
+                            if (inbox.isEmpty() && pendingNodes.get() != 0 && !stopped) {
+                                LockSupport.park(this);
+                            }
+
+                            idle = false;
+                            continue;
+                        }
+
+                        // Dropped if it cannot beat the cheapest plan, or if the same state arrived more cheaply since.
+                        if (node.fCost() < incumbent.get().cost() && bestCosts.get(node.id()) >= node.gCost()) {
+                            expansions++;
+                            expand(node);
+                        }
+
+                        // Only counted as done once its children were counted.
+                        done();
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                    stop();
+                }
+            }
+
+            private void wake() {
+                var thread = this.thread;
+
+                if (idle && thread != null) {
+                    LockSupport.unpark(thread);
+                }
+            }
+
+            private void receive() {
+                RegressionNode<T> node;
+
+                while ((node = inbox.poll()) != null) {
+                    var bestCost = bestCosts.get(node.id());
+
+                    if (bestCost != null && bestCost <= node.gCost()) {
+                        // Reached at least as cheaply before.
+                        done();
+                        continue;
+                    }
+
+                    bestCosts.put(node.id(), node.gCost());
+                    open.add(node, node.fCost(), 0.0f);
+                }
+            }
+
+            private void expand(RegressionNode<T> node) {
+                for (var conditionId : node.unsatisfiedConditions()) {
+                    var satisfierEnd = compiledGraph.getSatisfierEnd(conditionId);
+
+                    for (var i = compiledGraph.getSatisfierStart(conditionId); i < satisfierEnd; i++) {
+                        var actionId = compiledGraph.getSatisfier(i);
+                        var action = compiledGraph.getAction(actionId);
+                        var newState = node.simulatedState().copy();
+                        newState.apply(action.getEffectContainer());
+
+                        var remaining = AOStar.remaining(
+                            node.unsatisfiedConditions(),
+                            conditionId,
+                            conditions,
+                            newState
+                        );
+                        var newUnsatisfied = AOStar.union(remaining, tickCache.getUnmetPreconditions(actionId));
+                        var actionCost = tickCache.getCost(actionId, actor, node.simulatedState());
+                        var g = node.gCost() + actionCost;
+                        var bound = incumbent.get().cost();
+
+                        var isOverBound = bound < Float.POSITIVE_INFINITY
+                            && g + AOStar.lowerBound(newUnsatisfied, compiledGraph, tickCache, actor, newState)
+                                >= bound;
+
+                        if (isOverBound) {
+                            continue;
+                        }
+
+                        generatedNodes++;
+
+                        if (newUnsatisfied.length == 0) {
+                            offerPlan(
+                                new RegressionNode<>(newUnsatisfied, newState, node, action, actionCost, g, 0.0f)
+                            );
+                            continue;
+                        }
+
+                        var h = AOStar.heuristic(
+                            newUnsatisfied,
+                            conditions,
+                            compiledGraph,
+                            tickCache,
+                            actor,
+                            node.simulatedState()
+                        );
+
+                        if (g + h < bound) {
+                            send(new RegressionNode<>(newUnsatisfied, newState, node, action, actionCost, g, h));
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * @param node The goal node of the cheapest plan found, or {@code null} before any plan was found.
+         */
+        private record Incumbent<T>(
+            float cost,
+            @Nullable RegressionNode<T> node
+        ) {}
+    }
+}
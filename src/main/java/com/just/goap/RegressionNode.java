@@ -0,0 +1,63 @@
+package com.just.goap;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.just.goap.action.Action;
+import com.just.goap.state.SimulatedWorldState;
+
+/**
+ * An immutable node of a backward search, for searches that keep nodes outside of a {@link SearchWorkspace}.
+ */
+record RegressionNode<T>(
+    int[] unsatisfiedConditions,
+    SimulatedWorldState simulatedState,
+    @Nullable RegressionNode<T> parent,
+    // the action taken from the parent to get here.
+    @Nullable Action<? super T> action,
+    float actionCost,
+    float gCost,
+    float hCost,
+    StateId id
+) {
+
+    RegressionNode(
+        int[] unsatisfiedConditions,
+        SimulatedWorldState simulatedState,
+        @Nullable RegressionNode<T> parent,
+        @Nullable Action<? super T> action,
+        float actionCost,
+        float gCost,
+        float hCost
+    ) {
+        this(
+            unsatisfiedConditions,
+            simulatedState,
+            parent,
+            action,
+            actionCost,
+            gCost,
+            hCost,
+            StateId.of(unsatisfiedConditions, simulatedState)
+        );
+    }
+
+    float fCost() {
+        return gCost + hCost;
+    }
+
+    /**
+     * Returns the actions from this node back to the root, which is the order they are executed in.
+     */
+    List<AOStar.ActionWithCost<? super T>> toPlan() {
+        var plan = new ArrayList<AOStar.ActionWithCost<? super T>>();
+
+        for (var node = this; node.parent != null; node = node.parent) {
+            plan.add(new AOStar.ActionWithCost<>(node.action, node.actionCost));
+        }
+
+        return plan;
+    }
+}
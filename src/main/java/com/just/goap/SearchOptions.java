@@ -0,0 +1,282 @@
+package com.just.goap;
+
+import java.util.function.UnaryOperator;
+
+import com.just.goap.search.Heuristic;
+import com.just.goap.search.Heuristics;
+import com.just.goap.search.OpenList;
+import com.just.goap.search.OpenLists;
+
+/**
+ * Tunes how {@link AOStar} searches. The defaults give plain A*.
+ * <p>
+ * Example usage:
+ *
+ * <pre>{@code
+ *
+ * var options = SearchOptions.builder()
+ *     .withWeight(2.0f)
+ *     .withLazyHeuristic(true)
+ *     .withOpenList(OpenLists.dAryHeap(4))
+ *     .withTieBreaking(SearchOptions.TieBreaking.LOWER_H)
+ *     .withHeuristic(Heuristics.patternDatabase(6))
+ *     .build();
+ * }</pre>
+ */
+public final class SearchOptions {
+
+    /**
+     * Plain A*.
+     */
+    public static final SearchOptions DEFAULT = builder().build();
+
+    /**
+     * Creates a new builder for configuring search options.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final float weight;
+
+    private final float weightStep;
+
+    private final int expansionBudget;
+
+    private final boolean lazyHeuristic;
+
+    private final OpenList.Factory openList;
+
+    private final TieBreaking tieBreaking;
+
+    private final Heuristic.Factory heuristic;
+
+    private SearchOptions(
+        float weight,
+        float weightStep,
+        int expansionBudget,
+        boolean lazyHeuristic,
+        OpenList.Factory openList,
+        TieBreaking tieBreaking,
+        Heuristic.Factory heuristic
+    ) {
+        this.weight = weight;
+        this.weightStep = weightStep;
+        this.expansionBudget = expansionBudget;
+        this.lazyHeuristic = lazyHeuristic;
+        this.openList = openList;
+        this.tieBreaking = tieBreaking;
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * @return The weight of the heuristic, {@code 1} for plain A*.
+     */
+    public float getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return How much to lower the weight by after each plan, or {@code 0} to stop at the first plan.
+     */
+    public float getWeightStep() {
+        return weightStep;
+    }
+
+    /**
+     * @return The number of expansions after which the best plan so far is returned.
+     */
+    public int getExpansionBudget() {
+        return expansionBudget;
+    }
+
+    /**
+     * @return Whether the heuristic of a node is only computed once the node is taken from the open list.
+     */
+    public boolean isLazyHeuristic() {
+        return lazyHeuristic;
+    }
+
+    public OpenList.Factory getOpenList() {
+        return openList;
+    }
+
+    public TieBreaking getTieBreaking() {
+        return tieBreaking;
+    }
+
+    public Heuristic.Factory getHeuristic() {
+        return heuristic;
+    }
+
+    /**
+     * How nodes with the same f cost are ordered.
+     */
+    public enum TieBreaking {
+
+        /**
+         * Leaves the order up to the open list.
+         */
+        NONE,
+
+        /**
+         * Prefers the node with the lower heuristic, which is usually closer to a plan.
+         */
+        LOWER_H,
+
+        /**
+         * Prefers the node with the higher cost so far, which is the deeper node.
+         */
+        HIGHER_G;
+
+        /**
+         * Returns the tie breaker of a node with the given costs, lower is taken first.
+         */
+        public float of(float g, float h) {
+            return switch (this) {
+                case NONE -> 0.0f;
+                case LOWER_H -> h;
+                case HIGHER_G -> -g;
+            };
+        }
+    }
+
+    /**
+     * Builder for configuring {@link SearchOptions}.
+     */
+    public static class Builder {
+
+        private float weight;
+
+        private float weightStep;
+
+        private int expansionBudget;
+
+        private boolean lazyHeuristic;
+
+        private OpenList.Factory openList;
+
+        private TieBreaking tieBreaking;
+
+        private Heuristic.Factory heuristic;
+
+        private Builder() {
+            this.weight = 1.0f;
+            this.weightStep = 0.0f;
+            this.expansionBudget = Integer.MAX_VALUE;
+            this.lazyHeuristic = false;
+            this.openList = OpenLists.priorityQueue();
+            this.tieBreaking = TieBreaking.NONE;
+            this.heuristic = Heuristics.additive();
+        }
+
+        /**
+         * Sets the weight of the heuristic. Nodes are ordered by {@code g + weight * h}, so a weight above {@code 1}
+         * finds a plan with fewer expansions, at the price of the plan possibly costing more than the cheapest one.
+         *
+         * @param weight The weight of the heuristic, at least {@code 1}.
+         * @return This builder.
+         */
+        public Builder withWeight(float weight) {
+            if (weight < 1.0f) {
+                throw new IllegalArgumentException("weight must be at least 1");
+            }
+
+            this.weight = weight;
+            return this;
+        }
+
+        /**
+         * Turns the search into anytime repairing A* (ARA*). Every time a plan is found, the weight is lowered by
+         * {@code weightStep} (down to {@code 1}) and the search continues looking for a cheaper plan, until
+         * {@code expansionBudget} nodes were expanded. The budget does not apply until a first plan was found.
+         *
+         * @param weightStep      How much to lower the weight by after each plan, above {@code 0}.
+         * @param expansionBudget The number of expansions after which the best plan so far is returned.
+         * @return This builder.
+         */
+        public Builder withAnytime(float weightStep, int expansionBudget) {
+            if (weightStep <= 0.0f) {
+                throw new IllegalArgumentException("weightStep must be greater than 0");
+            }
+
+            if (expansionBudget < 1) {
+                throw new IllegalArgumentException("expansionBudget must be at least 1");
+            }
+
+            this.weightStep = weightStep;
+            this.expansionBudget = expansionBudget;
+            return this;
+        }
+
+        /**
+         * Sets whether the heuristic is computed lazily. A lazy search queues new nodes with the f cost of their parent
+         * plus the action cost, and only computes their heuristic once they are taken from the open list, putting
+         * them back if they turn out to be worse than the next node. Most generated nodes are never expanded, so this
+         * saves most heuristic computations, at the price of a less informed open list.
+         *
+         * @param lazyHeuristic Whether to compute the heuristic lazily.
+         * @return This builder.
+         */
+        public Builder withLazyHeuristic(boolean lazyHeuristic) {
+            this.lazyHeuristic = lazyHeuristic;
+            return this;
+        }
+
+        /**
+         * Sets the open list, see {@link OpenLists}.
+         *
+         * @param openList The factory creating the open list of each search.
+         * @return This builder.
+         */
+        public Builder withOpenList(OpenList.Factory openList) {
+            this.openList = openList;
+            return this;
+        }
+
+        /**
+         * Sets how nodes with the same f cost are ordered. On graphs where many actions cost the same, plain A* expands
+         * many nodes of equal f cost in arbitrary order, and breaking ties towards the nodes closest to a plan often
+         * halves the number of expansions.
+         *
+         * @param tieBreaking How ties are broken.
+         * @return This builder.
+         */
+        public Builder withTieBreaking(TieBreaking tieBreaking) {
+            this.tieBreaking = tieBreaking;
+            return this;
+        }
+
+        /**
+         * Sets the heuristic, see {@link Heuristics}.
+         *
+         * @param heuristic The factory creating the heuristic of each search workspace.
+         * @return This builder.
+         */
+        public Builder withHeuristic(Heuristic.Factory heuristic) {
+            this.heuristic = heuristic;
+            return this;
+        }
+
+        public Builder apply(UnaryOperator<Builder> unaryOperator) {
+            return unaryOperator.apply(this);
+        }
+
+        /**
+         * Builds the configured search options.
+         *
+         * @return The configured search options.
+         */
+        public SearchOptions build() {
+            return new SearchOptions(
+                weight,
+                weightStep,
+                expansionBudget,
+                lazyHeuristic,
+                openList,
+                tieBreaking,
+                heuristic
+            );
+        }
+    }
+}
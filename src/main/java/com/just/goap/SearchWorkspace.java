@@ -0,0 +1,259 @@
+package com.just.goap;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+
+import com.just.goap.graph.CompiledGraph;
+import com.just.goap.search.Heuristic;
+import com.just.goap.search.OpenList;
+import com.just.goap.state.ReadableWorldState;
+import com.just.goap.state.WorldState;
+
+/**
+ * The memory of an {@link AOStar} search: the open list, the heuristic, the search nodes with their simulated world
+ * states, and the condition ids of every node. A workspace is reset rather than discarded when a search starts, so
+ * once it has grown to fit the largest search, planning no longer allocates per node.
+ * <p>
+ * A workspace serves one search at a time. Starting a search on a workspace resets it, which ruins any search still
+ * running on it. The solve methods of {@link AOStar} use a workspace per thread unless given one, while a
+ * {@link AOStar.Search} that runs over several ticks needs a workspace of its own.
+ * <p>
+ * A workspace keeps the memory of its largest search for as long as it is kept itself. The workspace of a thread lets
+ * go of the graph, actor and world states of its last search once the search is done, while a workspace passed to a
+ * search holds on to them until its next search.
+ */
+public final class SearchWorkspace {
+
+    private static final ThreadLocal<SearchWorkspace> CURRENT_THREAD = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    // What the simulated world states of released nodes fall through to, in place of the world state of their search.
+    private static final ReadableWorldState DETACHED = WorldState.create();
+
+    /**
+     * Returns the workspace of the current thread, or a new workspace if that one is already in use by a search
+     * further up the stack.
+     */
+    static SearchWorkspace acquire() {
+        var workspace = CURRENT_THREAD.get();
+
+        if (workspace.inUse) {
+            return new SearchWorkspace();
+        }
+
+        workspace.inUse = true;
+        return workspace;
+    }
+
+    private boolean inUse;
+
+    private OpenList.@Nullable Factory openListFactory;
+
+    private @Nullable OpenList<?> openList;
+
+    private Heuristic.@Nullable Factory heuristicFactory;
+
+    private @Nullable Heuristic heuristic;
+
+    private AOStar.AOStarNode<?>[] nodes;
+
+    private int nodeCount;
+
+    // The number of nodes allocated at least once since the workspace was last released.
+    private int usedNodeCount;
+
+    private int[] conditionIds;
+
+    private int conditionIdCount;
+
+    private AOStar.@Nullable SearchConditions conditions;
+
+    public SearchWorkspace() {
+        this.inUse = false;
+        this.openListFactory = null;
+        this.openList = null;
+        this.heuristicFactory = null;
+        this.heuristic = null;
+        this.nodes = new AOStar.AOStarNode<?>[64];
+        this.nodeCount = 0;
+        this.usedNodeCount = 0;
+        this.conditionIds = new int[256];
+        this.conditionIdCount = 0;
+        this.conditions = null;
+    }
+
+    /**
+     * Releases a workspace returned by {@link #acquire()}. Every reference into the last search is dropped, so that the
+     * workspace of a pooled thread does not keep its graph, actor or world state alive, while the arrays are kept. The
+     * heuristic is kept as well, and only drops what it holds from the last search, see {@link Heuristic#release()}.
+     */
+    void release() {
+        for (var i = 0; i < usedNodeCount; i++) {
+            var node = nodes[i];
+            node.parent = null;
+            node.action = null;
+
+            if (node.simulatedState != null) {
+                node.simulatedState.reset(DETACHED);
+            }
+        }
+
+        if (openList != null) {
+            openList.clear();
+        }
+
+        if (heuristic != null) {
+            heuristic.release();
+        }
+
+        this.usedNodeCount = 0;
+        this.conditions = null;
+        this.inUse = false;
+    }
+
+    /**
+     * Forgets the previous search, keeping its memory for reuse.
+     */
+    void reset(CompiledGraph<?> compiledGraph) {
+        if (openList != null) {
+            openList.clear();
+        }
+
+        if (conditions == null || !conditions.isFor(compiledGraph)) {
+            conditions = new AOStar.SearchConditions(compiledGraph);
+        } else {
+            conditions.clear();
+        }
+
+        nodeCount = 0;
+        conditionIdCount = 0;
+    }
+
+    /**
+     * Returns the condition numbering of the current search, only valid after {@link #reset(CompiledGraph)}.
+     */
+    AOStar.SearchConditions getConditions() {
+        return Objects.requireNonNull(conditions);
+    }
+
+    /**
+     * Returns the open list of the current search, created by the given factory.
+     */
+    @SuppressWarnings("unchecked")
+    <T> OpenList<AOStar.AOStarNode<T>> getOpenList(OpenList.Factory factory) {
+        if (openListFactory != factory) {
+            openListFactory = factory;
+            openList = factory.create();
+        }
+
+        return (OpenList<AOStar.AOStarNode<T>>) openList;
+    }
+
+    /**
+     * Returns the heuristic of the current search, created by the given factory.
+     */
+    Heuristic getHeuristic(Heuristic.Factory factory) {
+        if (heuristicFactory != factory) {
+            heuristicFactory = factory;
+            heuristic = factory.create();
+        }
+
+        return heuristic;
+    }
+
+    /**
+     * Returns a node, which is only valid until the workspace is reset. Its fields still hold the values of whatever
+     * node it was before, except for its simulated world state, which is only ever reused.
+     */
+    @SuppressWarnings("unchecked")
+    <T> AOStar.AOStarNode<T> allocateNode() {
+        if (nodeCount == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+        }
+
+        var node = nodes[nodeCount];
+
+        if (node == null) {
+            node = new AOStar.AOStarNode<>();
+            nodes[nodeCount] = node;
+        }
+
+        nodeCount++;
+        usedNodeCount = Math.max(usedNodeCount, nodeCount);
+        return (AOStar.AOStarNode<T>) node;
+    }
+
+    /**
+     * Gives back the node last returned by {@link #allocateNode()}.
+     */
+    void freeLastNode() {
+        nodeCount--;
+    }
+
+    int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Gives back every node allocated after the first {@code from} ones except the retained ones, along with their
+     * condition ids. The retained nodes keep their order, but their condition ids move.
+     */
+    void retainNodes(int from, Set<AOStar.AOStarNode<?>> retained) {
+        if (nodeCount == from) {
+            return;
+        }
+
+        var keptNodeCount = from;
+        var keptConditionIdCount = nodes[from].conditionsStart;
+
+        for (var i = from; i < nodeCount; i++) {
+            var node = nodes[i];
+
+            if (!retained.contains(node)) {
+                continue;
+            }
+
+            // Swapped with the first given back node, which is reused by a later allocation.
+            nodes[i] = nodes[keptNodeCount];
+            nodes[keptNodeCount++] = node;
+
+            var length = node.conditionsEnd - node.conditionsStart;
+            System.arraycopy(conditionIds, node.conditionsStart, conditionIds, keptConditionIdCount, length);
+            node.conditionsStart = keptConditionIdCount;
+            node.conditionsEnd = keptConditionIdCount + length;
+            keptConditionIdCount += length;
+        }
+
+        nodeCount = keptNodeCount;
+        conditionIdCount = keptConditionIdCount;
+    }
+
+    /**
+     * Returns the condition ids of every node, each node owning a range of them. The array is replaced as it grows, so
+     * it must be fetched again after adding ids.
+     */
+    int[] getConditionIds() {
+        return conditionIds;
+    }
+
+    int getConditionIdCount() {
+        return conditionIdCount;
+    }
+
+    void addConditionId(int conditionId) {
+        if (conditionIdCount == conditionIds.length) {
+            conditionIds = Arrays.copyOf(conditionIds, conditionIds.length * 2);
+        }
+
+        conditionIds[conditionIdCount++] = conditionId;
+    }
+
+    /**
+     * Drops every condition id added after the first {@code count} ones.
+     */
+    void truncateConditionIds(int count) {
+        conditionIdCount = count;
+    }
+}
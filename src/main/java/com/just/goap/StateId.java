@@ -0,0 +1,68 @@
+package com.just.goap;
+
+import java.util.Arrays;
+
+import com.just.goap.state.SimulatedWorldState;
+
+/**
+ * What sets a search node apart: its unsatisfied conditions (in any order) and the values it simulates on top of the
+ * world state. Nodes with the same id have the same ways to complete them, at the same costs.
+ * <p>
+ * An id compares the simulated values of the world state it was made for in place rather than copying them, so that
+ * state must not change while the id is in use.
+ */
+final class StateId {
+
+    private static final int[] NO_CONDITION_IDS = new int[0];
+
+    private final int[] sortedConditionIds;
+
+    private final SimulatedWorldState simulatedState;
+
+    private final int hashCode;
+
+    private StateId(int[] sortedConditionIds, SimulatedWorldState simulatedState) {
+        this.sortedConditionIds = sortedConditionIds;
+        this.simulatedState = simulatedState;
+        this.hashCode = 31 * Arrays.hashCode(sortedConditionIds) + simulatedState.simulatedHashCode();
+    }
+
+    /**
+     * Returns the id of a node that has no unsatisfied conditions, such as a node of a forward search.
+     */
+    static StateId of(SimulatedWorldState simulatedState) {
+        return new StateId(NO_CONDITION_IDS, simulatedState);
+    }
+
+    static StateId of(int[] unsatisfiedConditions, SimulatedWorldState simulatedState) {
+        return of(unsatisfiedConditions, 0, unsatisfiedConditions.length, simulatedState);
+    }
+
+    /**
+     * Returns the id of a node whose unsatisfied conditions are {@code conditionIds[from, to)}.
+     */
+    static StateId of(int[] conditionIds, int from, int to, SimulatedWorldState simulatedState) {
+        var sortedConditionIds = Arrays.copyOfRange(conditionIds, from, to);
+        Arrays.sort(sortedConditionIds);
+
+        return new StateId(sortedConditionIds, simulatedState);
+    }
+
+    // Spreads the high bits, so that the owner of a node does not only depend on its lowest bits.
+    int spreadHashCode() {
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof StateId other
+            && hashCode == other.hashCode
+            && Arrays.equals(sortedConditionIds, other.sortedConditionIds)
+            && simulatedState.hasSameSimulatedValues(other.simulatedState);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
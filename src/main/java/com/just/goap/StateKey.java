@@ -9,19 +9,54 @@ public sealed abstract class StateKey<T> {
     private static final int UNSET = Integer.MIN_VALUE;
 
     public static <T> Derived<T> derived(String id) {
-        return new Derived<>(id);
+        return new Derived<>(id, Type.OBJECT);
     }
 
     public static <T> Sensed<T> sensed(String id) {
-        return new Sensed<>(id);
+        return new Sensed<>(id, Type.OBJECT);
+    }
+
+    public static Derived<Integer> derivedInt(String id) {
+        return new Derived<>(id, Type.INT);
+    }
+
+    public static Sensed<Integer> sensedInt(String id) {
+        return new Sensed<>(id, Type.INT);
+    }
+
+    public static Derived<Long> derivedLong(String id) {
+        return new Derived<>(id, Type.LONG);
+    }
+
+    public static Sensed<Long> sensedLong(String id) {
+        return new Sensed<>(id, Type.LONG);
+    }
+
+    public static Derived<Float> derivedFloat(String id) {
+        return new Derived<>(id, Type.FLOAT);
+    }
+
+    public static Sensed<Float> sensedFloat(String id) {
+        return new Sensed<>(id, Type.FLOAT);
+    }
+
+    public static Derived<Boolean> derivedBoolean(String id) {
+        return new Derived<>(id, Type.BOOLEAN);
+    }
+
+    public static Sensed<Boolean> sensedBoolean(String id) {
+        return new Sensed<>(id, Type.BOOLEAN);
     }
 
     protected final String id;
 
+    private final Type type;
+
     private transient int cachedHashCode = UNSET;
 
-    protected StateKey(String id) {
+    protected StateKey(String id, Type type) {
         this.id = id;
+        this.type = type;
     }
 
     public abstract Derived<T> asDerived();
@@ -32,13 +67,24 @@ public sealed abstract class StateKey<T> {
         return id;
     }
 
+    /**
+     * Returns how values of this key are stored. Primitive keys are stored unboxed by the built-in world states.
+     */
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * Keys are equal if they have the same id and type, whether they are derived or sensed. Reusing an id with another
+     * type makes another key, which a graph rejects.
+     */
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof StateKey<?> key)) {
             return false;
         }
 
-        return Objects.equals(id, key.id);
+        return type == key.type && Objects.equals(id, key.id);
     }
 
     @Override
@@ -46,7 +92,7 @@ public sealed abstract class StateKey<T> {
         var hashCode = cachedHashCode;
 
         if (hashCode == UNSET) {
-            hashCode = id.hashCode();
+            hashCode = 31 * id.hashCode() + type.ordinal();
             cachedHashCode = hashCode;
         }
 
@@ -55,8 +101,8 @@ public sealed abstract class StateKey<T> {
 
     public static final class Derived<T> extends StateKey<T> {
 
-        private Derived(String id) {
-            super(id);
+        private Derived(String id, Type type) {
+            super(id, type);
         }
 
         @Override
@@ -66,7 +112,7 @@ public sealed abstract class StateKey<T> {
 
         @Override
         public Sensed<T> asSensed() {
-            return new Sensed<>(id);
+            return new Sensed<>(id, type());
         }
 
         @Override
@@ -77,13 +123,13 @@ public sealed abstract class StateKey<T> {
 
     public static final class Sensed<T> extends StateKey<T> {
 
-        private Sensed(String id) {
-            super(id);
+        private Sensed(String id, Type type) {
+            super(id, type);
         }
 
         @Override
         public Derived<T> asDerived() {
-            return new Derived<>(id);
+            return new Derived<>(id, type());
         }
 
         @Override
@@ -96,4 +142,16 @@ public sealed abstract class StateKey<T> {
             return "sensed:" + id;
         }
     }
+
+    public enum Type {
+        OBJECT,
+        INT,
+        LONG,
+        FLOAT,
+        BOOLEAN;
+
+        public boolean isPrimitive() {
+            return this != OBJECT;
+        }
+    }
 }
@@ -15,6 +15,15 @@ public interface Action<T> {
 
     float getCost(T actor, ReadableWorldState worldState);
 
+    /**
+     * Returns {@code true} if {@link #getCost(Object, ReadableWorldState)} only reads keys that no action effect
+     * writes. Such a cost is the same in every simulated world state of a tick, so the planner computes it once per
+     * tick instead of once per search node.
+     */
+    default boolean isCostSensedOnly() {
+        return false;
+    }
+
     Signal perform(Context<? extends T> context);
 
     void onStart(Context<? extends T> context);
@@ -25,6 +25,8 @@ public class BaseAction<T> implements Action<T> {
 
     private final CostCallback<T> costCallback;
 
+    private final boolean costSensedOnly;
+
     private final StartCallback<T> startCallback;
 
     private final PerformCallback<T> performCallback;
@@ -41,11 +43,34 @@ public class BaseAction<T> implements Action<T> {
         StartCallback<T> startCallback,
         PerformCallback<T> performCallback,
         FinishCallback<T> finishCallback
+    ) {
+        this(
+            name,
+            conditionContainer,
+            effectContainer,
+            costCallback,
+            false,
+            startCallback,
+            performCallback,
+            finishCallback
+        );
+    }
+
+    protected BaseAction(
+        String name,
+        ConditionContainer conditionContainer,
+        EffectContainer effectContainer,
+        CostCallback<T> costCallback,
+        boolean costSensedOnly,
+        StartCallback<T> startCallback,
+        PerformCallback<T> performCallback,
+        FinishCallback<T> finishCallback
     ) {
         this.name = name;
         this.preconditions = conditionContainer;
         this.effects = effectContainer;
         this.costCallback = costCallback;
+        this.costSensedOnly = costSensedOnly;
         this.startCallback = startCallback;
         this.performCallback = performCallback;
         this.finishCallback = finishCallback;
@@ -55,6 +80,11 @@ public class BaseAction<T> implements Action<T> {
         return costCallback.apply(actor, worldState);
     }
 
+    @Override
+    public boolean isCostSensedOnly() {
+        return costSensedOnly;
+    }
+
     public Signal perform(Context<? extends T> context) {
         return performCallback.accept(context);
     }
@@ -92,6 +122,8 @@ public class BaseAction<T> implements Action<T> {
 
         protected CostCallback<T> costCallback;
 
+        protected boolean costSensedOnly;
+
         protected StartCallback<T> startCallback;
 
         protected PerformCallback<T> performCallback;
@@ -105,6 +137,7 @@ public class BaseAction<T> implements Action<T> {
             this.effects = new ArrayList<>();
             this.name = name;
             this.costCallback = ($1, $2) -> 0;
+            this.costSensedOnly = true;
             this.startCallback = $ -> {};
             this.performCallback = $ -> Signal.CONTINUE;
             this.finishCallback = $ -> {};
@@ -144,11 +177,23 @@ public class BaseAction<T> implements Action<T> {
         }
 
         public B withCost(float cost) {
-            return withCostCallback(($1, $2) -> cost);
+            // A constant cost does not read any key.
+            return withSensedCostCallback(($1, $2) -> cost);
         }
 
         public B withCostCallback(CostCallback<T> costCallback) {
             this.costCallback = costCallback;
+            this.costSensedOnly = false;
+            return self();
+        }
+
+        /**
+         * Sets a cost callback that only reads keys no action effect writes, such as sensed keys. The planner then
+         * computes the cost once per tick instead of once per search node, see {@link Action#isCostSensedOnly()}.
+         */
+        public B withSensedCostCallback(CostCallback<T> costCallback) {
+            this.costCallback = costCallback;
+            this.costSensedOnly = true;
             return self();
         }
 
@@ -181,6 +226,7 @@ public class BaseAction<T> implements Action<T> {
                 ConditionContainer.of(Collections.unmodifiableList(preconditions)),
                 EffectContainer.of(Collections.unmodifiableList(effects)),
                 costCallback,
+                costSensedOnly,
                 startCallback,
                 performCallback,
                 finishCallback
@@ -56,6 +56,11 @@ public abstract class DelegatingAction<T> implements Action<T> {
         return delegate.getCost(actor, worldState);
     }
 
+    @Override
+    public boolean isCostSensedOnly() {
+        return delegate.isCostSensedOnly();
+    }
+
     @Override
     public Signal perform(Context<? extends T> context) {
         return delegate.perform(context);
@@ -205,7 +210,8 @@ public abstract class DelegatingAction<T> implements Action<T> {
         }
 
         public B withCost(float cost) {
-            return withCostCallback(($1, $2) -> cost);
+            baseBuilder.withCost(cost);
+            return self();
         }
 
         public B withCostCallback(Action.CostCallback<T> costCallback) {
@@ -213,6 +219,11 @@ public abstract class DelegatingAction<T> implements Action<T> {
             return self();
         }
 
+        public B withSensedCostCallback(Action.CostCallback<T> costCallback) {
+            baseBuilder.withSensedCostCallback(costCallback);
+            return self();
+        }
+
         public B withStartCallback(Action.StartCallback<T> startCallback) {
             baseBuilder.withStartCallback(startCallback);
             return self();
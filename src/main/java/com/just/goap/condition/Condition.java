@@ -1,5 +1,9 @@
 package com.just.goap.condition;
 
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import com.just.goap.Satisfiable;
 import com.just.goap.StateKey;
 import com.just.goap.condition.expression.Expression;
@@ -8,38 +12,154 @@ import com.just.goap.state.ReadableWorldState;
 
 public sealed abstract class Condition<T> implements Satisfiable {
 
+    // Canonical instances of structurally equal conditions. Held weakly so that conditions no graph uses anymore can
+    // be collected.
+    private static final Map<Condition<?>, WeakReference<Condition<?>>> INTERNED_CONDITIONS = new WeakHashMap<>();
+
+    /**
+     * Returns the canonical condition testing {@code key} against {@code expression}. Structurally equal conditions,
+     * such as two actions each declaring {@code hasAxe isTrue}, resolve to the same instance.
+     */
     public static <T> Condition.Derived<T> derived(StateKey.Derived<T> key, Expression<? super T> expression) {
-        return new Condition.Derived<>(key, expression);
+        return intern(new Condition.Derived<>(key, expression));
     }
 
+    /**
+     * Returns the canonical condition testing {@code key} against {@code expression}. Structurally equal conditions
+     * resolve to the same instance.
+     */
     public static <T> Condition.Sensed<T> sensed(StateKey.Sensed<T> key, Expression<? super T> expression) {
-        return new Condition.Sensed<>(key, expression);
+        return intern(new Condition.Sensed<>(key, expression));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <C extends Condition<?>> C intern(C condition) {
+        synchronized (INTERNED_CONDITIONS) {
+            var reference = INTERNED_CONDITIONS.get(condition);
+            var interned = reference == null ? null : reference.get();
+
+            if (interned != null) {
+                // Equal conditions are always of the same class.
+                return (C) interned;
+            }
+
+            INTERNED_CONDITIONS.put(condition, new WeakReference<>(condition));
+            return condition;
+        }
     }
 
     private final StateKey<T> key;
 
     private final Expression<? super T> expression;
 
+    private final Satisfiable evaluator;
+
+    private final int hashCode;
+
     protected Condition(StateKey<T> key, Expression<? super T> expression) {
         this.key = key;
         this.expression = expression;
+        this.evaluator = createEvaluator(key, expression);
+        this.hashCode = 31 * (31 * getClass().hashCode() + key.hashCode()) + expression.hashCode();
     }
 
+    /**
+     * Picks how this condition reads its key. Primitive keys are read unboxed whenever the expression has a primitive
+     * form, everything else goes through the boxed {@link ReadableWorldState#getOrNull(StateKey)} path.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Satisfiable createEvaluator(StateKey<T> key, Expression<? super T> expression) {
+        switch (key.type()) {
+            case INT -> {
+                var intKey = (StateKey<Integer>) key;
+                var predicate = expression.toIntPredicate();
+
+                if (predicate != null) {
+                    return worldState -> worldState.has(intKey) && predicate.test(worldState.getInt(intKey));
+                }
+            }
+            case LONG -> {
+                var longKey = (StateKey<Long>) key;
+                var predicate = expression.toLongPredicate();
+
+                if (predicate != null) {
+                    return worldState -> worldState.has(longKey) && predicate.test(worldState.getLong(longKey));
+                }
+            }
+            case FLOAT -> {
+                var floatKey = (StateKey<Float>) key;
+                var predicate = expression.toFloatPredicate();
+
+                if (predicate != null) {
+                    return worldState -> worldState.has(floatKey) && predicate.test(worldState.getFloat(floatKey));
+                }
+            }
+            case BOOLEAN -> {
+                var booleanKey = (StateKey<Boolean>) key;
+                var booleanExpression = (Expression<Object>) expression;
+
+                // Boolean.valueOf() returns cached instances, so this never allocates.
+                return worldState -> worldState.has(booleanKey)
+                    && booleanExpression.evaluate(Boolean.valueOf(worldState.getBoolean(booleanKey)));
+            }
+            case OBJECT -> {}
+        }
+
+        return worldState -> {
+            var value = worldState.getOrNull(key);
+            return value != null && expression.evaluate(value);
+        };
+    }
+
+    /**
+     * Checks this condition against the value its key resolves to in the given effects, without building a world
+     * state. This is what {@link #satisfiedBy(ReadableWorldState)} would return for
+     * {@link EffectContainer#toWorldState()}.
+     */
     @Override
     public boolean satisfiedBy(EffectContainer effectContainer) {
-        return satisfiedBy(effectContainer.toWorldState());
+        var value = effectContainer.resolve(key);
+        return value != null && expression.evaluate(value);
     }
 
     @Override
     public boolean satisfiedBy(ReadableWorldState worldState) {
-        var value = worldState.getOrNull(key);
-        return value != null && expression.evaluate(value);
+        return evaluator.satisfiedBy(worldState);
     }
 
     public StateKey<T> key() {
         return key;
     }
 
+    public Expression<? super T> expression() {
+        return expression;
+    }
+
+    /**
+     * Conditions are equal if they are of the same kind and test the same key against structurally equal expressions.
+     * Keys of different types never match, as the evaluator of a condition depends on the type of its key.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof Condition<?> condition) || getClass() != condition.getClass()) {
+            return false;
+        }
+
+        return hashCode == condition.hashCode
+            && key.type() == condition.key.type()
+            && key.equals(condition.key)
+            && expression.equals(condition.expression);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
     @Override
     public String toString() {
         return key.id() + " " + expression;
@@ -1,22 +1,83 @@
 package com.just.goap.condition.expression;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 import java.util.function.Predicate;
 
 public final class Expression<T> {
 
     private final String description;
 
-    private final Predicate<? super T> predicate;
+    private final ExpressionNode node;
+
+    private final Predicate<Object> evaluator;
+
+    private final int hashCode;
 
     Expression(String description, Predicate<? super T> predicate) {
+        this(description, new ExpressionNode.Opaque(predicate));
+    }
+
+    Expression(String description, ExpressionNode node) {
         this.description = description;
-        this.predicate = predicate;
+        this.node = ExpressionCompiler.simplify(node);
+        this.evaluator = ExpressionCompiler.compile(this.node);
+        this.hashCode = this.node.hashCode();
     }
 
     public boolean evaluate(@NotNull T actual) {
-        return predicate.test(actual);
+        return evaluator.test(actual);
+    }
+
+    /**
+     * Returns an equivalent predicate over unboxed ints, or {@code null} if this expression can only be evaluated on
+     * boxed values.
+     */
+    public @Nullable IntPredicate toIntPredicate() {
+        return ExpressionCompiler.compileInt(node);
+    }
+
+    /**
+     * Returns an equivalent predicate over unboxed longs, or {@code null} if this expression can only be evaluated on
+     * boxed values.
+     */
+    public @Nullable LongPredicate toLongPredicate() {
+        return ExpressionCompiler.compileLong(node);
+    }
+
+    /**
+     * Returns an equivalent predicate over unboxed floats (passed widened to double), or {@code null} if this
+     * expression can only be evaluated on boxed values.
+     */
+    public @Nullable DoublePredicate toFloatPredicate() {
+        return ExpressionCompiler.compileFloat(node);
+    }
+
+    ExpressionNode node() {
+        return node;
+    }
+
+    /**
+     * Expressions are equal if their simplified syntax trees are equal, regardless of their descriptions. Expressions
+     * wrapping a custom predicate are only equal if they wrap the same predicate instance.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        return o instanceof Expression<?> expression && hashCode == expression.hashCode && node.equals(expression.node);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
     }
 
     @Override
@@ -27,18 +88,18 @@ public final class Expression<T> {
     public <U extends T> Expression<U> and(Expression<? super U> other) {
         return new Expression<>(
             description + " && " + other.description,
-            value -> evaluate(value) && other.evaluate(value)
+            new ExpressionNode.And(List.of(node, other.node))
         );
     }
 
     public <U extends T> Expression<U> or(Expression<? super U> other) {
         return new Expression<>(
             description + " || " + other.description,
-            value -> evaluate(value) || other.evaluate(value)
+            new ExpressionNode.Or(List.of(node, other.node))
         );
     }
 
     public Expression<T> negate(String newDescription) {
-        return new Expression<>(newDescription, Predicate.not(this::evaluate));
+        return new Expression<>(newDescription, new ExpressionNode.Not(node));
     }
 }
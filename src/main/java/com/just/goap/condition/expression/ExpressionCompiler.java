@@ -0,0 +1,575 @@
+package com.just.goap.condition.expression;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.DoublePredicate;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+import com.just.core.functional.option.Option;
+import com.just.core.functional.range.Range;
+import com.just.core.functional.range.RangeSet;
+
+/**
+ * Simplifies {@link ExpressionNode} trees and compiles them into flat predicates.
+ * <p>
+ * Simplification folds constants, cancels double negations, pushes negations into comparisons and boolean tests, and
+ * flattens nested conjunctions/disjunctions. Compilation then emits one specialized predicate per remaining node, with
+ * direct primitive comparisons for boxed numeric thresholds, so a composite condition is evaluated through a shallow
+ * chain of small monomorphic lambdas instead of a stack of wrapped {@link Expression#evaluate} calls.
+ * <p>
+ * Expressions made only of constants, boolean operators, equality and comparisons against a numeric threshold can also
+ * be compiled into primitive predicates, which lets primitive state keys be tested without boxing their values.
+ */
+final class ExpressionCompiler {
+
+    private static final Predicate<Object> ALWAYS = $ -> true;
+
+    private static final Predicate<Object> NEVER = $ -> false;
+
+    static ExpressionNode simplify(ExpressionNode node) {
+        return switch (node) {
+            case ExpressionNode.Not not -> negate(simplify(not.operand()));
+            case ExpressionNode.And and -> simplifyJunction(and.operands(), true);
+            case ExpressionNode.Or or -> simplifyJunction(or.operands(), false);
+            case ExpressionNode.CollectionMatch match -> simplifyMatch(
+                match.quantifier(),
+                simplify(match.element()),
+                new ExpressionNode.CollectionIsEmpty(),
+                element -> new ExpressionNode.CollectionMatch(match.quantifier(), element)
+            );
+            case ExpressionNode.MapKeyMatch match -> simplifyMatch(
+                match.quantifier(),
+                simplify(match.key()),
+                new ExpressionNode.MapIsEmpty(),
+                key -> new ExpressionNode.MapKeyMatch(match.quantifier(), key)
+            );
+            case ExpressionNode.MapValueMatch match -> simplifyMatch(
+                match.quantifier(),
+                simplify(match.value()),
+                new ExpressionNode.MapIsEmpty(),
+                value -> new ExpressionNode.MapValueMatch(match.quantifier(), value)
+            );
+            case ExpressionNode.OptionValue optionValue -> new ExpressionNode.OptionValue(
+                simplify(optionValue.inner())
+            );
+            case ExpressionNode.OptionalValue optionalValue -> new ExpressionNode.OptionalValue(
+                simplify(optionalValue.inner())
+            );
+            case ExpressionNode.MapEntryMatches entry -> {
+                var value = simplify(entry.value());
+
+                if (value instanceof ExpressionNode.Constant constant) {
+                    yield constant.value()
+                        ? new ExpressionNode.MapContainsKey(entry.key())
+                        : ExpressionNode.Constant.FALSE;
+                }
+
+                yield new ExpressionNode.MapEntryMatches(entry.key(), value);
+            }
+            default -> node;
+        };
+    }
+
+    /**
+     * Negates an already simplified node, folding the negation into the node where possible.
+     */
+    private static ExpressionNode negate(ExpressionNode node) {
+        return switch (node) {
+            case ExpressionNode.Constant constant -> ExpressionNode.Constant.of(!constant.value());
+            case ExpressionNode.Not not -> not.operand();
+            case ExpressionNode.BooleanValue booleanValue -> new ExpressionNode.BooleanValue(!booleanValue.expected());
+            case ExpressionNode.Compare compare -> new ExpressionNode.Compare(
+                compare.operator().negate(),
+                compare.threshold()
+            );
+            default -> new ExpressionNode.Not(node);
+        };
+    }
+
+    private static ExpressionNode simplifyJunction(List<ExpressionNode> operands, boolean conjunction) {
+        // The constant that can be dropped (identity) and the constant that decides the result (absorbing).
+        var identity = ExpressionNode.Constant.of(conjunction);
+        var absorbing = ExpressionNode.Constant.of(!conjunction);
+        var flattened = new LinkedHashSet<ExpressionNode>();
+
+        for (var operand : operands) {
+            var simplified = simplify(operand);
+            var nested = conjunction
+                ? simplified instanceof ExpressionNode.And and ? and.operands() : null
+                : simplified instanceof ExpressionNode.Or or ? or.operands() : null;
+
+            if (nested != null) {
+                flattened.addAll(nested);
+            } else if (simplified.equals(absorbing)) {
+                return absorbing;
+            } else if (!simplified.equals(identity)) {
+                flattened.add(simplified);
+            }
+        }
+
+        for (var operand : flattened) {
+            // "x && !x" is always false, "x || !x" is always true.
+            if (flattened.contains(negate(operand))) {
+                return absorbing;
+            }
+        }
+
+        if (flattened.isEmpty()) {
+            return identity;
+        }
+
+        if (flattened.size() == 1) {
+            return flattened.getFirst();
+        }
+
+        var result = List.copyOf(flattened);
+
+        return conjunction
+            ? new ExpressionNode.And(result)
+            : new ExpressionNode.Or(result);
+    }
+
+    private static ExpressionNode simplifyMatch(
+        ExpressionNode.Quantifier quantifier,
+        ExpressionNode element,
+        ExpressionNode isEmpty,
+        Function<ExpressionNode, ExpressionNode> rebuild
+    ) {
+        if (!(element instanceof ExpressionNode.Constant constant)) {
+            return rebuild.apply(element);
+        }
+
+        return switch (quantifier) {
+            case ALL -> constant.value() ? ExpressionNode.Constant.TRUE : isEmpty;
+            case ANY -> constant.value() ? negate(isEmpty) : ExpressionNode.Constant.FALSE;
+            case NONE -> constant.value() ? isEmpty : ExpressionNode.Constant.TRUE;
+        };
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static Predicate<Object> compile(ExpressionNode node) {
+        return switch (node) {
+            case ExpressionNode.Constant constant -> constant.value() ? ALWAYS : NEVER;
+            case ExpressionNode.Not not -> {
+                var operand = compile(not.operand());
+                yield value -> !operand.test(value);
+            }
+            case ExpressionNode.And and -> compileAnd(compileAll(and.operands()));
+            case ExpressionNode.Or or -> compileOr(compileAll(or.operands()));
+            case ExpressionNode.BooleanValue booleanValue -> booleanValue.expected()
+                ? value -> (Boolean) value
+                : value -> !(Boolean) value;
+            case ExpressionNode.EqualTo equalTo -> {
+                var expected = equalTo.expected();
+                yield expected == null ? Objects::isNull : expected::equals;
+            }
+            case ExpressionNode.Compare compare -> compileCompare(compare.operator(), compare.threshold());
+            case ExpressionNode.InRange inRange -> {
+                var range = (Range) inRange.range();
+                yield value -> range.contains((Comparable) value);
+            }
+            case ExpressionNode.InRangeSet inRangeSet -> {
+                var set = (RangeSet) inRangeSet.set();
+                yield value -> set.contains((Comparable) value);
+            }
+            case ExpressionNode.OptionValue optionValue -> {
+                var inner = compile(optionValue.inner());
+                yield value -> ((Option<?>) value).isSomeAnd(inner);
+            }
+            case ExpressionNode.OptionalValue optionalValue -> {
+                var inner = compile(optionalValue.inner());
+                yield value -> ((Optional<?>) value).filter(inner).isPresent();
+            }
+            case ExpressionNode.CollectionIsEmpty $ -> value -> ((Collection<?>) value).isEmpty();
+            case ExpressionNode.CollectionContains contains -> {
+                var expected = contains.expected();
+                yield value -> ((Collection<?>) value).contains(expected);
+            }
+            case ExpressionNode.CollectionMatch match -> {
+                var element = compile(match.element());
+                yield value -> matches(match.quantifier(), (Collection<?>) value, element);
+            }
+            case ExpressionNode.MapIsEmpty $ -> value -> ((Map<?, ?>) value).isEmpty();
+            case ExpressionNode.MapContainsKey containsKey -> {
+                var key = containsKey.key();
+                yield value -> ((Map<?, ?>) value).containsKey(key);
+            }
+            case ExpressionNode.MapContainsValue containsValue -> {
+                var expected = containsValue.value();
+                yield value -> ((Map<?, ?>) value).containsValue(expected);
+            }
+            case ExpressionNode.MapKeyMatch match -> {
+                var key = compile(match.key());
+                yield value -> matches(match.quantifier(), ((Map<?, ?>) value).keySet(), key);
+            }
+            case ExpressionNode.MapValueMatch match -> {
+                var element = compile(match.value());
+                yield value -> matches(match.quantifier(), ((Map<?, ?>) value).values(), element);
+            }
+            case ExpressionNode.MapEntryMatches entry -> {
+                var key = entry.key();
+                var element = compile(entry.value());
+                yield value -> {
+                    var map = (Map<?, ?>) value;
+                    return map.containsKey(key) && element.test(map.get(key));
+                };
+            }
+            case ExpressionNode.Opaque opaque -> (Predicate<Object>) opaque.predicate();
+        };
+    }
+
+    /**
+     * Compiles the node into a predicate over unboxed ints, or returns {@code null} if the node contains anything that
+     * can not be evaluated on an int.
+     */
+    static @Nullable IntPredicate compileInt(ExpressionNode node) {
+        return switch (node) {
+            case ExpressionNode.Constant constant -> constant.value() ? $ -> true : $ -> false;
+            case ExpressionNode.Not not -> {
+                var operand = compileInt(not.operand());
+                yield operand == null ? null : value -> !operand.test(value);
+            }
+            case ExpressionNode.And and -> {
+                var operands = new IntPredicate[and.operands().size()];
+
+                for (var i = 0; i < operands.length; i++) {
+                    if ((operands[i] = compileInt(and.operands().get(i))) == null) {
+                        yield null;
+                    }
+                }
+
+                yield value -> {
+                    for (var operand : operands) {
+                        if (!operand.test(value)) {
+                            return false;
+                        }
+                    }
+
+                    return true;
+                };
+            }
+            case ExpressionNode.Or or -> {
+                var operands = new IntPredicate[or.operands().size()];
+
+                for (var i = 0; i < operands.length; i++) {
+                    if ((operands[i] = compileInt(or.operands().get(i))) == null) {
+                        yield null;
+                    }
+                }
+
+                yield value -> {
+                    for (var operand : operands) {
+                        if (operand.test(value)) {
+                            return true;
+                        }
+                    }
+
+                    return false;
+                };
+            }
+            case ExpressionNode.EqualTo equalTo when equalTo.expected() instanceof Integer expected -> {
+                var t = expected.intValue();
+                yield value -> value == t;
+            }
+            case ExpressionNode.Compare compare when compare.threshold() instanceof Integer threshold -> {
+                var t = threshold.intValue();
+                yield switch (compare.operator()) {
+                    case LESS_THAN -> value -> value < t;
+                    case LESS_THAN_OR_EQUAL -> value -> value <= t;
+                    case GREATER_THAN -> value -> value > t;
+                    case GREATER_THAN_OR_EQUAL -> value -> value >= t;
+                };
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * Compiles the node into a predicate over unboxed longs, or returns {@code null} if the node contains anything that
+     * can not be evaluated on a long.
+     */
+    static @Nullable LongPredicate compileLong(ExpressionNode node) {
+        return switch (node) {
+            case ExpressionNode.Constant constant -> constant.value() ? $ -> true : $ -> false;
+            case ExpressionNode.Not not -> {
+                var operand = compileLong(not.operand());
+                yield operand == null ? null : value -> !operand.test(value);
+            }
+            case ExpressionNode.And and -> {
+                var operands = new LongPredicate[and.operands().size()];
+
+                for (var i = 0; i < operands.length; i++) {
+                    if ((operands[i] = compileLong(and.operands().get(i))) == null) {
+                        yield null;
+                    }
+                }
+
+                yield value -> {
+                    for (var operand : operands) {
+                        if (!operand.test(value)) {
+                            return false;
+                        }
+                    }
+
+                    return true;
+                };
+            }
+            case ExpressionNode.Or or -> {
+                var operands = new LongPredicate[or.operands().size()];
+
+                for (var i = 0; i < operands.length; i++) {
+                    if ((operands[i] = compileLong(or.operands().get(i))) == null) {
+                        yield null;
+                    }
+                }
+
+                yield value -> {
+                    for (var operand : operands) {
+                        if (operand.test(value)) {
+                            return true;
+                        }
+                    }
+
+                    return false;
+                };
+            }
+            case ExpressionNode.EqualTo equalTo when equalTo.expected() instanceof Long expected -> {
+                var t = expected.longValue();
+                yield value -> value == t;
+            }
+            case ExpressionNode.Compare compare when compare.threshold() instanceof Long threshold -> {
+                var t = threshold.longValue();
+                yield switch (compare.operator()) {
+                    case LESS_THAN -> value -> value < t;
+                    case LESS_THAN_OR_EQUAL -> value -> value <= t;
+                    case GREATER_THAN -> value -> value > t;
+                    case GREATER_THAN_OR_EQUAL -> value -> value >= t;
+                };
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * Compiles the node into a predicate over unboxed floats (widened to double), or returns {@code null} if the node
+     * contains anything that can not be evaluated on a float. Comparisons keep {@link Float#compareTo} semantics.
+     */
+    static @Nullable DoublePredicate compileFloat(ExpressionNode node) {
+        return switch (node) {
+            case ExpressionNode.Constant constant -> constant.value() ? $ -> true : $ -> false;
+            case ExpressionNode.Not not -> {
+                var operand = compileFloat(not.operand());
+                yield operand == null ? null : value -> !operand.test(value);
+            }
+            case ExpressionNode.And and -> {
+                var operands = new DoublePredicate[and.operands().size()];
+
+                for (var i = 0; i < operands.length; i++) {
+                    if ((operands[i] = compileFloat(and.operands().get(i))) == null) {
+                        yield null;
+                    }
+                }
+
+                yield value -> {
+                    for (var operand : operands) {
+                        if (!operand.test(value)) {
+                            return false;
+                        }
+                    }
+
+                    return true;
+                };
+            }
+            case ExpressionNode.Or or -> {
+                var operands = new DoublePredicate[or.operands().size()];
+
+                for (var i = 0; i < operands.length; i++) {
+                    if ((operands[i] = compileFloat(or.operands().get(i))) == null) {
+                        yield null;
+                    }
+                }
+
+                yield value -> {
+                    for (var operand : operands) {
+                        if (operand.test(value)) {
+                            return true;
+                        }
+                    }
+
+                    return false;
+                };
+            }
+            case ExpressionNode.EqualTo equalTo when equalTo.expected() instanceof Float expected -> {
+                // Match Float.equals(), which compares the canonical bit patterns.
+                var bits = Float.floatToIntBits(expected);
+                yield value -> Float.floatToIntBits((float) value) == bits;
+            }
+            case ExpressionNode.Compare compare when compare.threshold() instanceof Float threshold -> {
+                var t = threshold.floatValue();
+                yield switch (compare.operator()) {
+                    case LESS_THAN -> value -> Float.compare((float) value, t) < 0;
+                    case LESS_THAN_OR_EQUAL -> value -> Float.compare((float) value, t) <= 0;
+                    case GREATER_THAN -> value -> Float.compare((float) value, t) > 0;
+                    case GREATER_THAN_OR_EQUAL -> value -> Float.compare((float) value, t) >= 0;
+                };
+            }
+            default -> null;
+        };
+    }
+
+    private static Predicate<Object>[] compileAll(List<ExpressionNode> nodes) {
+        var predicates = new ArrayList<Predicate<Object>>(nodes.size());
+
+        for (var node : nodes) {
+            predicates.add(compile(node));
+        }
+
+        @SuppressWarnings("unchecked")
+        var array = (Predicate<Object>[]) predicates.toArray(Predicate[]::new);
+        return array;
+    }
+
+    private static Predicate<Object> compileAnd(Predicate<Object>[] operands) {
+        return switch (operands.length) {
+            case 2 -> {
+                var a = operands[0];
+                var b = operands[1];
+                yield value -> a.test(value) && b.test(value);
+            }
+            case 3 -> {
+                var a = operands[0];
+                var b = operands[1];
+                var c = operands[2];
+                yield value -> a.test(value) && b.test(value) && c.test(value);
+            }
+            default -> value -> {
+                for (var operand : operands) {
+                    if (!operand.test(value)) {
+                        return false;
+                    }
+                }
+
+                return true;
+            };
+        };
+    }
+
+    private static Predicate<Object> compileOr(Predicate<Object>[] operands) {
+        return switch (operands.length) {
+            case 2 -> {
+                var a = operands[0];
+                var b = operands[1];
+                yield value -> a.test(value) || b.test(value);
+            }
+            case 3 -> {
+                var a = operands[0];
+                var b = operands[1];
+                var c = operands[2];
+                yield value -> a.test(value) || b.test(value) || c.test(value);
+            }
+            default -> value -> {
+                for (var operand : operands) {
+                    if (operand.test(value)) {
+                        return true;
+                    }
+                }
+
+                return false;
+            };
+        };
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Predicate<Object> compileCompare(ExpressionNode.Operator operator, Comparable<?> threshold) {
+        return switch (threshold) {
+            case Integer integer -> {
+                var t = integer.intValue();
+                yield switch (operator) {
+                    case LESS_THAN -> value -> (Integer) value < t;
+                    case LESS_THAN_OR_EQUAL -> value -> (Integer) value <= t;
+                    case GREATER_THAN -> value -> (Integer) value > t;
+                    case GREATER_THAN_OR_EQUAL -> value -> (Integer) value >= t;
+                };
+            }
+            case Long longValue -> {
+                var t = longValue.longValue();
+                yield switch (operator) {
+                    case LESS_THAN -> value -> (Long) value < t;
+                    case LESS_THAN_OR_EQUAL -> value -> (Long) value <= t;
+                    case GREATER_THAN -> value -> (Long) value > t;
+                    case GREATER_THAN_OR_EQUAL -> value -> (Long) value >= t;
+                };
+            }
+            // Float and Double go through compare() to keep compareTo() semantics for NaN and signed zeros.
+            case Float floatValue -> {
+                var t = floatValue.floatValue();
+                yield switch (operator) {
+                    case LESS_THAN -> value -> Float.compare((Float) value, t) < 0;
+                    case LESS_THAN_OR_EQUAL -> value -> Float.compare((Float) value, t) <= 0;
+                    case GREATER_THAN -> value -> Float.compare((Float) value, t) > 0;
+                    case GREATER_THAN_OR_EQUAL -> value -> Float.compare((Float) value, t) >= 0;
+                };
+            }
+            case Double doubleValue -> {
+                var t = doubleValue.doubleValue();
+                yield switch (operator) {
+                    case LESS_THAN -> value -> Double.compare((Double) value, t) < 0;
+                    case LESS_THAN_OR_EQUAL -> value -> Double.compare((Double) value, t) <= 0;
+                    case GREATER_THAN -> value -> Double.compare((Double) value, t) > 0;
+                    case GREATER_THAN_OR_EQUAL -> value -> Double.compare((Double) value, t) >= 0;
+                };
+            }
+            default -> value -> operator.test(((Comparable) value).compareTo(threshold));
+        };
+    }
+
+    private static boolean matches(
+        ExpressionNode.Quantifier quantifier,
+        Collection<?> elements,
+        Predicate<Object> predicate
+    ) {
+        return switch (quantifier) {
+            case ALL -> {
+                for (var element : elements) {
+                    if (!predicate.test(element)) {
+                        yield false;
+                    }
+                }
+
+                yield true;
+            }
+            case ANY -> {
+                for (var element : elements) {
+                    if (predicate.test(element)) {
+                        yield true;
+                    }
+                }
+
+                yield false;
+            }
+            case NONE -> {
+                for (var element : elements) {
+                    if (predicate.test(element)) {
+                        yield false;
+                    }
+                }
+
+                yield true;
+            }
+        };
+    }
+
+    private ExpressionCompiler() {
+        throw new UnsupportedOperationException();
+    }
+}
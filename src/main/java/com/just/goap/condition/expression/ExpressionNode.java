@@ -0,0 +1,140 @@
+package com.just.goap.condition.expression;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.just.core.functional.range.Range;
+import com.just.core.functional.range.RangeSet;
+
+/**
+ * The syntax tree behind an {@link Expression}.
+ * <p>
+ * Nodes describe <i>what</i> an expression tests rather than <i>how</i>, which lets {@link ExpressionCompiler} fold
+ * constants, push negations into comparisons and flatten boolean operators before producing the predicate that is
+ * actually evaluated. Anything that cannot be described structurally (user predicates) is kept as an {@link Opaque}
+ * leaf.
+ */
+sealed interface ExpressionNode {
+
+    /**
+     * A node that always evaluates to the same value. Only produced by constant folding.
+     */
+    record Constant(boolean value) implements ExpressionNode {
+
+        static final Constant TRUE = new Constant(true);
+
+        static final Constant FALSE = new Constant(false);
+
+        static Constant of(boolean value) {
+            return value ? TRUE : FALSE;
+        }
+    }
+
+    record Not(ExpressionNode operand) implements ExpressionNode {}
+
+    record And(List<ExpressionNode> operands) implements ExpressionNode {}
+
+    record Or(List<ExpressionNode> operands) implements ExpressionNode {}
+
+    /**
+     * Tests a {@link java.lang.Boolean} value against an expected value.
+     */
+    record BooleanValue(boolean expected) implements ExpressionNode {}
+
+    record EqualTo(@Nullable Object expected) implements ExpressionNode {}
+
+    /**
+     * Compares a {@link Comparable} value against a threshold.
+     */
+    record Compare(
+        Operator operator,
+        Comparable<?> threshold
+    ) implements ExpressionNode {}
+
+    /**
+     * Tests whether a {@link Comparable} value lies within a range. Ranges compare by their bounds, so two nodes for
+     * equal ranges are equal.
+     */
+    record InRange(Range<?> range) implements ExpressionNode {}
+
+    record InRangeSet(RangeSet<?> set) implements ExpressionNode {}
+
+    /**
+     * Tests the value of a {@link com.just.core.functional.option.Option}, which must be present and match the inner
+     * node.
+     */
+    record OptionValue(ExpressionNode inner) implements ExpressionNode {}
+
+    /**
+     * Tests the value of a {@link java.util.Optional}, which must be present and match the inner node.
+     */
+    record OptionalValue(ExpressionNode inner) implements ExpressionNode {}
+
+    record CollectionIsEmpty() implements ExpressionNode {}
+
+    record CollectionContains(@Nullable Object expected) implements ExpressionNode {}
+
+    record CollectionMatch(
+        Quantifier quantifier,
+        ExpressionNode element
+    ) implements ExpressionNode {}
+
+    record MapIsEmpty() implements ExpressionNode {}
+
+    record MapContainsKey(@Nullable Object key) implements ExpressionNode {}
+
+    record MapContainsValue(@Nullable Object value) implements ExpressionNode {}
+
+    record MapKeyMatch(
+        Quantifier quantifier,
+        ExpressionNode key
+    ) implements ExpressionNode {}
+
+    record MapValueMatch(
+        Quantifier quantifier,
+        ExpressionNode value
+    ) implements ExpressionNode {}
+
+    record MapEntryMatches(
+        @Nullable Object key,
+        ExpressionNode value
+    ) implements ExpressionNode {}
+
+    /**
+     * A leaf the compiler cannot look into.
+     */
+    record Opaque(Predicate<?> predicate) implements ExpressionNode {}
+
+    enum Operator {
+        LESS_THAN,
+        LESS_THAN_OR_EQUAL,
+        GREATER_THAN,
+        GREATER_THAN_OR_EQUAL;
+
+        Operator negate() {
+            return switch (this) {
+                case LESS_THAN -> GREATER_THAN_OR_EQUAL;
+                case LESS_THAN_OR_EQUAL -> GREATER_THAN;
+                case GREATER_THAN -> LESS_THAN_OR_EQUAL;
+                case GREATER_THAN_OR_EQUAL -> LESS_THAN;
+            };
+        }
+
+        boolean test(int comparison) {
+            return switch (this) {
+                case LESS_THAN -> comparison < 0;
+                case LESS_THAN_OR_EQUAL -> comparison <= 0;
+                case GREATER_THAN -> comparison > 0;
+                case GREATER_THAN_OR_EQUAL -> comparison >= 0;
+            };
+        }
+    }
+
+    enum Quantifier {
+        ALL,
+        ANY,
+        NONE
+    }
+}
@@ -1,6 +1,5 @@
 package com.just.goap.condition.expression;
 
-import java.util.Objects;
 import java.util.function.Predicate;
 
 import com.just.core.functional.range.Range;
@@ -12,7 +11,7 @@ public class Expressions {
 
         private static final Expression<java.lang.Boolean> TRUE = new Expression<>(
             "is true",
-            java.lang.Boolean::booleanValue
+            new ExpressionNode.BooleanValue(true)
         );
 
         private static final Expression<java.lang.Boolean> FALSE = TRUE.negate("is false");
@@ -33,15 +32,21 @@ public class Expressions {
         }
 
         public static <T> Expression<T> equalTo(T expected) {
-            return new Expression<>("equals " + expected, actual -> Objects.equals(expected, actual));
+            return new Expression<>("equals " + expected, new ExpressionNode.EqualTo(expected));
         }
 
         public static <T extends Comparable<T>> Expression<? super T> lessThan(T threshold) {
-            return new Expression<>("less than " + threshold, actual -> actual.compareTo(threshold) < 0);
+            return new Expression<>(
+                "less than " + threshold,
+                new ExpressionNode.Compare(ExpressionNode.Operator.LESS_THAN, threshold)
+            );
         }
 
         public static <T extends Comparable<T>> Expression<? super T> greaterThan(T threshold) {
-            return new Expression<>("greater than " + threshold, actual -> actual.compareTo(threshold) > 0);
+            return new Expression<>(
+                "greater than " + threshold,
+                new ExpressionNode.Compare(ExpressionNode.Operator.GREATER_THAN, threshold)
+            );
         }
 
         public static <T extends Comparable<T>> Expression<? super T> atLeast(T threshold) {
@@ -55,7 +60,7 @@ public class Expressions {
         public static <T extends Comparable<T>> Expression<? super T> inRange(Range<T> range) {
             return new Expression<>(
                 "in range " + range,
-                range::contains
+                new ExpressionNode.InRange(range)
             );
         }
 
@@ -66,7 +71,7 @@ public class Expressions {
         public static <T extends Comparable<T>> Expression<? super T> inRangeSet(RangeSet<T> set) {
             return new Expression<>(
                 set.toString(),
-                set::contains
+                new ExpressionNode.InRangeSet(set)
             );
         }
 
@@ -93,7 +98,7 @@ public class Expressions {
         }
 
         public static <T> Expression<com.just.core.functional.option.Option<T>> value(Expression<? super T> inner) {
-            return new Expression<>("option value " + inner, opt -> opt.isSomeAnd(inner::evaluate));
+            return new Expression<>("option value " + inner, new ExpressionNode.OptionValue(inner.node()));
         }
     }
 
@@ -115,7 +120,7 @@ public class Expressions {
         }
 
         public static <T> Expression<java.util.Optional<T>> value(Expression<? super T> inner) {
-            return new Expression<>("value " + inner, opt -> opt.map(inner::evaluate).orElse(false));
+            return new Expression<>("value " + inner, new ExpressionNode.OptionalValue(inner.node()));
         }
     }
 
@@ -123,7 +128,7 @@ public class Expressions {
 
         private static final Expression<java.util.Collection<?>> IS_EMPTY = new Expression<>(
             "is empty",
-            java.util.Collection::isEmpty
+            new ExpressionNode.CollectionIsEmpty()
         );
 
         private static final Expression<java.util.Collection<?>> IS_NOT_EMPTY = IS_EMPTY.negate("is not empty");
@@ -137,7 +142,7 @@ public class Expressions {
         }
 
         public static <T> Expression<java.util.Collection<? extends T>> contains(T expected) {
-            return new Expression<>("contains " + expected, collection -> collection.contains(expected));
+            return new Expression<>("contains " + expected, new ExpressionNode.CollectionContains(expected));
         }
 
         public static <T> Expression<java.util.Collection<? extends T>> doesNotContain(T expected) {
@@ -147,45 +152,21 @@ public class Expressions {
         public static <T> Expression<java.util.Collection<? extends T>> allMatch(Expression<? super T> inner) {
             return new Expression<>(
                 "all match: (" + inner + ")",
-                collection -> {
-                    for (var element : collection) {
-                        if (!inner.evaluate(element)) {
-                            return false;
-                        }
-                    }
-
-                    return true;
-                }
+                new ExpressionNode.CollectionMatch(ExpressionNode.Quantifier.ALL, inner.node())
             );
         }
 
         public static <T> Expression<java.util.Collection<? extends T>> anyMatch(Expression<? super T> inner) {
             return new Expression<>(
                 "any match: (" + inner + ")",
-                collection -> {
-                    for (var element : collection) {
-                        if (inner.evaluate(element)) {
-                            return true;
-                        }
-                    }
-
-                    return false;
-                }
+                new ExpressionNode.CollectionMatch(ExpressionNode.Quantifier.ANY, inner.node())
             );
         }
 
         public static <T> Expression<java.util.Collection<? extends T>> noneMatch(Expression<? super T> inner) {
             return new Expression<>(
                 "none match: (" + inner + ")",
-                collection -> {
-                    for (var element : collection) {
-                        if (inner.evaluate(element)) {
-                            return false;
-                        }
-                    }
-
-                    return true;
-                }
+                new ExpressionNode.CollectionMatch(ExpressionNode.Quantifier.NONE, inner.node())
             );
         }
     }
@@ -194,7 +175,7 @@ public class Expressions {
 
         private static final Expression<java.util.Map<?, ?>> IS_EMPTY = new Expression<>(
             "is empty",
-            java.util.Map::isEmpty
+            new ExpressionNode.MapIsEmpty()
         );
 
         private static final Expression<java.util.Map<?, ?>> IS_NOT_EMPTY = IS_EMPTY.negate("is not empty");
@@ -208,107 +189,59 @@ public class Expressions {
         }
 
         public static <K> Expression<java.util.Map<? extends K, ?>> containsKey(K key) {
-            return new Expression<>("contains key: " + key, map -> map.containsKey(key));
+            return new Expression<>("contains key: " + key, new ExpressionNode.MapContainsKey(key));
         }
 
         public static <V> Expression<java.util.Map<?, ? extends V>> containsValue(V value) {
-            return new Expression<>("contains value: " + value, map -> map.containsValue(value));
+            return new Expression<>("contains value: " + value, new ExpressionNode.MapContainsValue(value));
         }
 
         public static <K> Expression<java.util.Map<? extends K, ?>> allKeysMatch(Expression<? super K> inner) {
             return new Expression<>(
                 "all keys match: (" + inner + ")",
-                map -> {
-                    for (var key : map.keySet()) {
-                        if (!inner.evaluate(key)) {
-                            return false;
-                        }
-                    }
-
-                    return true;
-                }
+                new ExpressionNode.MapKeyMatch(ExpressionNode.Quantifier.ALL, inner.node())
             );
         }
 
         public static <K> Expression<java.util.Map<? extends K, ?>> anyKeyMatches(Expression<? super K> inner) {
             return new Expression<>(
                 "any key matches: (" + inner + ")",
-                map -> {
-                    for (var key : map.keySet()) {
-                        if (inner.evaluate(key)) {
-                            return true;
-                        }
-                    }
-
-                    return false;
-                }
+                new ExpressionNode.MapKeyMatch(ExpressionNode.Quantifier.ANY, inner.node())
             );
         }
 
         public static <K> Expression<java.util.Map<? extends K, ?>> noneKeyMatches(Expression<? super K> inner) {
             return new Expression<>(
                 "no key matches: (" + inner + ")",
-                map -> {
-                    for (var key : map.keySet()) {
-                        if (inner.evaluate(key)) {
-                            return false;
-                        }
-                    }
-
-                    return true;
-                }
+                new ExpressionNode.MapKeyMatch(ExpressionNode.Quantifier.NONE, inner.node())
             );
         }
 
         public static <K, V> Expression<java.util.Map<K, V>> keyValueMatches(K key, Expression<? super V> inner) {
             return new Expression<>(
                 "key " + key + " maps to value matching (" + inner + ")",
-                map -> map.containsKey(key) && inner.evaluate(map.get(key))
+                new ExpressionNode.MapEntryMatches(key, inner.node())
             );
         }
 
         public static <K, V> Expression<java.util.Map<K, V>> allValuesMatch(Expression<? super V> inner) {
             return new Expression<>(
                 "all values match: (" + inner + ")",
-                map -> {
-                    for (var value : map.values()) {
-                        if (!inner.evaluate(value)) {
-                            return false;
-                        }
-                    }
-
-                    return true;
-                }
+                new ExpressionNode.MapValueMatch(ExpressionNode.Quantifier.ALL, inner.node())
             );
         }
 
         public static <K, V> Expression<java.util.Map<K, V>> anyValueMatches(Expression<? super V> inner) {
             return new Expression<>(
                 "any value matches: (" + inner + ")",
-                map -> {
-                    for (var value : map.values()) {
-                        if (inner.evaluate(value)) {
-                            return true;
-                        }
-                    }
-
-                    return false;
-                }
+                new ExpressionNode.MapValueMatch(ExpressionNode.Quantifier.ANY, inner.node())
             );
         }
 
         public static <K, V> Expression<java.util.Map<K, V>> noneValueMatches(Expression<? super V> inner) {
             return new Expression<>(
                 "no values match: (" + inner + ")",
-                map -> {
-                    for (var value : map.values()) {
-                        if (inner.evaluate(value)) {
-                            return false;
-                        }
-                    }
-
-                    return true;
-                }
+                new ExpressionNode.MapValueMatch(ExpressionNode.Quantifier.NONE, inner.node())
             );
         }
     }
@@ -1,5 +1,7 @@
 package com.just.goap.effect;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.util.function.UnaryOperator;
 
 import com.just.goap.StateKey;
@@ -11,6 +13,18 @@ public sealed interface Effect<T> {
 
     void apply(WorldState worldState);
 
+    /**
+     * Returns the value this effect leaves behind for its key, given the value the key had before the effect.
+     * <p>
+     * This is the single-key equivalent of {@link #apply(WorldState)}, and lets effects be reasoned about without a
+     * world state.
+     *
+     * @param previous The previous value of the key, or {@code null} if the key has no value.
+     * @return The value of the key after the effect, or {@code null} if the key has no value afterwards.
+     */
+    @Nullable
+    T resolve(@Nullable T previous);
+
     record Value<T>(
         StateKey.Derived<T> key,
         T value
@@ -20,6 +34,11 @@ public sealed interface Effect<T> {
         public void apply(WorldState worldState) {
             worldState.set(key, value);
         }
+
+        @Override
+        public @Nullable T resolve(@Nullable T previous) {
+            return value;
+        }
     }
 
     record Dynamic<T>(
@@ -36,5 +55,152 @@ public sealed interface Effect<T> {
                 worldState.set(key, updatedValue);
             }
         }
+
+        @Override
+        public @Nullable T resolve(@Nullable T previous) {
+            return previous == null ? null : consumer.apply(previous);
+        }
+    }
+
+    /**
+     * Sets a {@link StateKey.Type#INT} key without boxing.
+     */
+    record IntValue(
+        StateKey.Derived<Integer> key,
+        int value
+    ) implements Effect<Integer> {
+
+        @Override
+        public void apply(WorldState worldState) {
+            worldState.setInt(key, value);
+        }
+
+        @Override
+        public Integer resolve(@Nullable Integer previous) {
+            return value;
+        }
+    }
+
+    /**
+     * Adds a delta to the existing value of a {@link StateKey.Type#INT} key without boxing. Like {@link Dynamic}, the
+     * effect does nothing if the key has no value yet.
+     */
+    record IntDelta(
+        StateKey.Derived<Integer> key,
+        int delta
+    ) implements Effect<Integer> {
+
+        @Override
+        public void apply(WorldState worldState) {
+            if (worldState.has(key)) {
+                worldState.setInt(key, worldState.getInt(key) + delta);
+            }
+        }
+
+        @Override
+        public @Nullable Integer resolve(@Nullable Integer previous) {
+            return previous == null ? null : previous + delta;
+        }
+    }
+
+    /**
+     * Sets a {@link StateKey.Type#LONG} key without boxing.
+     */
+    record LongValue(
+        StateKey.Derived<Long> key,
+        long value
+    ) implements Effect<Long> {
+
+        @Override
+        public void apply(WorldState worldState) {
+            worldState.setLong(key, value);
+        }
+
+        @Override
+        public Long resolve(@Nullable Long previous) {
+            return value;
+        }
+    }
+
+    /**
+     * Adds a delta to the existing value of a {@link StateKey.Type#LONG} key without boxing. Does nothing if the key
+     * has no value yet.
+     */
+    record LongDelta(
+        StateKey.Derived<Long> key,
+        long delta
+    ) implements Effect<Long> {
+
+        @Override
+        public void apply(WorldState worldState) {
+            if (worldState.has(key)) {
+                worldState.setLong(key, worldState.getLong(key) + delta);
+            }
+        }
+
+        @Override
+        public @Nullable Long resolve(@Nullable Long previous) {
+            return previous == null ? null : previous + delta;
+        }
+    }
+
+    /**
+     * Sets a {@link StateKey.Type#FLOAT} key without boxing.
+     */
+    record FloatValue(
+        StateKey.Derived<Float> key,
+        float value
+    ) implements Effect<Float> {
+
+        @Override
+        public void apply(WorldState worldState) {
+            worldState.setFloat(key, value);
+        }
+
+        @Override
+        public Float resolve(@Nullable Float previous) {
+            return value;
+        }
+    }
+
+    /**
+     * Adds a delta to the existing value of a {@link StateKey.Type#FLOAT} key without boxing. Does nothing if the key
+     * has no value yet.
+     */
+    record FloatDelta(
+        StateKey.Derived<Float> key,
+        float delta
+    ) implements Effect<Float> {
+
+        @Override
+        public void apply(WorldState worldState) {
+            if (worldState.has(key)) {
+                worldState.setFloat(key, worldState.getFloat(key) + delta);
+            }
+        }
+
+        @Override
+        public @Nullable Float resolve(@Nullable Float previous) {
+            return previous == null ? null : previous + delta;
+        }
+    }
+
+    /**
+     * Sets a {@link StateKey.Type#BOOLEAN} key without boxing.
+     */
+    record BooleanValue(
+        StateKey.Derived<Boolean> key,
+        boolean value
+    ) implements Effect<Boolean> {
+
+        @Override
+        public void apply(WorldState worldState) {
+            worldState.setBoolean(key, value);
+        }
+
+        @Override
+        public Boolean resolve(@Nullable Boolean previous) {
+            return value;
+        }
     }
 }
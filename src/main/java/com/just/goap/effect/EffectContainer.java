@@ -1,8 +1,16 @@
 package com.just.goap.effect;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.just.core.functional.function.Lazy;
+import com.just.goap.StateKey;
 import com.just.goap.state.ReadableWorldState;
 import com.just.goap.state.WorldState;
 
@@ -18,10 +26,13 @@ public final class EffectContainer {
 
     private final List<Effect<?>> effects;
 
+    private final Map<StateKey<?>, List<Effect<?>>> effectsByKey;
+
     private final Lazy<WorldState> worldStateLazy;
 
     private EffectContainer(List<Effect<?>> effects) {
         this.effects = effects;
+        this.effectsByKey = indexByKey(effects);
         this.worldStateLazy = Lazy.of(() -> {
             var worldState = WorldState.create();
             worldState.apply(this);
@@ -29,10 +40,52 @@ public final class EffectContainer {
         });
     }
 
+    private static Map<StateKey<?>, List<Effect<?>>> indexByKey(List<Effect<?>> effects) {
+        var effectsByKey = new LinkedHashMap<StateKey<?>, List<Effect<?>>>();
+
+        for (var effect : effects) {
+            effectsByKey.computeIfAbsent(effect.key(), $ -> new ArrayList<>(1)).add(effect);
+        }
+
+        return Collections.unmodifiableMap(effectsByKey);
+    }
+
     public List<Effect<?>> getEffects() {
         return effects;
     }
 
+    /**
+     * Returns the keys written by these effects.
+     */
+    public Set<StateKey<?>> getKeys() {
+        return effectsByKey.keySet();
+    }
+
+    /**
+     * Returns the value the given key has after applying these effects, in order, to an empty world state.
+     * <p>
+     * Only the effects that write the key are looked at, so no world state is built.
+     *
+     * @param key The key to resolve.
+     * @return The resolved value, or {@code null} if the key has no value afterwards.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable T resolve(StateKey<T> key) {
+        var keyEffects = effectsByKey.get(key);
+
+        if (keyEffects == null) {
+            return null;
+        }
+
+        T value = null;
+
+        for (var effect : keyEffects) {
+            value = ((Effect<T>) effect).resolve(value);
+        }
+
+        return value;
+    }
+
     public ReadableWorldState toWorldState() {
         return worldStateLazy.get();
     }
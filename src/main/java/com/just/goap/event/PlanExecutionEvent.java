@@ -0,0 +1,50 @@
+package com.just.goap.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import com.just.goap.plan.executor.PlanExecutor;
+
+/**
+ * Flight Recorder event emitted once per agent tick for the plan executor, covering all plans it updates in that tick.
+ */
+@Name("com.just.goap.PlanExecution")
+@Label("GOAP Plan Execution")
+@Description("A single tick of a plan executor.")
+@Category({ "Just GOAP", "Execution" })
+@StackTrace(false)
+public final class PlanExecutionEvent extends Event {
+
+    @Label("Executor")
+    private String executor;
+
+    @Label("Tick")
+    private long tick;
+
+    @Label("Result")
+    private String result;
+
+    /**
+     * Ends this event and commits it if the event is enabled and passes its configured threshold.
+     *
+     * @param executor The plan executor that was run.
+     * @param tick     The agent tick.
+     * @param result   The result reported by the executor.
+     */
+    public void complete(PlanExecutor<?> executor, long tick, PlanExecutor.Result result) {
+        end();
+
+        if (!shouldCommit()) {
+            return;
+        }
+
+        this.executor = executor.getClass().getName();
+        this.tick = tick;
+        this.result = result.name();
+        commit();
+    }
+}
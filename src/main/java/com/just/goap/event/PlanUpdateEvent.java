@@ -0,0 +1,57 @@
+package com.just.goap.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.jetbrains.annotations.Nullable;
+
+import com.just.goap.plan.Plan;
+
+/**
+ * Flight Recorder event emitted once per plan update, covering the execution of the plan's current action for one
+ * tick.
+ */
+@Name("com.just.goap.PlanUpdate")
+@Label("GOAP Plan Update")
+@Description("A single tick of a plan, including the current action's callbacks.")
+@Category({ "Just GOAP", "Execution" })
+@StackTrace(false)
+public final class PlanUpdateEvent extends Event {
+
+    @Label("Goal")
+    private String goal;
+
+    @Label("Action")
+    private @Nullable String action;
+
+    @Label("Action Tick")
+    private int actionTick;
+
+    @Label("Plan State")
+    private String planState;
+
+    /**
+     * Ends this event and commits it if the event is enabled and passes its configured threshold.
+     *
+     * @param goal       The name of the plan's goal.
+     * @param action     The name of the action that was updated, or {@code null} if the plan had already finished.
+     * @param actionTick The tick of the action when it was updated.
+     * @param planState  The state the plan reported after the update.
+     */
+    public void complete(String goal, @Nullable String action, int actionTick, Plan.State planState) {
+        end();
+
+        if (!shouldCommit()) {
+            return;
+        }
+
+        this.goal = goal;
+        this.action = action;
+        this.actionTick = actionTick;
+        this.planState = planState.name();
+        commit();
+    }
+}
@@ -0,0 +1,68 @@
+package com.just.goap.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Flight Recorder event emitted once per planner search.
+ * <p>
+ * The event duration covers the whole search, from building the root node to returning a plan (or giving up).
+ */
+@Name("com.just.goap.Planning")
+@Label("GOAP Planning")
+@Description("A single planner search for one goal.")
+@Category({ "Just GOAP", "Planning" })
+@StackTrace(false)
+public final class PlanningEvent extends Event {
+
+    @Label("Goal")
+    private @Nullable String goal;
+
+    @Label("Expansions")
+    @Description("The number of nodes taken from the open list and expanded.")
+    private int expansions;
+
+    @Label("Generated Nodes")
+    @Description("The number of child nodes pushed onto the open list.")
+    private int generatedNodes;
+
+    @Label("Plan Found")
+    private boolean planFound;
+
+    @Label("Plan Length")
+    private int planLength;
+
+    @Label("Plan Cost")
+    private float planCost;
+
+    /**
+     * Ends this event and commits it with the given search statistics if the event is enabled and passes its
+     * configured threshold.
+     *
+     * @param goal           The name of the goal being planned for, or {@code null} if unknown.
+     * @param expansions     The number of expanded nodes.
+     * @param generatedNodes The number of generated nodes.
+     * @param planLength     The number of actions in the found plan, or {@code -1} if no plan was found.
+     * @param planCost       The total cost of the found plan, or {@code 0} if no plan was found.
+     */
+    public void complete(@Nullable String goal, int expansions, int generatedNodes, int planLength, float planCost) {
+        end();
+
+        if (!shouldCommit()) {
+            return;
+        }
+
+        this.goal = goal;
+        this.expansions = expansions;
+        this.generatedNodes = generatedNodes;
+        this.planFound = planLength >= 0;
+        this.planLength = Math.max(planLength, 0);
+        this.planCost = planCost;
+        commit();
+    }
+}
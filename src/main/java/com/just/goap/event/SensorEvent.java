@@ -0,0 +1,48 @@
+package com.just.goap.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import com.just.goap.StateKey;
+import com.just.goap.sensor.Sensor;
+
+/**
+ * Flight Recorder event emitted whenever a sensor is invoked to sense a missing world state value.
+ * <p>
+ * Cached reads do not emit this event, so every event corresponds to real sensing work.
+ */
+@Name("com.just.goap.Sensor")
+@Label("GOAP Sensor")
+@Description("A sensor invocation for a single state key.")
+@Category({ "Just GOAP", "Sensing" })
+@StackTrace(false)
+public final class SensorEvent extends Event {
+
+    @Label("Key")
+    private String key;
+
+    @Label("Sensor")
+    private String sensor;
+
+    /**
+     * Ends this event and commits it if the event is enabled and passes its configured threshold.
+     *
+     * @param key    The key that was sensed.
+     * @param sensor The sensor that was invoked.
+     */
+    public void complete(StateKey<?> key, Sensor<?> sensor) {
+        end();
+
+        if (!shouldCommit()) {
+            return;
+        }
+
+        this.key = key.id();
+        this.sensor = sensor.getClass().getName();
+        commit();
+    }
+}
@@ -9,6 +9,7 @@ import com.just.goap.StateKey;
 import com.just.goap.condition.Condition;
 import com.just.goap.condition.ConditionContainer;
 import com.just.goap.condition.expression.Expression;
+import com.just.goap.state.ReadableWorldState;
 
 /**
  * The standard implementation of {@link Goal}.
@@ -25,14 +26,26 @@ public class BaseGoal implements Goal {
 
     private final ConditionContainer preconditions;
 
+    private final UtilityCallback utilityCallback;
+
     protected BaseGoal(
         String name,
         ConditionContainer desiredConditions,
         ConditionContainer preconditions
+    ) {
+        this(name, desiredConditions, preconditions, $ -> 0.0f);
+    }
+
+    protected BaseGoal(
+        String name,
+        ConditionContainer desiredConditions,
+        ConditionContainer preconditions,
+        UtilityCallback utilityCallback
     ) {
         this.name = name;
         this.desiredConditions = desiredConditions;
         this.preconditions = preconditions;
+        this.utilityCallback = utilityCallback;
     }
 
     @Override
@@ -50,6 +63,11 @@ public class BaseGoal implements Goal {
         return preconditions;
     }
 
+    @Override
+    public float getUtility(ReadableWorldState worldState) {
+        return utilityCallback.apply(worldState);
+    }
+
     @Override
     public String toString() {
         return getName();
@@ -68,10 +86,13 @@ public class BaseGoal implements Goal {
 
         protected String name;
 
+        protected UtilityCallback utilityCallback;
+
         protected Builder(String name) {
             this.desiredConditions = new ArrayList<>();
             this.preconditions = new ArrayList<>();
             this.name = name;
+            this.utilityCallback = $ -> 0.0f;
         }
 
         protected abstract B self();
@@ -99,6 +120,15 @@ public class BaseGoal implements Goal {
             return self();
         }
 
+        public B withUtility(float utility) {
+            return withUtilityCallback($ -> utility);
+        }
+
+        public B withUtilityCallback(UtilityCallback utilityCallback) {
+            this.utilityCallback = utilityCallback;
+            return self();
+        }
+
         public B apply(UnaryOperator<B> unaryOperator) {
             return unaryOperator.apply(self());
         }
@@ -111,7 +141,8 @@ public class BaseGoal implements Goal {
             return new BaseGoal(
                 name,
                 ConditionContainer.of(Collections.unmodifiableList(desiredConditions)),
-                ConditionContainer.of(Collections.unmodifiableList(preconditions))
+                ConditionContainer.of(Collections.unmodifiableList(preconditions)),
+                utilityCallback
             );
         }
     }
@@ -6,6 +6,7 @@ import com.just.goap.StateKey;
 import com.just.goap.condition.Condition;
 import com.just.goap.condition.ConditionContainer;
 import com.just.goap.condition.expression.Expression;
+import com.just.goap.state.ReadableWorldState;
 
 /**
  * An abstract goal that delegates all {@link Goal} methods to a wrapped delegate.
@@ -61,6 +62,11 @@ public abstract class DelegatingGoal implements Goal {
         return delegate.getPreconditions();
     }
 
+    @Override
+    public float getUtility(ReadableWorldState worldState) {
+        return delegate.getUtility(worldState);
+    }
+
     @Override
     public String toString() {
         return delegate.toString();
@@ -120,6 +126,16 @@ public abstract class DelegatingGoal implements Goal {
             return self();
         }
 
+        public B withUtility(float utility) {
+            baseBuilder.withUtility(utility);
+            return self();
+        }
+
+        public B withUtilityCallback(Goal.UtilityCallback utilityCallback) {
+            baseBuilder.withUtilityCallback(utilityCallback);
+            return self();
+        }
+
         public B apply(UnaryOperator<B> unaryOperator) {
             return unaryOperator.apply(self());
         }
@@ -1,6 +1,7 @@
 package com.just.goap.goal;
 
 import com.just.goap.condition.ConditionContainer;
+import com.just.goap.state.ReadableWorldState;
 
 /**
  * Represents a goal that the GOAP agent wants to achieve.
@@ -39,4 +40,21 @@ public interface Goal {
      * are evaluated against the current world state.
      */
     ConditionContainer getPreconditions();
+
+    /**
+     * Returns how worthwhile this goal is in the given world state. Plan factories that limit how many goals they
+     * search search the goals with the highest utility first. This is called on every replan, so it should be cheap.
+     *
+     * @param worldState The current world state.
+     * @return The utility of this goal, {@code 0} by default.
+     */
+    default float getUtility(ReadableWorldState worldState) {
+        return 0.0f;
+    }
+
+    @FunctionalInterface
+    interface UtilityCallback {
+
+        float apply(ReadableWorldState worldState);
+    }
 }
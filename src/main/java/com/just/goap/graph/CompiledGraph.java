@@ -0,0 +1,300 @@
+package com.just.goap.graph;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.just.goap.StateKey;
+import com.just.goap.action.Action;
+import com.just.goap.condition.Condition;
+import com.just.goap.goal.Goal;
+import com.just.goap.state.KeySlots;
+
+/**
+ * An array-backed form of a {@link Graph}, used by the planner.
+ * <p>
+ * Actions and conditions are numbered from {@code 0}. The actions that satisfy each condition and the preconditions of
+ * each action are stored as compressed sparse rows: the entries of id {@code i} are {@code indices[offsets[i]]} up to,
+ * but excluding, {@code indices[offsets[i + 1]]}. Walking them needs no hashing and allocates nothing.
+ * <p>
+ * Condition ids at or above {@link #getConditionCount()} are treated as conditions without satisfiers, so callers can
+ * number conditions that are not part of the graph after the graph's own.
+ */
+public final class CompiledGraph<T> {
+
+    private final Action<? super T>[] actions;
+
+    private final Map<Action<?>, Integer> actionIds;
+
+    private final Condition<?>[] conditions;
+
+    private final Map<Condition<?>, Integer> conditionIds;
+
+    private final int[] satisfierOffsets;
+
+    private final int[] satisfierIndices;
+
+    private final int[] preconditionOffsets;
+
+    private final int[] preconditionIndices;
+
+    private final Set<Goal> goals;
+
+    // Computed per goal on first use, as most goals of a large graph are never planned for between two edits.
+    private final Map<Goal, GoalSlice> goalSlices;
+
+    private final Supplier<GoalSelector> goalSelector;
+
+    private final KeySlots keySlots;
+
+    @SuppressWarnings("unchecked")
+    CompiledGraph(GraphIndex<T> index, Supplier<GoalSelector> goalSelector) {
+        var availableActions = index.getAvailableActions();
+        var preconditionToSatisfyingActionsMap = index.getPreconditionToSatisfyingActionsMap();
+
+        this.actions = (Action<? super T>[]) new Action<?>[availableActions.size()];
+        this.actionIds = new HashMap<>();
+        this.conditions = new Condition<?>[preconditionToSatisfyingActionsMap.size()];
+        this.conditionIds = new HashMap<>();
+
+        for (var action : availableActions) {
+            actionIds.put(action, actionIds.size());
+            actions[actionIds.size() - 1] = action;
+        }
+
+        for (var condition : preconditionToSatisfyingActionsMap.keySet()) {
+            conditionIds.put(condition, conditionIds.size());
+            conditions[conditionIds.size() - 1] = condition;
+        }
+
+        // Satisfiers, in the iteration order of the index so that the planner explores actions in the same order.
+        this.satisfierOffsets = new int[conditions.length + 1];
+        var satisfierCount = 0;
+
+        for (var condition : conditions) {
+            satisfierCount += preconditionToSatisfyingActionsMap.get(condition).size();
+        }
+
+        this.satisfierIndices = new int[satisfierCount];
+        var satisfierCursor = 0;
+
+        for (var conditionId = 0; conditionId < conditions.length; conditionId++) {
+            satisfierOffsets[conditionId] = satisfierCursor;
+
+            for (var action : preconditionToSatisfyingActionsMap.get(conditions[conditionId])) {
+                satisfierIndices[satisfierCursor++] = actionIds.get(action);
+            }
+        }
+
+        satisfierOffsets[conditions.length] = satisfierCursor;
+
+        // Preconditions, in declaration order.
+        this.preconditionOffsets = new int[actions.length + 1];
+        var preconditionCount = 0;
+
+        for (var action : actions) {
+            preconditionCount += action.getPreconditionContainer().getConditions().size();
+        }
+
+        this.preconditionIndices = new int[preconditionCount];
+        var preconditionCursor = 0;
+
+        for (var actionId = 0; actionId < actions.length; actionId++) {
+            preconditionOffsets[actionId] = preconditionCursor;
+
+            for (var precondition : actions[actionId].getPreconditionContainer().getConditions()) {
+                preconditionIndices[preconditionCursor++] = conditionIds.get(precondition);
+            }
+        }
+
+        preconditionOffsets[actions.length] = preconditionCursor;
+
+        this.goals = index.getAvailableGoals();
+        this.goalSlices = new ConcurrentHashMap<>();
+        this.goalSelector = goalSelector;
+        this.keySlots = keySlots(index);
+    }
+
+    /**
+     * Numbers every primitive key that a condition, effect or sensor of the graph reads or writes.
+     */
+    private KeySlots keySlots(GraphIndex<T> index) {
+        var keys = new LinkedHashSet<StateKey<?>>();
+
+        for (var condition : conditions) {
+            keys.add(condition.key());
+        }
+
+        for (var action : actions) {
+            keys.addAll(action.getEffectContainer().getKeys());
+        }
+
+        for (var goal : index.getAvailableGoals()) {
+            for (var condition : goal.getPreconditions().getConditions()) {
+                keys.add(condition.key());
+            }
+        }
+
+        keys.addAll(index.getSensorMap().keySet());
+        return KeySlots.of(keys);
+    }
+
+    /**
+     * Walks backwards from the goal's desired conditions to every action that could end up in a plan for the goal.
+     */
+    private GoalSlice slice(Goal goal) {
+        var actionMask = new long[(actions.length + 63) >>> 6];
+        var visitedConditions = new BitSet(conditions.length);
+        var pendingConditions = new ArrayDeque<Integer>();
+
+        for (var condition : goal.getDesiredConditions().getConditions()) {
+            var conditionId = conditionIds.get(condition);
+
+            if (!visitedConditions.get(conditionId)) {
+                visitedConditions.set(conditionId);
+                pendingConditions.add(conditionId);
+            }
+        }
+
+        while (!pendingConditions.isEmpty()) {
+            int conditionId = pendingConditions.poll();
+
+            for (var i = satisfierOffsets[conditionId]; i < satisfierOffsets[conditionId + 1]; i++) {
+                var actionId = satisfierIndices[i];
+                var word = actionId >>> 6;
+                var bit = 1L << actionId;
+
+                if ((actionMask[word] & bit) != 0) {
+                    continue;
+                }
+
+                actionMask[word] |= bit;
+
+                for (var j = preconditionOffsets[actionId]; j < preconditionOffsets[actionId + 1]; j++) {
+                    var preconditionId = preconditionIndices[j];
+
+                    if (!visitedConditions.get(preconditionId)) {
+                        visitedConditions.set(preconditionId);
+                        pendingConditions.add(preconditionId);
+                    }
+                }
+            }
+        }
+
+        var sliceActionIds = BitSet.valueOf(actionMask).stream().toArray();
+        var sliceConditionIds = visitedConditions.stream().toArray();
+        var conditionKeys = new HashSet<StateKey<?>>();
+
+        for (var conditionId : sliceConditionIds) {
+            var key = conditions[conditionId].key();
+            conditionKeys.add(key);
+        }
+
+        return new GoalSlice(
+            sliceActionIds,
+            actionMask,
+            sliceConditionIds,
+            Collections.unmodifiableSet(conditionKeys)
+        );
+    }
+
+    public int getActionCount() {
+        return actions.length;
+    }
+
+    public Action<? super T> getAction(int actionId) {
+        return actions[actionId];
+    }
+
+    /**
+     * @return The id of the given action, or {@code -1} if it is not part of the graph.
+     */
+    public int getActionId(Action<?> action) {
+        return actionIds.getOrDefault(action, -1);
+    }
+
+    public int getConditionCount() {
+        return conditions.length;
+    }
+
+    public Condition<?> getCondition(int conditionId) {
+        return conditions[conditionId];
+    }
+
+    /**
+     * @return The id of the given condition, or {@code -1} if it is not part of the graph.
+     */
+    public int getConditionId(Condition<?> condition) {
+        return conditionIds.getOrDefault(condition, -1);
+    }
+
+    /**
+     * @return The position of the first satisfier of the given condition, see {@link #getSatisfier(int)}.
+     */
+    public int getSatisfierStart(int conditionId) {
+        return conditionId < conditions.length ? satisfierOffsets[conditionId] : 0;
+    }
+
+    /**
+     * @return The position after the last satisfier of the given condition, see {@link #getSatisfier(int)}.
+     */
+    public int getSatisfierEnd(int conditionId) {
+        return conditionId < conditions.length ? satisfierOffsets[conditionId + 1] : 0;
+    }
+
+    /**
+     * @return The id of the action at the given satisfier position.
+     */
+    public int getSatisfier(int position) {
+        return satisfierIndices[position];
+    }
+
+    /**
+     * @return The slice of this graph relevant to the given goal, or {@code null} if the goal is not part of the graph.
+     */
+    public @Nullable GoalSlice getGoalSlice(Goal goal) {
+        if (!goals.contains(goal)) {
+            return null;
+        }
+
+        return goalSlices.computeIfAbsent(goal, $ -> slice(goal));
+    }
+
+    /**
+     * @return The slots of the primitive keys of this graph, which world states for this graph store values by.
+     */
+    public KeySlots getKeySlots() {
+        return keySlots;
+    }
+
+    /**
+     * @return The selector for the goals whose preconditions are satisfied.
+     */
+    public GoalSelector getGoalSelector() {
+        return goalSelector.get();
+    }
+
+    public int getPreconditionStart(int actionId) {
+        return preconditionOffsets[actionId];
+    }
+
+    public int getPreconditionEnd(int actionId) {
+        return preconditionOffsets[actionId + 1];
+    }
+
+    /**
+     * @return The id of the condition at the given precondition position.
+     */
+    public int getPrecondition(int position) {
+        return preconditionIndices[position];
+    }
+}
@@ -0,0 +1,140 @@
+package com.just.goap.graph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import com.just.goap.StateKey;
+import com.just.goap.condition.Condition;
+import com.just.goap.goal.Goal;
+import com.just.goap.state.ReadableWorldState;
+
+/**
+ * The preconditions of every goal in a {@link CompiledGraph}, merged into one network so that the goals whose
+ * preconditions hold can be found in a single pass.
+ * <p>
+ * Each distinct precondition is tested at most once per pass, no matter how many goals share it. Preconditions are
+ * grouped by key and tested in order of how many goals depend on them, and a precondition is skipped entirely once
+ * every goal depending on it has already been ruled out, so sensors behind it are never asked for their value.
+ */
+public final class GoalSelector {
+
+    private final Goal[] goals;
+
+    private final Condition<?>[] conditions;
+
+    // For each condition, a bit mask of the goals that have it as a precondition.
+    private final long[][] dependentGoalMasks;
+
+    GoalSelector(Collection<Goal> goals) {
+        this.goals = goals.toArray(Goal[]::new);
+
+        var words = (this.goals.length + 63) >>> 6;
+        var masks = new HashMap<Condition<?>, long[]>();
+        var conditionsByKey = new LinkedHashMap<StateKey<?>, List<Condition<?>>>();
+
+        for (var goalId = 0; goalId < this.goals.length; goalId++) {
+            for (var condition : this.goals[goalId].getPreconditions().getConditions()) {
+                var mask = masks.get(condition);
+
+                if (mask == null) {
+                    mask = new long[words];
+                    masks.put(condition, mask);
+                    conditionsByKey.computeIfAbsent(condition.key(), $ -> new ArrayList<>()).add(condition);
+                }
+
+                mask[goalId >>> 6] |= 1L << goalId;
+            }
+        }
+
+        // Keys shared by the most goals first, as a failing test there rules out the most goals at once.
+        var keyGoalCounts = new HashMap<StateKey<?>, Integer>();
+
+        conditionsByKey.forEach((key, keyConditions) -> {
+            var keyMask = new long[words];
+
+            for (var condition : keyConditions) {
+                var mask = masks.get(condition);
+
+                for (var i = 0; i < words; i++) {
+                    keyMask[i] |= mask[i];
+                }
+            }
+
+            keyGoalCounts.put(key, bitCount(keyMask));
+            keyConditions.sort(Comparator.comparingInt(condition -> -bitCount(masks.get(condition))));
+        });
+
+        var keys = new ArrayList<>(conditionsByKey.keySet());
+        keys.sort(Comparator.comparingInt(key -> -keyGoalCounts.get(key)));
+
+        var orderedConditions = new ArrayList<Condition<?>>(masks.size());
+
+        for (var key : keys) {
+            orderedConditions.addAll(conditionsByKey.get(key));
+        }
+
+        this.conditions = orderedConditions.toArray(Condition<?>[]::new);
+        this.dependentGoalMasks = new long[conditions.length][];
+
+        for (var conditionId = 0; conditionId < conditions.length; conditionId++) {
+            dependentGoalMasks[conditionId] = masks.get(conditions[conditionId]);
+        }
+    }
+
+    private static int bitCount(long[] mask) {
+        var count = 0;
+
+        for (var word : mask) {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the goals whose preconditions are satisfied by the given world state, in the graph's goal order.
+     */
+    public List<Goal> select(ReadableWorldState worldState) {
+        var remaining = new long[(goals.length + 63) >>> 6];
+
+        for (var goalId = 0; goalId < goals.length; goalId++) {
+            remaining[goalId >>> 6] |= 1L << goalId;
+        }
+
+        for (var conditionId = 0; conditionId < conditions.length; conditionId++) {
+            var mask = dependentGoalMasks[conditionId];
+
+            if (!intersects(remaining, mask) || conditions[conditionId].satisfiedBy(worldState)) {
+                continue;
+            }
+
+            for (var i = 0; i < remaining.length; i++) {
+                remaining[i] &= ~mask[i];
+            }
+        }
+
+        var selected = new ArrayList<Goal>();
+
+        for (var goalId = 0; goalId < goals.length; goalId++) {
+            if ((remaining[goalId >>> 6] & (1L << goalId)) != 0) {
+                selected.add(goals[goalId]);
+            }
+        }
+
+        return selected;
+    }
+
+    private static boolean intersects(long[] a, long[] b) {
+        for (var i = 0; i < a.length; i++) {
+            if ((a[i] & b[i]) != 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
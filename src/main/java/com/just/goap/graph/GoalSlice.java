@@ -0,0 +1,63 @@
+package com.just.goap.graph;
+
+import java.util.Set;
+
+import com.just.goap.StateKey;
+import com.just.goap.goal.Goal;
+
+/**
+ * The part of a {@link CompiledGraph} that can matter when planning for one {@link Goal}: the actions
+ * backward-reachable from its desired conditions and the conditions those actions and the goal depend on.
+ * <p>
+ * Ids refer to {@link CompiledGraph#getAction(int)} and {@link CompiledGraph#getCondition(int)} and are sorted in
+ * ascending order.
+ */
+public final class GoalSlice {
+
+    private final int[] actionIds;
+
+    private final long[] actionMask;
+
+    private final int[] conditionIds;
+
+    private final Set<StateKey<?>> conditionKeys;
+
+    GoalSlice(
+        int[] actionIds,
+        long[] actionMask,
+        int[] conditionIds,
+        Set<StateKey<?>> conditionKeys
+    ) {
+        this.actionIds = actionIds;
+        this.actionMask = actionMask;
+        this.conditionIds = conditionIds;
+        this.conditionKeys = conditionKeys;
+    }
+
+    /**
+     * Returns the ids of the actions that can appear in a plan for the goal. The returned array must not be modified.
+     */
+    public int[] getActionIds() {
+        return actionIds;
+    }
+
+    public boolean containsAction(int actionId) {
+        return (actionMask[actionId >>> 6] & (1L << actionId)) != 0;
+    }
+
+    /**
+     * Returns the ids of the goal's desired conditions and of the preconditions of every action in the slice. The
+     * returned array must not be modified.
+     */
+    public int[] getConditionIds() {
+        return conditionIds;
+    }
+
+    /**
+     * Returns the keys read by the conditions in the slice. Whether a plan for the goal exists depends on the values of
+     * these keys only.
+     */
+    public Set<StateKey<?>> getConditionKeys() {
+        return conditionKeys;
+    }
+}
@@ -1,8 +1,9 @@
 package com.just.goap.graph;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -20,24 +21,27 @@ public class Graph<T> {
         return new Builder<>();
     }
 
+    private final GraphIndex<T> index;
+
     private final Set<Action<? super T>> availableActions;
 
     private final Set<Goal> availableGoals;
 
-    private final Map<Condition<?>, Set<Action<? super T>>> preconditionToSatisfyingActionsMap;
-
     private final Map<StateKey<?>, Sensor<? super T>> sensorMap;
 
-    private Graph(
-        Set<Action<? super T>> availableActions,
-        Set<Goal> availableGoals,
-        Map<Condition<?>, Set<Action<? super T>>> preconditionToSatisfyingActionsMap,
-        Map<StateKey<?>, Sensor<? super T>> sensorMap
-    ) {
-        this.availableActions = availableActions;
-        this.availableGoals = availableGoals;
-        this.preconditionToSatisfyingActionsMap = preconditionToSatisfyingActionsMap;
-        this.sensorMap = sensorMap;
+    // Edits never change the goals, so a graph derived by an edit shares the goal selector of the graph it came from.
+    private final SharedGoalSelector goalSelector;
+
+    // Compiled on first use, so that graphs derived by several edits in a row are only compiled once they are used.
+    private volatile @Nullable CompiledGraph<T> compiledGraph;
+
+    private Graph(GraphIndex<T> index, SharedGoalSelector goalSelector) {
+        this.index = index;
+        this.goalSelector = goalSelector;
+        this.availableActions = Collections.unmodifiableSet(index.getAvailableActions());
+        this.availableGoals = Collections.unmodifiableSet(index.getAvailableGoals());
+        this.sensorMap = Collections.unmodifiableMap(index.getSensorMap());
+        this.compiledGraph = null;
     }
 
     public Set<Action<? super T>> getAvailableActions() {
@@ -49,13 +53,33 @@ public class Graph<T> {
     }
 
     public Set<Action<? super T>> getActionsThatSatisfy(Condition<?> condition) {
-        return preconditionToSatisfyingActionsMap.getOrDefault(condition, Set.of());
+        return index.getSatisfyingActions(condition);
     }
 
     public Map<StateKey<?>, Sensor<? super T>> getSensorMap() {
         return sensorMap;
     }
 
+    /**
+     * Returns the array-backed form of this graph that the planner searches, compiling it on the first call.
+     */
+    public CompiledGraph<T> getCompiledGraph() {
+        var compiledGraph = this.compiledGraph;
+
+        if (compiledGraph == null) {
+            synchronized (this) {
+                compiledGraph = this.compiledGraph;
+
+                if (compiledGraph == null) {
+                    compiledGraph = new CompiledGraph<>(index, goalSelector::get);
+                    this.compiledGraph = compiledGraph;
+                }
+            }
+        }
+
+        return compiledGraph;
+    }
+
     public Builder<T> toBuilder() {
         var builder = Graph.<T>builder();
 
@@ -66,21 +90,22 @@ public class Graph<T> {
         return builder;
     }
 
-    public static class Builder<T> {
-
-        private final Set<Action<? super T>> availableActions;
-
-        private final Set<Goal> availableGoals;
+    /**
+     * Returns an editor that derives a new graph from this one by adding or removing actions.
+     * <p>
+     * Unlike {@link #toBuilder()}, the derived graph shares every index entry the edit does not touch with this graph,
+     * and only the part of the graph affected by the edit is validated again.
+     */
+    public Editor<T> edit() {
+        return new Editor<>(this);
+    }
 
-        private final Map<Condition<?>, Set<Action<? super T>>> preconditionToSatisfyingActionsMap;
+    public static class Builder<T> {
 
-        private final Map<StateKey<?>, Sensor<? super T>> sensorMap;
+        private final GraphIndex<T> index;
 
         private Builder() {
-            this.availableActions = new HashSet<>();
-            this.availableGoals = new HashSet<>();
-            this.preconditionToSatisfyingActionsMap = new HashMap<>();
-            this.sensorMap = new HashMap<>();
+            this.index = new GraphIndex<>();
         }
 
         public Builder<T> addSensors(Collection<? extends Sensor<? super T>> sensors) {
@@ -89,7 +114,7 @@ public class Graph<T> {
         }
 
         public Builder<T> addSensor(Sensor<? super T> sensor) {
-            sensor.outputKeys().forEach(key -> sensorMap.put(key, sensor));
+            index.addSensor(sensor);
             return this;
         }
 
@@ -99,26 +124,7 @@ public class Graph<T> {
         }
 
         public Builder<T> addGoal(Goal goal) {
-            var desiredConditions = goal.getDesiredConditions().getConditions();
-
-            if (desiredConditions.isEmpty()) {
-                throw new IllegalArgumentException("Goal must specify at least one desired condition: " + goal);
-            }
-
-            availableGoals.add(goal);
-
-            for (var condition : desiredConditions) {
-                // Ensure condition is in map.
-                var actions = preconditionToSatisfyingActionsMap.computeIfAbsent(condition, $ -> new HashSet<>());
-
-                // Check if any existing action satisfies it.
-                for (var action : availableActions) {
-                    if (condition.satisfiedBy(action.getEffectContainer())) {
-                        actions.add(action);
-                    }
-                }
-            }
-
+            index.addGoal(goal);
             return this;
         }
 
@@ -128,69 +134,110 @@ public class Graph<T> {
         }
 
         public Builder<T> addAction(Action<? super T> action) {
-            if (action.getEffectContainer().getEffects().isEmpty()) {
-                throw new IllegalArgumentException("Action must have at least one effect: " + action);
-            }
+            index.addAction(action);
+            return this;
+        }
 
-            availableActions.add(action);
+        public Builder<T> apply(UnaryOperator<Builder<T>> unaryOperator) {
+            return unaryOperator.apply(this);
+        }
 
-            var effects = action.getEffectContainer();
-            // Collect all newly added preconditions.
-            var newPreconditions = new HashSet<Condition<?>>();
+        public Graph<T> build() {
+            GraphValidator.validate(index);
 
-            for (var precondition : action.getPreconditionContainer().getConditions()) {
-                preconditionToSatisfyingActionsMap.computeIfAbsent(precondition, $ -> {
-                    // Track brand new condition.
-                    newPreconditions.add(precondition);
-                    return new HashSet<>();
-                });
-            }
+            var copy = index.copy();
+            return new Graph<>(copy, new SharedGoalSelector(copy.getAvailableGoals()));
+        }
 
-            // For each *existing* condition, check if the new action satisfies it.
-            for (var condition : preconditionToSatisfyingActionsMap.keySet()) {
-                if (condition.satisfiedBy(effects)) {
-                    var actions = preconditionToSatisfyingActionsMap.get(condition);
-                    actions.add(action);
-                }
+    }
+
+    public static class Editor<T> {
+
+        private final Graph<T> graph;
+
+        private final GraphIndex<T> index;
+
+        private final Set<Action<? super T>> addedActions;
+
+        private final Set<Action<? super T>> removedActions;
+
+        private Editor(Graph<T> graph) {
+            this.graph = graph;
+            this.index = graph.index.copy();
+            this.addedActions = new HashSet<>();
+            this.removedActions = new HashSet<>();
+        }
+
+        public Editor<T> addActions(Collection<? extends Action<? super T>> actions) {
+            actions.forEach(this::addAction);
+            return this;
+        }
+
+        public Editor<T> addAction(Action<? super T> action) {
+            if (index.addAction(action) && !removedActions.remove(action)) {
+                addedActions.add(action);
             }
 
-            // For each *newly added condition*, check if any *existing* actions satisfy it.
-            for (var newPrecondition : newPreconditions) {
-                var actions = preconditionToSatisfyingActionsMap.get(newPrecondition);
+            return this;
+        }
 
-                for (var otherAction : availableActions) {
-                    if (otherAction == action) {
-                        continue;
-                    }
+        public Editor<T> removeActions(Collection<? extends Action<? super T>> actions) {
+            actions.forEach(this::removeAction);
+            return this;
+        }
 
-                    if (newPrecondition.satisfiedBy(otherAction.getEffectContainer())) {
-                        actions.add(otherAction);
-                    }
-                }
+        public Editor<T> removeAction(Action<? super T> action) {
+            if (index.removeAction(action) && !addedActions.remove(action)) {
+                removedActions.add(action);
             }
 
             return this;
         }
 
-        public Builder<T> apply(UnaryOperator<Builder<T>> unaryOperator) {
+        public Editor<T> apply(UnaryOperator<Editor<T>> unaryOperator) {
             return unaryOperator.apply(this);
         }
 
         public Graph<T> build() {
-            GraphValidator.validate(
-                availableActions,
-                availableGoals,
-                preconditionToSatisfyingActionsMap,
-                sensorMap
-            );
+            if (addedActions.isEmpty() && removedActions.isEmpty()) {
+                return graph;
+            }
+
+            GraphValidator.validateEdit(graph.index, index, addedActions, removedActions);
+
+            return new Graph<>(index.copy(), graph.goalSelector);
+        }
+    }
+
+    /**
+     * Builds the goal selector of a set of goals on first use.
+     */
+    private static final class SharedGoalSelector {
 
-            return new Graph<>(
-                Collections.unmodifiableSet(availableActions),
-                Collections.unmodifiableSet(availableGoals),
-                Collections.unmodifiableMap(preconditionToSatisfyingActionsMap),
-                Collections.unmodifiableMap(sensorMap)
-            );
+        private final Set<Goal> goals;
+
+        private volatile @Nullable GoalSelector goalSelector;
+
+        private SharedGoalSelector(Set<Goal> goals) {
+            this.goals = goals;
+            this.goalSelector = null;
         }
 
+        private GoalSelector get() {
+            var goalSelector = this.goalSelector;
+
+            if (goalSelector == null) {
+                synchronized (this) {
+                    goalSelector = this.goalSelector;
+
+                    if (goalSelector == null) {
+                        goalSelector = new GoalSelector(goals);
+                        this.goalSelector = goalSelector;
+                    }
+                }
+            }
+
+            return goalSelector;
+        }
     }
 }
@@ -0,0 +1,295 @@
+package com.just.goap.graph;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.just.goap.StateKey;
+import com.just.goap.action.Action;
+import com.just.goap.condition.Condition;
+import com.just.goap.goal.Goal;
+import com.just.goap.sensor.Sensor;
+
+/**
+ * The indices behind a {@link Graph}: which actions satisfy which conditions, and which actions and conditions touch
+ * which keys.
+ * <p>
+ * {@link #copy()} is cheap. The copy shares every per-key and per-condition set with the original and only copies a
+ * set the first time either side changes it, so deriving one graph from another only pays for the entries that are
+ * actually touched.
+ */
+final class GraphIndex<T> {
+
+    private final Set<Action<? super T>> availableActions;
+
+    private final Set<Goal> availableGoals;
+
+    private final Map<Condition<?>, Set<Action<? super T>>> preconditionToSatisfyingActionsMap;
+
+    private final Map<Condition<?>, Set<Action<? super T>>> conditionToDependentActionsMap;
+
+    private final Map<Condition<?>, Set<Goal>> conditionToDependentGoalsMap;
+
+    private final Map<StateKey<?>, Set<Action<? super T>>> keyToProducingActionsMap;
+
+    private final Map<StateKey<?>, Set<Condition<?>>> keyToConditionsMap;
+
+    private final Map<StateKey<?>, Sensor<? super T>> sensorMap;
+
+    // Sets this index may change in place. Any other set is shared with another index and is copied before a change.
+    private final Set<Set<?>> ownedSets;
+
+    GraphIndex() {
+        this(
+            new HashSet<>(),
+            new HashSet<>(),
+            new HashMap<>(),
+            new HashMap<>(),
+            new HashMap<>(),
+            new HashMap<>(),
+            new HashMap<>(),
+            new HashMap<>()
+        );
+    }
+
+    private GraphIndex(
+        Set<Action<? super T>> availableActions,
+        Set<Goal> availableGoals,
+        Map<Condition<?>, Set<Action<? super T>>> preconditionToSatisfyingActionsMap,
+        Map<Condition<?>, Set<Action<? super T>>> conditionToDependentActionsMap,
+        Map<Condition<?>, Set<Goal>> conditionToDependentGoalsMap,
+        Map<StateKey<?>, Set<Action<? super T>>> keyToProducingActionsMap,
+        Map<StateKey<?>, Set<Condition<?>>> keyToConditionsMap,
+        Map<StateKey<?>, Sensor<? super T>> sensorMap
+    ) {
+        this.availableActions = availableActions;
+        this.availableGoals = availableGoals;
+        this.preconditionToSatisfyingActionsMap = preconditionToSatisfyingActionsMap;
+        this.conditionToDependentActionsMap = conditionToDependentActionsMap;
+        this.conditionToDependentGoalsMap = conditionToDependentGoalsMap;
+        this.keyToProducingActionsMap = keyToProducingActionsMap;
+        this.keyToConditionsMap = keyToConditionsMap;
+        this.sensorMap = sensorMap;
+        this.ownedSets = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Returns a copy of this index that shares all of its per-key and per-condition sets with this one.
+     */
+    GraphIndex<T> copy() {
+        // From now on neither index owns the shared sets. Graphs only hold indices that own nothing, so this never
+        // writes to an index that is shared between threads.
+        if (!ownedSets.isEmpty()) {
+            ownedSets.clear();
+        }
+
+        return new GraphIndex<>(
+            new HashSet<>(availableActions),
+            new HashSet<>(availableGoals),
+            new HashMap<>(preconditionToSatisfyingActionsMap),
+            new HashMap<>(conditionToDependentActionsMap),
+            new HashMap<>(conditionToDependentGoalsMap),
+            new HashMap<>(keyToProducingActionsMap),
+            new HashMap<>(keyToConditionsMap),
+            new HashMap<>(sensorMap)
+        );
+    }
+
+    Set<Action<? super T>> getAvailableActions() {
+        return availableActions;
+    }
+
+    Set<Goal> getAvailableGoals() {
+        return availableGoals;
+    }
+
+    Map<Condition<?>, Set<Action<? super T>>> getPreconditionToSatisfyingActionsMap() {
+        return preconditionToSatisfyingActionsMap;
+    }
+
+    Set<Action<? super T>> getSatisfyingActions(Condition<?> condition) {
+        return preconditionToSatisfyingActionsMap.getOrDefault(condition, Set.of());
+    }
+
+    /**
+     * Returns the actions that have the given condition as a precondition.
+     */
+    Set<Action<? super T>> getDependentActions(Condition<?> condition) {
+        return conditionToDependentActionsMap.getOrDefault(condition, Set.of());
+    }
+
+    /**
+     * Returns the goals that have the given condition as a desired condition.
+     */
+    Set<Goal> getDependentGoals(Condition<?> condition) {
+        return conditionToDependentGoalsMap.getOrDefault(condition, Set.of());
+    }
+
+    Set<Action<? super T>> getProducingActions(StateKey<?> key) {
+        return keyToProducingActionsMap.getOrDefault(key, Set.of());
+    }
+
+    Set<Condition<?>> getConditions(StateKey<?> key) {
+        return keyToConditionsMap.getOrDefault(key, Set.of());
+    }
+
+    /**
+     * Returns every key that a condition reads, an action writes or a sensor senses.
+     */
+    Set<StateKey<?>> getKeys() {
+        var keys = new HashSet<StateKey<?>>(keyToConditionsMap.keySet());
+        keys.addAll(keyToProducingActionsMap.keySet());
+        keys.addAll(sensorMap.keySet());
+        return keys;
+    }
+
+    Map<StateKey<?>, Sensor<? super T>> getSensorMap() {
+        return sensorMap;
+    }
+
+    void addSensor(Sensor<? super T> sensor) {
+        sensor.outputKeys().forEach(key -> sensorMap.put(key, sensor));
+    }
+
+    void addGoal(Goal goal) {
+        var desiredConditions = goal.getDesiredConditions().getConditions();
+
+        if (desiredConditions.isEmpty()) {
+            throw new IllegalArgumentException("Goal must specify at least one desired condition: " + goal);
+        }
+
+        if (!availableGoals.add(goal)) {
+            return;
+        }
+
+        for (var condition : desiredConditions) {
+            addCondition(condition);
+            mutableSet(conditionToDependentGoalsMap, condition).add(goal);
+        }
+    }
+
+    /**
+     * Adds the given action, linking it to every condition it satisfies and every action that satisfies its
+     * preconditions.
+     *
+     * @return {@code true} if the action was not already part of this index.
+     */
+    boolean addAction(Action<? super T> action) {
+        var effects = action.getEffectContainer();
+
+        if (effects.getEffects().isEmpty()) {
+            throw new IllegalArgumentException("Action must have at least one effect: " + action);
+        }
+
+        if (!availableActions.add(action)) {
+            return false;
+        }
+
+        // Index the action by the keys it writes.
+        for (var key : effects.getKeys()) {
+            mutableSet(keyToProducingActionsMap, key).add(action);
+        }
+
+        // Check the new action against the existing conditions on the keys it writes.
+        for (var key : effects.getKeys()) {
+            for (var condition : getConditions(key)) {
+                if (condition.satisfiedBy(effects)) {
+                    mutableSet(preconditionToSatisfyingActionsMap, condition).add(action);
+                }
+            }
+        }
+
+        // Register the preconditions, checking brand new ones against every action that writes their key.
+        for (var precondition : action.getPreconditionContainer().getConditions()) {
+            addCondition(precondition);
+            mutableSet(conditionToDependentActionsMap, precondition).add(action);
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes the given action, along with any precondition that no remaining action or goal needs.
+     *
+     * @return {@code true} if the action was part of this index.
+     */
+    boolean removeAction(Action<? super T> action) {
+        if (!availableActions.remove(action)) {
+            return false;
+        }
+
+        var effects = action.getEffectContainer();
+
+        for (var key : effects.getKeys()) {
+            for (var condition : getConditions(key)) {
+                removeFromSet(preconditionToSatisfyingActionsMap, condition, action, false);
+            }
+
+            removeFromSet(keyToProducingActionsMap, key, action, true);
+        }
+
+        for (var precondition : action.getPreconditionContainer().getConditions()) {
+            removeFromSet(conditionToDependentActionsMap, precondition, action, true);
+
+            var unused = !conditionToDependentActionsMap.containsKey(precondition)
+                && !conditionToDependentGoalsMap.containsKey(precondition);
+
+            if (unused) {
+                preconditionToSatisfyingActionsMap.remove(precondition);
+                removeFromSet(keyToConditionsMap, precondition.key(), precondition, true);
+            }
+        }
+
+        return true;
+    }
+
+    private void addCondition(Condition<?> condition) {
+        if (preconditionToSatisfyingActionsMap.containsKey(condition)) {
+            return;
+        }
+
+        var actions = new HashSet<Action<? super T>>();
+        ownedSets.add(actions);
+
+        // Only actions that write the condition's key can satisfy it.
+        for (var action : getProducingActions(condition.key())) {
+            if (condition.satisfiedBy(action.getEffectContainer())) {
+                actions.add(action);
+            }
+        }
+
+        preconditionToSatisfyingActionsMap.put(condition, actions);
+        mutableSet(keyToConditionsMap, condition.key()).add(condition);
+    }
+
+    private <K, V> Set<V> mutableSet(Map<K, Set<V>> map, K key) {
+        var set = map.get(key);
+
+        if (set == null || !ownedSets.contains(set)) {
+            set = set == null ? new HashSet<>() : new HashSet<>(set);
+            map.put(key, set);
+            ownedSets.add(set);
+        }
+
+        return set;
+    }
+
+    private <K, V> void removeFromSet(Map<K, Set<V>> map, K key, V value, boolean removeIfEmpty) {
+        var set = map.get(key);
+
+        if (set == null || !set.contains(value)) {
+            return;
+        }
+
+        if (removeIfEmpty && set.size() == 1) {
+            map.remove(key);
+            ownedSets.remove(set);
+            return;
+        }
+
+        mutableSet(map, key).remove(value);
+    }
+}
@@ -3,6 +3,8 @@ package com.just.goap.graph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -19,26 +21,99 @@ class GraphValidator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GraphValidator.class);
 
-    static <T> void validate(
-        Set<Action<? super T>> availableActions,
-        Set<Goal> availableGoals,
-        Map<Condition<?>, Set<Action<? super T>>> preconditionToSatisfyingActionsMap,
-        Map<StateKey<?>, Sensor<? super T>> sensorMap
-    ) {
+    static <T> void validate(GraphIndex<T> index) {
         var validationErrorCollector = new ValidationErrorCollector();
+        var availableGoals = index.getAvailableGoals();
 
+        // Validate that no key id is used with two types.
+        validateKeyTypesOrThrow(validationErrorCollector, index);
         // Validate goal preconditions to make sure all precondition keys can be sensed.
-        validateGoalPreconditionSatisfiabilityOrThrow(validationErrorCollector, availableGoals, sensorMap);
+        validateGoalPreconditionSatisfiabilityOrThrow(validationErrorCollector, availableGoals, index.getSensorMap());
         // Validate that sensed keys can be sensed from sensors and derived keys can be derived from actions.
-        validateKeySatisfiabilityOrThrow(validationErrorCollector, availableActions, sensorMap);
+        validateKeySatisfiabilityOrThrow(validationErrorCollector, index.getAvailableActions(), index);
         // Validate unreachable goal conditions.
-        validateGoalReachabilityOrThrow(validationErrorCollector, availableGoals, preconditionToSatisfyingActionsMap);
+        validateGoalReachabilityOrThrow(validationErrorCollector, availableGoals, index);
         // Validate dead-end actions.
-        validateActionContributionOrThrow(validationErrorCollector, availableActions, availableGoals);
+        validateActionContributionOrThrow(validationErrorCollector, index);
+
+        validationErrorCollector.flushAndThrowIfAny();
+    }
+
+    /**
+     * Validates an edited graph, assuming the graph it was derived from was valid.
+     * <p>
+     * Goals and sensors are unchanged by an edit, so only the actions and goals that depend on a key written by an
+     * added or removed action are checked again.
+     */
+    static <T> void validateEdit(
+        GraphIndex<T> previousIndex,
+        GraphIndex<T> index,
+        Set<Action<? super T>> addedActions,
+        Set<Action<? super T>> removedActions
+    ) {
+        var validationErrorCollector = new ValidationErrorCollector();
+        var affectedKeys = new HashSet<StateKey<?>>();
+
+        addedActions.forEach(action -> affectedKeys.addAll(action.getEffectContainer().getKeys()));
+        removedActions.forEach(action -> affectedKeys.addAll(action.getEffectContainer().getKeys()));
+
+        var affectedActions = new LinkedHashSet<Action<? super T>>(addedActions);
+        var affectedGoals = new LinkedHashSet<Goal>();
+
+        // Validate that the added actions use no key id with another type than the rest of the graph.
+        validateKeyTypesOrThrow(validationErrorCollector, index);
+
+        for (var key : affectedKeys) {
+            for (var condition : index.getConditions(key)) {
+                affectedActions.addAll(index.getDependentActions(condition));
+                affectedGoals.addAll(index.getDependentGoals(condition));
+            }
+        }
+
+        // Validate that the preconditions of affected actions can still be sensed or derived.
+        validateKeySatisfiabilityOrThrow(validationErrorCollector, affectedActions, index);
+        // Validate that affected goal conditions are still reachable.
+        validateGoalReachabilityOrThrow(validationErrorCollector, affectedGoals, index);
+        // Validate that neither the added actions nor the actions that relied on removed actions are dead ends.
+        validateEditedActionContributionOrThrow(
+            validationErrorCollector,
+            previousIndex,
+            index,
+            addedActions,
+            removedActions
+        );
 
         validationErrorCollector.flushAndThrowIfAny();
     }
 
+    private static <T> void validateKeyTypesOrThrow(
+        ValidationErrorCollector validationErrorCollector,
+        GraphIndex<T> index
+    ) {
+        // Goal preconditions need a sensor, so their keys are among the sensed keys.
+        var keysById = new HashMap<String, StateKey<?>>();
+
+        for (var key : index.getKeys()) {
+            var otherKey = keysById.putIfAbsent(key.id(), key);
+
+            if (otherKey != null && otherKey.type() != key.type()) {
+                var quotedId = "'" + key.id() + "'";
+                var errorMessage = String.format(
+                    """
+                        State key %s is used as both %s and %s. Possible fixes:
+                            - Use the same type for every key with the id %s
+                            - Rename one of the keys""",
+                    quotedId,
+                    otherKey.type(),
+                    key.type(),
+                    quotedId
+                );
+
+                validationErrorCollector.error(errorMessage);
+            }
+        }
+    }
+
     private static <T> void validateGoalPreconditionSatisfiabilityOrThrow(
         ValidationErrorCollector validationErrorCollector,
         Set<Goal> availableGoals,
@@ -66,27 +141,18 @@ class GraphValidator {
 
     private static <T> void validateKeySatisfiabilityOrThrow(
         ValidationErrorCollector validationErrorCollector,
-        Set<Action<? super T>> availableActions,
-        Map<StateKey<?>, Sensor<? super T>> sensorMap
+        Collection<Action<? super T>> actions,
+        GraphIndex<T> index
     ) {
-        // Map each key to its producing actions.
-        var derivedKeyProducerMap = new HashMap<StateKey.Derived<?>, Set<Action<? super T>>>();
-
-        for (var action : availableActions) {
-            action.getEffectContainer().getEffects().forEach(effect -> {
-                derivedKeyProducerMap
-                    .computeIfAbsent(effect.key(), $ -> new HashSet<>())
-                    .add(action);
-            });
-        }
+        var sensorMap = index.getSensorMap();
 
-        for (var action : availableActions) {
+        for (var action : actions) {
             for (var precondition : action.getPreconditionContainer().getConditions()) {
                 var key = precondition.key();
 
                 switch (key) {
                     case StateKey.Derived<?> derivedKey -> {
-                        var keyProducers = derivedKeyProducerMap.getOrDefault(derivedKey, Set.of());
+                        var keyProducers = index.getProducingActions(derivedKey);
 
                         // If this key is only produced by THIS action and no sensor exists, error.
                         var onlySelfProduces = keyProducers.size() == 1 && keyProducers.contains(action);
@@ -142,12 +208,12 @@ class GraphValidator {
 
     private static <T> void validateGoalReachabilityOrThrow(
         ValidationErrorCollector validationErrorCollector,
-        Set<Goal> availableGoals,
-        Map<Condition<?>, Set<Action<? super T>>> preconditionToSatisfyingActionsMap
+        Collection<Goal> goals,
+        GraphIndex<T> index
     ) {
-        for (var goal : availableGoals) {
+        for (var goal : goals) {
             for (var desiredCondition : goal.getDesiredConditions().getConditions()) {
-                var satisfyingActions = preconditionToSatisfyingActionsMap.getOrDefault(desiredCondition, Set.of());
+                var satisfyingActions = index.getSatisfyingActions(desiredCondition);
 
                 if (satisfyingActions.isEmpty()) {
                     var quotedGoal = "'" + goal + "'";
@@ -172,57 +238,149 @@ class GraphValidator {
 
     private static <T> void validateActionContributionOrThrow(
         ValidationErrorCollector validationErrorCollector,
-        Set<Action<? super T>> availableActions,
-        Set<Goal> availableGoals
+        GraphIndex<T> index
     ) {
         var usefulConditions = new HashSet<Condition<?>>();
         var reachableActions = new HashSet<Action<? super T>>();
+        var pendingConditions = new ArrayDeque<Condition<?>>();
 
         // Start from goal desired conditions.
-        for (var goal : availableGoals) {
-            usefulConditions.addAll(goal.getDesiredConditions().getConditions());
+        for (var goal : index.getAvailableGoals()) {
+            for (var condition : goal.getDesiredConditions().getConditions()) {
+                if (usefulConditions.add(condition)) {
+                    pendingConditions.add(condition);
+                }
+            }
         }
 
-        // Propagate backwards to find all useful conditions/actions.
-        boolean changed;
+        // Propagate backwards to find all useful conditions/actions, following the satisfier map instead of
+        // re-testing every action against every condition.
+        while (!pendingConditions.isEmpty()) {
+            var condition = pendingConditions.poll();
 
-        do {
-            changed = false;
+            for (var action : index.getSatisfyingActions(condition)) {
+                if (!reachableActions.add(action)) {
+                    continue;
+                }
 
-            for (var action : availableActions) {
-                if (reachableActions.contains(action)) {
+                for (var pre : action.getPreconditionContainer().getConditions()) {
+                    if (usefulConditions.add(pre)) {
+                        pendingConditions.add(pre);
+                    }
+                }
+            }
+        }
+
+        for (var action : index.getAvailableActions()) {
+            if (!reachableActions.contains(action)) {
+                reportDeadEnd(validationErrorCollector, action);
+            }
+        }
+    }
+
+    private static <T> void validateEditedActionContributionOrThrow(
+        ValidationErrorCollector validationErrorCollector,
+        GraphIndex<T> previousIndex,
+        GraphIndex<T> index,
+        Set<Action<? super T>> addedActions,
+        Set<Action<? super T>> removedActions
+    ) {
+        // Every action of the previous graph was reachable. The only ones that may not be anymore are those that
+        // were reached through a removed action, so collect them by walking forwards from the removed actions.
+        var candidateActions = new HashSet<Action<? super T>>(addedActions);
+        var visitedConditions = new HashSet<Condition<?>>();
+        var pendingConditions = new ArrayDeque<Condition<?>>();
+
+        for (var action : removedActions) {
+            for (var pre : action.getPreconditionContainer().getConditions()) {
+                if (visitedConditions.add(pre)) {
+                    pendingConditions.add(pre);
+                }
+            }
+        }
+
+        while (!pendingConditions.isEmpty()) {
+            var condition = pendingConditions.poll();
+
+            for (var action : previousIndex.getSatisfyingActions(condition)) {
+                if (!index.getAvailableActions().contains(action) || !candidateActions.add(action)) {
                     continue;
                 }
 
-                // If action effects satisfy any useful condition
-                var useful = usefulConditions.stream()
-                    .anyMatch(condition -> condition.satisfiedBy(action.getEffectContainer()));
+                for (var pre : action.getPreconditionContainer().getConditions()) {
+                    if (visitedConditions.add(pre)) {
+                        pendingConditions.add(pre);
+                    }
+                }
+            }
+        }
 
-                if (useful) {
-                    reachableActions.add(action);
+        // Candidates that satisfy a condition needed by a goal or by a non-candidate are reachable, and so is every
+        // candidate that satisfies a precondition of a reachable candidate.
+        var reachableActions = new HashSet<Action<? super T>>();
+        var pendingActions = new ArrayDeque<Action<? super T>>();
 
-                    for (var pre : action.getPreconditionContainer().getConditions()) {
-                        if (usefulConditions.add(pre)) {
-                            changed = true;
-                        }
+        for (var action : candidateActions) {
+            if (isNeededOutside(index, action, candidateActions)) {
+                reachableActions.add(action);
+                pendingActions.add(action);
+            }
+        }
+
+        while (!pendingActions.isEmpty()) {
+            var action = pendingActions.poll();
+
+            for (var pre : action.getPreconditionContainer().getConditions()) {
+                for (var satisfyingAction : index.getSatisfyingActions(pre)) {
+                    if (candidateActions.contains(satisfyingAction) && reachableActions.add(satisfyingAction)) {
+                        pendingActions.add(satisfyingAction);
                     }
-                    changed = true;
                 }
             }
-        } while (changed);
+        }
 
-        for (var action : availableActions) {
+        for (var action : candidateActions) {
             if (!reachableActions.contains(action)) {
-                var quotedAction = "'" + action + "'";
-                var errorMessage = String.format("""
-                    Action %s is a dead end and doesn't satisfy any other action or goal. Possible fixes:
-                        - Change the effects of %s such that one of the effects satisfies an action or goal precondition
-                        - Change the desired conditions of one of your goals to match the effects of %s
-                        - Remove %s""", quotedAction, quotedAction, quotedAction, quotedAction);
+                reportDeadEnd(validationErrorCollector, action);
+            }
+        }
+    }
 
-                validationErrorCollector.error(errorMessage);
+    private static <T> boolean isNeededOutside(
+        GraphIndex<T> index,
+        Action<? super T> action,
+        Set<Action<? super T>> candidateActions
+    ) {
+        for (var key : action.getEffectContainer().getKeys()) {
+            for (var condition : index.getConditions(key)) {
+                if (!index.getSatisfyingActions(condition).contains(action)) {
+                    continue;
+                }
+
+                if (!index.getDependentGoals(condition).isEmpty()) {
+                    return true;
+                }
+
+                for (var dependentAction : index.getDependentActions(condition)) {
+                    if (!candidateActions.contains(dependentAction)) {
+                        return true;
+                    }
+                }
             }
         }
+
+        return false;
+    }
+
+    private static void reportDeadEnd(ValidationErrorCollector validationErrorCollector, Action<?> action) {
+        var quotedAction = "'" + action + "'";
+        var errorMessage = String.format("""
+            Action %s is a dead end and doesn't satisfy any other action or goal. Possible fixes:
+                - Change the effects of %s such that one of the effects satisfies an action or goal precondition
+                - Change the desired conditions of one of your goals to match the effects of %s
+                - Remove %s""", quotedAction, quotedAction, quotedAction, quotedAction);
+
+        validationErrorCollector.error(errorMessage);
     }
 
     private GraphValidator() {
@@ -1,53 +1,189 @@
 package com.just.goap.plan;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
 
 import com.just.goap.AOStar;
 import com.just.goap.Agent;
 import com.just.goap.action.Action;
+import com.just.goap.goal.Goal;
 import com.just.goap.graph.Graph;
 import com.just.goap.state.ReadableWorldState;
+import com.just.goap.state.SimulatedWorldState;
+import com.just.goap.state.TickCache;
+
+/**
+ * The default {@link Agent.PlanFactory}, which plans for every goal whose preconditions are satisfied (see
+ * {@link com.just.goap.graph.GoalSelector}). Use {@code DefaultPlanFactory::create} for the default behavior, or
+ * {@link #builder()} to configure it.
+ * <p>
+ * The factory can be configured with:
+ * <ul>
+ * <li>Best plan only (default: off). Instead of a plan for every goal, only the cheapest plan is returned. Goals are
+ * searched in order of a lower bound on their cost, each search is bounded by the cheapest plan found so far, and goals
+ * whose lower bound cannot beat it are not searched at all. Use this with executors that only ever run one plan, such
+ * as {@link com.just.goap.plan.executor.impl.BestPlanExecutor}.</li>
+ * <li>A goal limit (default: unlimited). Goals are searched in order of {@link Goal#getUtility} (highest first), and
+ * only until plans for that many goals were found. Goals without a plan do not count towards the limit, so lower
+ * utility goals are only searched when higher utility goals fail. In best plan only mode, the cheapest plan is picked
+ * from the first goals up to the limit, falling back to the next ones only if none of them has a plan.</li>
+ * <li>Failure caching (default: off). A goal that had no plan is not searched again until a key read by one of the
+ * conditions it depends on changes value. The cache belongs to the factory, so a factory built with failure caching
+ * must not be shared between agents.</li>
+ * <li>Plan reuse (default: off). Like failure caching, but goals that had a plan keep it until a key read by one of
+ * the conditions they depend on changes value. Only the cost of a reused plan is computed again, so a plan that became
+ * more expensive is kept even if another plan for the same goal would now be cheaper. The same sharing restriction
+ * applies.</li>
+ * <li>The {@link Solver} used to search for each goal's plan (default: {@link Solvers#aStar()}), which can be
+ * overridden for individual goals, for example to use {@link Solvers#bidirectional(int)} for goals whose actions are
+ * mostly ruled out by the current world state.</li>
+ * </ul>
+ * <p>
+ * Example usage:
+ *
+ * <pre>{@code
+ *
+ * var agent = Agent.<Entity>builder(entity)
+ *     .withPlanFactory(DefaultPlanFactory.<Entity>builder().withBestPlanOnly(true).build())
+ *     .build();
+ * }</pre>
+ *
+ * @param <T> The actor type.
+ */
+public class DefaultPlanFactory<T> {
 
-public class DefaultPlanFactory {
+    private static final DefaultPlanFactory<?> ALL_PLANS = new DefaultPlanFactory<>(
+        false,
+        Integer.MAX_VALUE,
+        null,
+        Solvers.aStar(),
+        Map.of()
+    );
 
+    /**
+     * Creates a plan for every goal whose preconditions are satisfied, sorted by cost (lowest first).
+     */
+    @SuppressWarnings("unchecked")
     public static <T> List<Plan<T>> create(
         Graph<T> graph,
         T actor,
         ReadableWorldState worldState,
         Agent.Debugger debugger
     ) {
-        var plans = new ArrayList<Plan<T>>();
+        return ((DefaultPlanFactory<T>) ALL_PLANS).plan(graph, actor, worldState, debugger);
+    }
 
-        for (var goal : graph.getAvailableGoals()) {
-            debugger.push("Goal '" + goal.getName() + "' precondition check");
-            var preconditionsSatisfied = goal.getPreconditions().satisfiedBy(worldState);
-            debugger.pop();
+    /**
+     * Creates a new builder for configuring a plan factory.
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
 
-            if (!preconditionsSatisfied) {
-                continue;
+    private final boolean bestPlanOnly;
+
+    private final int goalLimit;
+
+    private final @Nullable GoalResultCache<T> goalResultCache;
+
+    private final Solver<T> solver;
+
+    private final Map<Goal, Solver<T>> goalSolvers;
+
+    private DefaultPlanFactory(
+        boolean bestPlanOnly,
+        int goalLimit,
+        @Nullable GoalResultCache<T> goalResultCache,
+        Solver<T> solver,
+        Map<Goal, Solver<T>> goalSolvers
+    ) {
+        this.bestPlanOnly = bestPlanOnly;
+        this.goalLimit = goalLimit;
+        this.goalResultCache = goalResultCache;
+        this.solver = solver;
+        this.goalSolvers = goalSolvers;
+    }
+
+    private List<Plan<T>> plan(Graph<T> graph, T actor, ReadableWorldState worldState, Agent.Debugger debugger) {
+        // Shared preconditions are only tested once across all goals.
+        debugger.push("Goal precondition check");
+        var goals = graph.getCompiledGraph().getGoalSelector().select(worldState);
+        debugger.pop();
+
+        if (goalResultCache != null) {
+            goalResultCache.prepare(graph);
+        }
+
+        if (goalLimit < goals.size()) {
+            sortByUtility(goals, worldState);
+        }
+
+        if (!bestPlanOnly) {
+            return createAllPlans(graph, goals, actor, worldState, debugger);
+        }
+
+        // Take goals in groups of the limit, only falling back to the next group if no goal in a group has a plan.
+        for (var from = 0; from < goals.size(); from += goalLimit) {
+            var to = (int) Math.min((long) from + goalLimit, goals.size());
+            var plans = createBestPlan(graph, goals.subList(from, to), actor, worldState, debugger);
+
+            if (!plans.isEmpty()) {
+                return plans;
             }
+        }
 
-            // We need to find actions that satisfy these conditions.
-            var desiredConditions = goal.getDesiredConditions();
+        return List.of();
+    }
 
-            debugger.push("AOStar.solve() for goal '" + goal.getName() + "'");
-            var actionsWithCosts = AOStar.solve(graph, desiredConditions, worldState, actor);
-            debugger.pop();
+    private static void sortByUtility(List<Goal> goals, ReadableWorldState worldState) {
+        var utilities = new HashMap<Goal, Float>(goals.size());
 
-            if (actionsWithCosts != null && !actionsWithCosts.isEmpty()) {
-                // Sum the costs already computed by AOStar (using correct simulated world states).
-                var cost = 0.0f;
-                // Extract just the actions for the plan.
-                var actions = new ArrayList<Action<? super T>>(actionsWithCosts.size());
+        for (var goal : goals) {
+            utilities.put(goal, goal.getUtility(worldState));
+        }
 
-                for (var actionWithCost : actionsWithCosts) {
-                    cost += actionWithCost.cost();
-                    actions.add(actionWithCost.action());
-                }
+        // Highest utility first.
+        goals.sort(Comparator.comparingDouble(goal -> -utilities.get(goal)));
+    }
 
-                plans.add(new Plan<>(goal, actions, cost));
+    private List<Plan<T>> createAllPlans(
+        Graph<T> graph,
+        List<Goal> goals,
+        T actor,
+        ReadableWorldState worldState,
+        Agent.Debugger debugger
+    ) {
+        var plans = new ArrayList<Plan<T>>();
+
+        for (var goal : goals) {
+            if (plans.size() >= goalLimit) {
+                break;
+            }
+
+            var cached = goalResultCache == null ? null : goalResultCache.get(goal, worldState);
+            Plan<T> plan;
+
+            if (cached != null) {
+                plan = reuse(graph, goal, cached, actor, worldState);
+            } else {
+                var solver = getSolver(goal);
+                debugger.push("Solver.solve() for goal '" + goal.getName() + "'");
+                // We need to find actions that satisfy the goal's desired conditions.
+                var actionsWithCosts = solver.solve(graph, goal, worldState, actor, Float.POSITIVE_INFINITY);
+                debugger.pop();
+
+                plan = toPlan(goal, actionsWithCosts);
+                remember(goal, plan, solver.isComplete(), worldState);
+            }
+
+            if (plan != null) {
+                plans.add(plan);
             }
         }
 
@@ -57,7 +193,268 @@ public class DefaultPlanFactory {
         return plans;
     }
 
-    private DefaultPlanFactory() {
-        throw new UnsupportedOperationException();
+    private List<Plan<T>> createBestPlan(
+        Graph<T> graph,
+        List<Goal> goals,
+        T actor,
+        ReadableWorldState worldState,
+        Agent.Debugger debugger
+    ) {
+        Plan<T> bestPlan = null;
+        var bestCost = Float.POSITIVE_INFINITY;
+        var searchGoals = new ArrayList<Goal>(goals.size());
+
+        // Reused plans only need their cost computed again, and give the searches a bound right away.
+        for (var goal : goals) {
+            var cached = goalResultCache == null ? null : goalResultCache.get(goal, worldState);
+
+            if (cached == null) {
+                searchGoals.add(goal);
+                continue;
+            }
+
+            var plan = reuse(graph, goal, cached, actor, worldState);
+
+            if (plan != null && plan.getInitialCost() < bestCost) {
+                bestPlan = plan;
+                bestCost = plan.getInitialCost();
+            }
+        }
+
+        var lowerBounds = new float[searchGoals.size()];
+        var order = new ArrayList<Integer>(searchGoals.size());
+
+        for (var i = 0; i < searchGoals.size(); i++) {
+            lowerBounds[i] = AOStar.getLowerBound(graph, searchGoals.get(i), worldState, actor);
+            order.add(i);
+        }
+
+        // Most promising goals first, so that the bound tightens as early as possible.
+        order.sort(Comparator.comparingDouble(i -> lowerBounds[i]));
+
+        for (var i : order) {
+            if (lowerBounds[i] >= bestCost) {
+                // No remaining goal can beat the best plan.
+                break;
+            }
+
+            var goal = searchGoals.get(i);
+            var solver = getSolver(goal);
+            debugger.push("Solver.solve() for goal '" + goal.getName() + "'");
+            var actionsWithCosts = solver.solve(graph, goal, worldState, actor, bestCost);
+            debugger.pop();
+
+            var plan = toPlan(goal, actionsWithCosts);
+            // Only an unbounded search proves that there is no plan at all.
+            remember(goal, plan, solver.isComplete() && bestCost == Float.POSITIVE_INFINITY, worldState);
+
+            if (plan != null && plan.getInitialCost() < bestCost) {
+                bestPlan = plan;
+                bestCost = plan.getInitialCost();
+            }
+        }
+
+        return bestPlan == null ? List.of() : List.of(bestPlan);
+    }
+
+    private Solver<T> getSolver(Goal goal) {
+        return goalSolvers.getOrDefault(goal, solver);
+    }
+
+    /**
+     * Remembers the outcome of a goal's search, where a missing plan is only remembered if the search proved that the
+     * goal has none.
+     */
+    private void remember(
+        Goal goal,
+        @Nullable Plan<T> plan,
+        boolean provesFailure,
+        ReadableWorldState worldState
+    ) {
+        if (goalResultCache == null) {
+            return;
+        }
+
+        if (plan != null) {
+            goalResultCache.putPlan(goal, plan.getActions(), worldState);
+        } else if (provesFailure) {
+            goalResultCache.putFailure(goal, worldState);
+        }
+    }
+
+    /**
+     * Recreates the plan of a cached result, computing the cost of its actions again in the same order as
+     * {@link AOStar} does: from the last action back to the first, each in the state left by the actions after it.
+     */
+    private @Nullable Plan<T> reuse(
+        Graph<T> graph,
+        Goal goal,
+        GoalResultCache.Result<T> cached,
+        T actor,
+        ReadableWorldState worldState
+    ) {
+        var actions = cached.actions();
+
+        if (actions == null) {
+            return null;
+        }
+
+        var compiledGraph = graph.getCompiledGraph();
+        var tickCache = TickCache.of(graph, worldState);
+        var simulatedState = new SimulatedWorldState(worldState);
+        var cost = 0.0f;
+
+        for (var i = actions.size() - 1; i >= 0; i--) {
+            var action = actions.get(i);
+            cost += tickCache.getCost(compiledGraph.getActionId(action), actor, simulatedState);
+            simulatedState.apply(action.getEffectContainer());
+        }
+
+        return new Plan<>(goal, actions, cost);
+    }
+
+    static <T> @Nullable Plan<T> toPlan(Goal goal, @Nullable List<AOStar.ActionWithCost<? super T>> actionsWithCosts) {
+        if (actionsWithCosts == null || actionsWithCosts.isEmpty()) {
+            return null;
+        }
+
+        // Sum the costs already computed by AOStar (using correct simulated world states).
+        var cost = 0.0f;
+        // Extract just the actions for the plan.
+        var actions = new ArrayList<Action<? super T>>(actionsWithCosts.size());
+
+        for (var actionWithCost : actionsWithCosts) {
+            cost += actionWithCost.cost();
+            actions.add(actionWithCost.action());
+        }
+
+        return new Plan<>(goal, actions, cost);
+    }
+
+    /**
+     * Builder for configuring a {@link DefaultPlanFactory}.
+     *
+     * @param <T> The actor type.
+     */
+    public static class Builder<T> {
+
+        private boolean bestPlanOnly;
+
+        private int goalLimit;
+
+        private boolean failureCache;
+
+        private boolean planReuse;
+
+        private Solver<T> solver;
+
+        private final Map<Goal, Solver<T>> goalSolvers;
+
+        private Builder() {
+            this.bestPlanOnly = false;
+            this.goalLimit = Integer.MAX_VALUE;
+            this.failureCache = false;
+            this.planReuse = false;
+            this.solver = Solvers.aStar();
+            this.goalSolvers = new HashMap<>();
+        }
+
+        /**
+         * Sets whether only the cheapest plan is created, instead of a plan for every goal.
+         *
+         * @param bestPlanOnly Whether to only create the cheapest plan.
+         * @return This builder.
+         */
+        public Builder<T> withBestPlanOnly(boolean bestPlanOnly) {
+            this.bestPlanOnly = bestPlanOnly;
+            return this;
+        }
+
+        /**
+         * Sets how many goals, in order of utility, plans are created for.
+         *
+         * @param goalLimit The maximum number of goals to create plans for.
+         * @return This builder.
+         */
+        public Builder<T> withGoalLimit(int goalLimit) {
+            if (goalLimit < 1) {
+                throw new IllegalArgumentException("goalLimit must be at least 1");
+            }
+
+            this.goalLimit = goalLimit;
+            return this;
+        }
+
+        /**
+         * Sets whether goals that had no plan are skipped until the state they depend on changes. Each factory built
+         * with this enabled keeps its own cache, so build one factory per agent. Goals searched by a solver that is
+         * not {@link Solver#isComplete() complete} are never skipped, as their searches do not prove that there is no
+         * plan.
+         *
+         * @param failureCache Whether to cache goals that had no plan.
+         * @return This builder.
+         */
+        public Builder<T> withFailureCache(boolean failureCache) {
+            this.failureCache = failureCache;
+            return this;
+        }
+
+        /**
+         * Sets whether plans are reused until the state they depend on changes, instead of being searched for again on
+         * every replan. This implies failure caching. Each factory built with this enabled keeps its own cache, so
+         * build one factory per agent.
+         *
+         * @param planReuse Whether to reuse plans.
+         * @return This builder.
+         */
+        public Builder<T> withPlanReuse(boolean planReuse) {
+            this.planReuse = planReuse;
+            return this;
+        }
+
+        /**
+         * Sets the solver used to search for each goal's plan.
+         *
+         * @param solver The solver.
+         * @return This builder.
+         */
+        public Builder<T> withSolver(Solver<T> solver) {
+            this.solver = solver;
+            return this;
+        }
+
+        /**
+         * Sets the solver used to search for the given goal's plan, instead of the one set with
+         * {@link #withSolver(Solver)}.
+         *
+         * @param goal   The goal.
+         * @param solver The solver.
+         * @return This builder.
+         */
+        public Builder<T> withGoalSolver(Goal goal, Solver<T> solver) {
+            goalSolvers.put(goal, solver);
+            return this;
+        }
+
+        public Builder<T> apply(UnaryOperator<Builder<T>> unaryOperator) {
+            return unaryOperator.apply(this);
+        }
+
+        /**
+         * Builds the configured plan factory.
+         *
+         * @return The configured plan factory.
+         */
+        public Agent.PlanFactory<T> build() {
+            // Exposed as a plain PlanFactory so that DefaultPlanFactory::create stays an unambiguous method reference.
+            var goalResultCache = failureCache || planReuse ? new GoalResultCache<T>(planReuse) : null;
+            return new DefaultPlanFactory<>(
+                bestPlanOnly,
+                goalLimit,
+                goalResultCache,
+                solver,
+                Map.copyOf(goalSolvers)
+            )::plan;
+        }
     }
 }
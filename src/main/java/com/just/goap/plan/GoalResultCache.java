@@ -0,0 +1,114 @@
+package com.just.goap.plan;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.just.goap.StateKey;
+import com.just.goap.action.Action;
+import com.just.goap.goal.Goal;
+import com.just.goap.graph.Graph;
+import com.just.goap.state.ReadableWorldState;
+
+/**
+ * Remembers the outcome of each goal's last search, along with the values of the keys that outcome depended on.
+ * <p>
+ * Which plans exist for a goal only depends on which conditions hold, so an outcome stays valid until a key read by a
+ * condition in the goal's {@link com.just.goap.graph.GoalSlice} changes value. A goal that had a plan can reuse its
+ * actions, as long as their cost is computed again. Whether a search finds a plan can depend on costs though: a search
+ * bounded by cost, or one by a {@link Solver} that is not {@link Solver#isComplete() complete}, may miss plans that
+ * exist. Callers only remember a goal as having no plan after a complete, unbounded search found none, and a goal
+ * remembered as such keeps having none.
+ *
+ * @param <T> The actor type.
+ */
+final class GoalResultCache<T> {
+
+    private final boolean reusePlans;
+
+    private @Nullable Graph<?> graph;
+
+    private final Map<Goal, Result<T>> results;
+
+    /**
+     * @param reusePlans Whether to remember plans as well as goals that had no plan.
+     */
+    GoalResultCache(boolean reusePlans) {
+        this.reusePlans = reusePlans;
+        this.graph = null;
+        this.results = new HashMap<>();
+    }
+
+    /**
+     * Forgets every outcome if the graph changed since the last call.
+     */
+    void prepare(Graph<?> graph) {
+        if (this.graph != graph) {
+            this.graph = graph;
+            results.clear();
+        }
+    }
+
+    /**
+     * Returns the last outcome for the given goal, or {@code null} if there is none or a key it depended on changed.
+     */
+    @Nullable Result<T> get(Goal goal, ReadableWorldState worldState) {
+        var result = results.get(goal);
+
+        if (result == null) {
+            return null;
+        }
+
+        for (var entry : result.values().entrySet()) {
+            if (!Objects.equals(worldState.getOrNull(entry.getKey()), entry.getValue())) {
+                results.remove(goal);
+                return null;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Remembers that the given goal had no plan.
+     */
+    void putFailure(Goal goal, ReadableWorldState worldState) {
+        put(goal, null, worldState);
+    }
+
+    /**
+     * Remembers the actions of the plan found for the given goal, if plans are reused.
+     */
+    void putPlan(Goal goal, List<Action<? super T>> actions, ReadableWorldState worldState) {
+        if (reusePlans) {
+            put(goal, actions, worldState);
+        }
+    }
+
+    private void put(Goal goal, @Nullable List<Action<? super T>> actions, ReadableWorldState worldState) {
+        var slice = graph == null ? null : graph.getCompiledGraph().getGoalSlice(goal);
+
+        if (slice == null) {
+            return;
+        }
+
+        var values = new HashMap<StateKey<?>, @Nullable Object>();
+
+        for (var key : slice.getConditionKeys()) {
+            values.put(key, worldState.getOrNull(key));
+        }
+
+        results.put(goal, new Result<>(actions, values));
+    }
+
+    /**
+     * @param actions The actions of the plan, or {@code null} if the goal had no plan.
+     */
+    record Result<T>(
+        @Nullable List<Action<? super T>> actions,
+        Map<StateKey<?>, @Nullable Object> values
+    ) {}
+}
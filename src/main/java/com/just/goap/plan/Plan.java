@@ -7,9 +7,11 @@ import java.util.stream.Collectors;
 import com.just.core.functional.function.Lazy;
 import com.just.goap.Agent;
 import com.just.goap.action.Action;
+import com.just.goap.event.PlanUpdateEvent;
 import com.just.goap.goal.Goal;
 import com.just.goap.state.Blackboard;
 import com.just.goap.state.ReadableWorldState;
+import com.just.goap.state.TickCache;
 
 public class Plan<T> {
 
@@ -51,8 +53,17 @@ public class Plan<T> {
     }
 
     public State update(Agent<T> agent, T actor, ReadableWorldState currentState, ReadableWorldState previousState) {
+        var event = new PlanUpdateEvent();
+        event.begin();
+
         var state = updatePlan(agent, actor, currentState, previousState);
         tick++;
+
+        var action = currentActionIndex < actions.size()
+            ? actions.get(currentActionIndex).getName()
+            : null;
+
+        event.complete(goal.getName(), action, actionTick, state);
         return state;
     }
 
@@ -96,7 +107,7 @@ public class Plan<T> {
 
         for (var i = currentActionIndex; i < actions.size(); i++) {
             var action = actions.get(i);
-            remainingCost += action.getCost(actor, worldState);
+            remainingCost += TickCache.getCost(action, actor, worldState);
         }
 
         return remainingCost;
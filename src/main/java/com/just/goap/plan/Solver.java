@@ -0,0 +1,48 @@
+package com.just.goap.plan;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+import com.just.goap.AOStar;
+import com.just.goap.goal.Goal;
+import com.just.goap.graph.Graph;
+import com.just.goap.state.ReadableWorldState;
+
+/**
+ * Searches for the actions that achieve a goal. See {@link Solvers} for the built-in solvers.
+ *
+ * @param <T> The actor type.
+ */
+@FunctionalInterface
+public interface Solver<T> {
+
+    /**
+     * Searches for a plan for the given goal.
+     *
+     * @param graph        The graph to plan with.
+     * @param goal         The goal to plan for.
+     * @param worldState   The current world state.
+     * @param actor        The actor to plan for.
+     * @param costBound    Only plans cheaper than this are of interest, {@link Float#POSITIVE_INFINITY} if unbounded.
+     * @return The actions of the plan with their costs, or {@code null} if no plan was found.
+     */
+    @Nullable List<AOStar.ActionWithCost<? super T>> solve(
+        Graph<T> graph,
+        Goal goal,
+        ReadableWorldState worldState,
+        T actor,
+        float costBound
+    );
+
+    /**
+     * Returns whether this solver only finds no plan when there is no plan cheaper than the cost bound. Solvers that
+     * drop nodes or stop at a budget are not complete, and goals they find no plan for are never remembered as having
+     * none, see {@link DefaultPlanFactory.Builder#withFailureCache(boolean)}.
+     *
+     * @return Whether finding no plan proves that there is none.
+     */
+    default boolean isComplete() {
+        return true;
+    }
+}
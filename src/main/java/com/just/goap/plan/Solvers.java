@@ -0,0 +1,148 @@
+package com.just.goap.plan;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+import com.just.goap.AOStar;
+import com.just.goap.BeamSolver;
+import com.just.goap.BidirectionalSolver;
+import com.just.goap.IterativeDeepeningSolver;
+import com.just.goap.ParallelSolver;
+import com.just.goap.SearchOptions;
+import com.just.goap.goal.Goal;
+import com.just.goap.graph.Graph;
+import com.just.goap.state.ReadableWorldState;
+
+public class Solvers {
+
+    /**
+     * Plain A*, which finds the cheapest plan the heuristic leads it to. This is the default.
+     */
+    public static <T> Solver<T> aStar() {
+        return AOStar::solve;
+    }
+
+    /**
+     * A* tuned with the given search options. The solver is not {@link Solver#isComplete() complete} if the options set
+     * an expansion budget, see {@link SearchOptions.Builder#withAnytime}.
+     */
+    public static <T> Solver<T> aStar(SearchOptions options) {
+        var isComplete = options.getExpansionBudget() == Integer.MAX_VALUE;
+
+        return new Solver<>() {
+
+            @Override
+            public @Nullable List<AOStar.ActionWithCost<? super T>> solve(
+                Graph<T> graph,
+                Goal goal,
+                ReadableWorldState worldState,
+                T actor,
+                float costBound
+            ) {
+                return AOStar.solve(graph, goal, worldState, actor, costBound, options);
+            }
+
+            @Override
+            public boolean isComplete() {
+                return isComplete;
+            }
+        };
+    }
+
+    /**
+     * Weighted A*, which stops at the first plan found while trusting the heuristic {@code weight} times more than
+     * plain A* does. Higher weights expand fewer nodes but may settle for more expensive plans.
+     *
+     * @param weight The weight of the heuristic, at least {@code 1}.
+     */
+    public static <T> Solver<T> weighted(float weight) {
+        return aStar(SearchOptions.builder().withWeight(weight).build());
+    }
+
+    /**
+     * Anytime repairing A* (ARA*), which finds a plan with weighted A* first and then keeps improving it with lower
+     * weights until {@code expansionBudget} nodes were expanded or the weight reached {@code 1}. As a search that stops
+     * at a budget, it is not {@link Solver#isComplete() complete}.
+     *
+     * @param initialWeight   The weight of the heuristic for the first plan, at least {@code 1}.
+     * @param weightStep      How much to lower the weight by after each plan, above {@code 0}.
+     * @param expansionBudget The number of expansions after which the best plan so far is returned.
+     */
+    public static <T> Solver<T> anytime(float initialWeight, float weightStep, int expansionBudget) {
+        var options = SearchOptions.builder()
+            .withWeight(initialWeight)
+            .withAnytime(weightStep, expansionBudget)
+            .build();
+
+        return aStar(options);
+    }
+
+    /**
+     * Iterative deepening A* (IDA*), which finds plans about as good as plain A* does with memory that only grows with
+     * the length of the plan, at the price of expanding nodes several times. Plans may cost up to 1% more, see
+     * {@link IterativeDeepeningSolver}. Use this for very large graphs where the open list of plain A* grows too large.
+     */
+    public static <T> Solver<T> iterativeDeepening() {
+        return new IterativeDeepeningSolver<>();
+    }
+
+    /**
+     * Beam search, which only keeps the {@code beamWidth} most promising nodes at each plan step and gives up after
+     * {@code maxDepth} steps. Time and memory per search are bounded by the beam width and depth, see
+     * {@link BeamSolver}, but plans may be more expensive than necessary and some goals may not find a plan at all.
+     * Use this where plan quality barely matters.
+     *
+     * @param beamWidth The number of nodes kept per plan step, at least {@code 1}.
+     * @param maxDepth  The maximum number of actions in a plan, at least {@code 1}.
+     */
+    public static <T> Solver<T> beam(int beamWidth, int maxDepth) {
+        if (beamWidth < 1) {
+            throw new IllegalArgumentException("beamWidth must be at least 1");
+        }
+
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth must be at least 1");
+        }
+
+        return new BeamSolver<>(beamWidth, maxDepth);
+    }
+
+    /**
+     * Bidirectional search, which searches forward from the current world state through the actions whose
+     * preconditions hold, as well as backward from the goal, and joins the two halves where they meet. Use this for
+     * goals where the current world state rules out most actions, as the forward half then has few options to try.
+     * Select it for such goals only, see {@link DefaultPlanFactory.Builder#withGoalSolver}. As the search may stop at
+     * {@code maxExpansions} before both halves meet, it is not {@link Solver#isComplete() complete}.
+     *
+     * @param maxExpansions The number of expansions after which the cheapest plan so far is returned, at least
+     *                      {@code 1}.
+     */
+    public static <T> Solver<T> bidirectional(int maxExpansions) {
+        if (maxExpansions < 1) {
+            throw new IllegalArgumentException("maxExpansions must be at least 1");
+        }
+
+        return new BidirectionalSolver<>(maxExpansions);
+    }
+
+    /**
+     * Hash distributed A* (HDA*), which spreads each search over {@code threads} threads and drops states reached more
+     * cheaply before. Plans are as cheap as those of plain A*, sometimes cheaper. Starting the threads and passing
+     * nodes between them has a cost, so this only pays off for goals whose searches expand thousands of nodes. Cost
+     * callbacks that are not sensed-only must be thread-safe, see {@link ParallelSolver}.
+     *
+     * @param threads The number of threads per search, including the calling thread, at least {@code 1}.
+     */
+    public static <T> Solver<T> parallel(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+
+        return new ParallelSolver<>(threads);
+    }
+
+    private Solvers() {
+        throw new UnsupportedOperationException();
+    }
+}
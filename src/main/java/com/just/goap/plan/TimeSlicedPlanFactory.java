@@ -0,0 +1,200 @@
+package com.just.goap.plan;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import com.just.goap.AOStar;
+import com.just.goap.Agent;
+import com.just.goap.SearchOptions;
+import com.just.goap.SearchWorkspace;
+import com.just.goap.goal.Goal;
+import com.just.goap.graph.Graph;
+import com.just.goap.state.SensingWorldState;
+
+/**
+ * A {@link Agent.PlanFactory} that spreads planning over as many ticks as needed, expanding at most a fixed number of
+ * nodes per tick.
+ * <p>
+ * Like {@link DefaultPlanFactory}, it plans for every goal whose preconditions are satisfied, one goal after another,
+ * and returns the plans sorted by cost (lowest first) once every goal was searched. Until then it returns no plans and
+ * reports itself as pending, so the agent resumes it on the next tick while its current plans keep executing.
+ * <p>
+ * The factory keeps its searches between ticks, so every agent needs its own instance.
+ * <p>
+ * Example usage:
+ *
+ * <pre>{@code
+ *
+ * var agent = Agent.<Entity>builder(entity)
+ *     .withPlanFactory(TimeSlicedPlanFactory.<Entity>builder().withExpansionsPerTick(200).build())
+ *     .build();
+ * }</pre>
+ *
+ * @param <T> The actor type.
+ */
+public class TimeSlicedPlanFactory<T> implements Agent.PlanFactory<T> {
+
+    /**
+     * Creates a new builder for configuring a TimeSlicedPlanFactory.
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    private final int expansionsPerTick;
+
+    private final SearchOptions searchOptions;
+
+    // Searches run one at a time and outlive the tick, so they cannot share the workspace of the thread.
+    private final SearchWorkspace workspace;
+
+    private final ArrayDeque<Goal> pendingGoals;
+
+    private final List<Plan<T>> plans;
+
+    private @Nullable Graph<T> graph;
+
+    private @Nullable Goal currentGoal;
+
+    private AOStar.@Nullable Search<T> currentSearch;
+
+    private TimeSlicedPlanFactory(int expansionsPerTick, SearchOptions searchOptions) {
+        this.expansionsPerTick = expansionsPerTick;
+        this.searchOptions = searchOptions;
+        this.workspace = new SearchWorkspace();
+        this.pendingGoals = new ArrayDeque<>();
+        this.plans = new ArrayList<>();
+        this.graph = null;
+        this.currentGoal = null;
+        this.currentSearch = null;
+    }
+
+    @Override
+    public List<Plan<T>> create(Graph<T> graph, T actor, SensingWorldState<T> worldState, Agent.Debugger debugger) {
+        if (this.graph != graph || !isPending()) {
+            // Searches for another graph are of no use anymore.
+            start(graph, worldState, debugger);
+        }
+
+        var remainingExpansions = expansionsPerTick;
+
+        while (remainingExpansions > 0) {
+            if (currentSearch == null) {
+                currentGoal = pendingGoals.poll();
+
+                if (currentGoal == null) {
+                    break;
+                }
+
+                currentSearch = AOStar.search(graph, currentGoal, worldState, actor, searchOptions, workspace);
+            }
+
+            debugger.push("Search.step() for goal '" + currentGoal.getName() + "'");
+            var expansionsBefore = currentSearch.getExpansions();
+            var done = currentSearch.step(remainingExpansions);
+            remainingExpansions -= currentSearch.getExpansions() - expansionsBefore;
+            debugger.pop();
+
+            if (done) {
+                var plan = DefaultPlanFactory.<T>toPlan(currentGoal, currentSearch.getPlan());
+
+                if (plan != null) {
+                    plans.add(plan);
+                }
+
+                currentGoal = null;
+                currentSearch = null;
+            }
+        }
+
+        if (isPending()) {
+            return List.of();
+        }
+
+        var result = new ArrayList<>(plans);
+        plans.clear();
+
+        // Sort by cost (lowest first).
+        result.sort(Comparator.comparingDouble(Plan::getInitialCost));
+
+        return result;
+    }
+
+    @Override
+    public boolean isPending() {
+        return currentSearch != null || !pendingGoals.isEmpty();
+    }
+
+    private void start(Graph<T> graph, SensingWorldState<T> worldState, Agent.Debugger debugger) {
+        this.graph = graph;
+        this.currentGoal = null;
+        this.currentSearch = null;
+        pendingGoals.clear();
+        plans.clear();
+
+        debugger.push("Goal precondition check");
+        pendingGoals.addAll(graph.getCompiledGraph().getGoalSelector().select(worldState));
+        debugger.pop();
+    }
+
+    /**
+     * Builder for configuring a {@link TimeSlicedPlanFactory}.
+     *
+     * @param <T> The actor type.
+     */
+    public static class Builder<T> {
+
+        private int expansionsPerTick;
+
+        private SearchOptions searchOptions;
+
+        private Builder() {
+            this.expansionsPerTick = 100;
+            this.searchOptions = SearchOptions.DEFAULT;
+        }
+
+        /**
+         * Sets the maximum number of nodes expanded per tick, across all goals.
+         *
+         * @param expansionsPerTick The maximum number of expansions per tick.
+         * @return This builder.
+         */
+        public Builder<T> withExpansionsPerTick(int expansionsPerTick) {
+            if (expansionsPerTick < 1) {
+                throw new IllegalArgumentException("expansionsPerTick must be at least 1");
+            }
+
+            this.expansionsPerTick = expansionsPerTick;
+            return this;
+        }
+
+        /**
+         * Sets the options of each goal's search.
+         *
+         * @param searchOptions The search options.
+         * @return This builder.
+         */
+        public Builder<T> withSearchOptions(SearchOptions searchOptions) {
+            this.searchOptions = searchOptions;
+            return this;
+        }
+
+        public Builder<T> apply(UnaryOperator<Builder<T>> unaryOperator) {
+            return unaryOperator.apply(this);
+        }
+
+        /**
+         * Builds the configured plan factory.
+         *
+         * @return The configured plan factory.
+         */
+        public TimeSlicedPlanFactory<T> build() {
+            return new TimeSlicedPlanFactory<>(expansionsPerTick, searchOptions);
+        }
+    }
+}
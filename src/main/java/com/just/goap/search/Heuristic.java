@@ -0,0 +1,64 @@
+package com.just.goap.search;
+
+import com.just.goap.graph.CompiledGraph;
+import com.just.goap.state.ReadableWorldState;
+import com.just.goap.state.TickCache;
+
+/**
+ * Estimates the cost of satisfying the unsatisfied conditions of a search node, which orders the open list of a
+ * best-first search. See {@link Heuristics} for the built-in heuristics.
+ * <p>
+ * Conditions are identified by their id in the {@link CompiledGraph}. Ids at or above
+ * {@link CompiledGraph#getConditionCount()} are conditions that are not part of the graph, which no action satisfies.
+ * <p>
+ * A heuristic serves one search at a time and may keep state between calls, such as tables computed for the current
+ * search.
+ */
+public interface Heuristic {
+
+    /**
+     * Called at the start of every search, before the first estimate.
+     *
+     * @param compiledGraph     The graph searched.
+     * @param tickCache         The tick cache of the search.
+     * @param actor             The actor planned for.
+     * @param currentWorldState The world state the search starts from.
+     */
+    default <T> void prepare(
+        CompiledGraph<T> compiledGraph,
+        TickCache<T> tickCache,
+        T actor,
+        ReadableWorldState currentWorldState
+    ) {}
+
+    /**
+     * Called once a search is done with a heuristic that is kept for later searches, so that it lets go of the world
+     * state, actor and anything else of the search it no longer needs. What it computed that later searches can use,
+     * such as tables sized for the graph, may be kept.
+     */
+    default void release() {}
+
+    /**
+     * Estimates the cost of satisfying the conditions {@code conditionIds[from, to)}.
+     *
+     * @param worldState The simulated world state of the node.
+     * @return The estimate, or {@link Float#MAX_VALUE} if no action can satisfy one of the conditions.
+     */
+    <T> float estimate(
+        int[] conditionIds,
+        int from,
+        int to,
+        CompiledGraph<T> compiledGraph,
+        TickCache<T> tickCache,
+        T actor,
+        ReadableWorldState worldState
+    );
+
+    /**
+     * Creates heuristics, one per search workspace.
+     */
+    interface Factory {
+
+        Heuristic create();
+    }
+}
@@ -0,0 +1,37 @@
+package com.just.goap.search;
+
+import com.just.goap.search.impl.AdditiveHeuristic;
+import com.just.goap.search.impl.PatternDatabaseHeuristic;
+
+public class Heuristics {
+
+    /**
+     * Sums the cost of the cheapest action satisfying each unsatisfied condition. This is the default.
+     */
+    public static Heuristic.Factory additive() {
+        return () -> AdditiveHeuristic.INSTANCE;
+    }
+
+    /**
+     * Pattern databases, which split the conditions of the graph into patterns of up to {@code patternSize}
+     * conditions and look up the cost of satisfying the unsatisfied conditions of each pattern on its own, counting the
+     * preconditions the satisfying actions bring along. This estimates deep plans far better than {@link #additive()},
+     * which only counts the last action of every chain, and rarely overestimates, see {@link PatternDatabaseHeuristic}
+     * for when it can. The patterns are computed once per graph, while each pattern costs a table of
+     * {@code 2^patternSize} entries, computed again in every search that needs it, so {@code 4} to {@code 8} is a good
+     * range.
+     *
+     * @param patternSize The maximum number of conditions per pattern, between {@code 1} and {@code 16}.
+     */
+    public static Heuristic.Factory patternDatabase(int patternSize) {
+        if (patternSize < 1 || patternSize > 16) {
+            throw new IllegalArgumentException("patternSize must be between 1 and 16");
+        }
+
+        return PatternDatabaseHeuristic.factory(patternSize);
+    }
+
+    private Heuristics() {
+        throw new UnsupportedOperationException();
+    }
+}
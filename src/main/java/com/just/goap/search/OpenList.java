@@ -0,0 +1,53 @@
+package com.just.goap.search;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The open list of a best-first search: a priority queue of nodes ordered by a priority (such as the f cost), with ties
+ * broken by a second key. See {@link OpenLists} for the built-in open lists.
+ *
+ * @param <E> The element type.
+ */
+public interface OpenList<E> {
+
+    /**
+     * Adds an element.
+     *
+     * @param element    The element.
+     * @param priority   The priority, lower is taken first.
+     * @param tieBreaker Orders elements with the same priority, lower is taken first.
+     */
+    void add(E element, float priority, float tieBreaker);
+
+    /**
+     * Removes and returns the element with the lowest priority.
+     *
+     * @return The element, or {@code null} if the open list is empty.
+     */
+    @Nullable E poll();
+
+    /**
+     * Returns the priority of the element {@link #poll()} would return, or {@link Float#POSITIVE_INFINITY} if the open
+     * list is empty. Open lists that group similar priorities may return the lowest priority of the group instead.
+     */
+    float peekPriority();
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes all elements, keeping any allocated storage for reuse.
+     */
+    void clear();
+
+    /**
+     * Creates open lists, one per search.
+     */
+    interface Factory {
+
+        <E> OpenList<E> create();
+    }
+}
@@ -0,0 +1,60 @@
+package com.just.goap.search;
+
+import com.just.goap.search.impl.BucketOpenList;
+import com.just.goap.search.impl.DAryHeapOpenList;
+import com.just.goap.search.impl.PriorityQueueOpenList;
+
+public class OpenLists {
+
+    /**
+     * An open list backed by a {@link java.util.PriorityQueue}. This is the default.
+     */
+    public static OpenList.Factory priorityQueue() {
+        return PriorityQueueOpenList::new;
+    }
+
+    /**
+     * A d-ary heap over primitive arrays, which allocates nothing per element. A higher arity makes the heap flatter,
+     * which speeds up adding elements at the price of slower removal; {@code 4} is a good default.
+     *
+     * @param arity The number of children per heap node, at least {@code 2}.
+     */
+    public static OpenList.Factory dAryHeap(int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity must be at least 2");
+        }
+
+        return new OpenList.Factory() {
+
+            @Override
+            public <E> OpenList<E> create() {
+                return new DAryHeapOpenList<>(arity);
+            }
+        };
+    }
+
+    /**
+     * A bucket queue, which rounds priorities down to a multiple of {@code bucketWidth} and treats elements in the same
+     * bucket as equally good, ordering them by tie breaker only. Adding and removing elements costs next to nothing
+     * when action costs are multiples of the bucket width (or when small differences in cost do not matter).
+     *
+     * @param bucketWidth The width of a bucket, above {@code 0}.
+     */
+    public static OpenList.Factory buckets(float bucketWidth) {
+        if (!(bucketWidth > 0.0f)) {
+            throw new IllegalArgumentException("bucketWidth must be greater than 0");
+        }
+
+        return new OpenList.Factory() {
+
+            @Override
+            public <E> OpenList<E> create() {
+                return new BucketOpenList<>(bucketWidth);
+            }
+        };
+    }
+
+    private OpenLists() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,55 @@
+package com.just.goap.search.impl;
+
+import com.just.goap.graph.CompiledGraph;
+import com.just.goap.search.Heuristic;
+import com.just.goap.state.ReadableWorldState;
+import com.just.goap.state.TickCache;
+
+/**
+ * A {@link Heuristic} that sums the cost of the cheapest action satisfying each condition. It keeps no state, so a
+ * single instance serves every search.
+ */
+public final class AdditiveHeuristic implements Heuristic {
+
+    public static final AdditiveHeuristic INSTANCE = new AdditiveHeuristic();
+
+    private AdditiveHeuristic() {}
+
+    @Override
+    public <T> float estimate(
+        int[] conditionIds,
+        int from,
+        int to,
+        CompiledGraph<T> compiledGraph,
+        TickCache<T> tickCache,
+        T actor,
+        ReadableWorldState worldState
+    ) {
+        var h = 0.0f;
+
+        for (var c = from; c < to; c++) {
+            var conditionId = conditionIds[c];
+            var start = compiledGraph.getSatisfierStart(conditionId);
+            var end = compiledGraph.getSatisfierEnd(conditionId);
+
+            if (start == end) {
+                // No known action can satisfy this condition.
+                return Float.MAX_VALUE;
+            }
+
+            var minCost = Float.MAX_VALUE;
+
+            for (var i = start; i < end; i++) {
+                var cost = tickCache.getCost(compiledGraph.getSatisfier(i), actor, worldState);
+
+                if (cost < minCost) {
+                    minCost = cost;
+                }
+            }
+
+            h += minCost;
+        }
+
+        return h;
+    }
+}
@@ -0,0 +1,163 @@
+package com.just.goap.search.impl;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+import com.just.goap.search.OpenList;
+
+/**
+ * An {@link OpenList} that rounds priorities down to a multiple of a bucket width. Elements in the same bucket are
+ * treated as equally good and ordered by tie breaker only, so finding the next element is a matter of finding the
+ * first non-empty bucket.
+ * <p>
+ * Priorities beyond the last bucket (such as those of nodes with an unsatisfiable condition) go to a separate heap and
+ * are only taken once every bucket is empty.
+ * <p>
+ * A bucket's heap is only created once an element lands in it, and kept for later searches after that. The list
+ * tracks the range of buckets that may hold elements, so neither finding the next element nor {@link #clear()}
+ * walks past the highest bucket in use.
+ *
+ * @param <E> The element type.
+ */
+public class BucketOpenList<E> implements OpenList<E> {
+
+    private static final int MAX_BUCKETS = 1 << 16;
+
+    private static final int ARITY = 4;
+
+    private final float bucketWidth;
+
+    // Indexed by bucket, null for buckets that never had an element.
+    private @Nullable DAryHeapOpenList<E>[] buckets;
+
+    private final DAryHeapOpenList<E> overflow;
+
+    // No bucket before this one has elements.
+    private int firstBucket;
+
+    // No bucket after this one has elements, -1 while every bucket is empty.
+    private int lastBucket;
+
+    private int size;
+
+    public BucketOpenList(float bucketWidth) {
+        if (!(bucketWidth > 0.0f)) {
+            throw new IllegalArgumentException("bucketWidth must be greater than 0");
+        }
+
+        this.bucketWidth = bucketWidth;
+        this.buckets = newBuckets(0);
+        this.overflow = new DAryHeapOpenList<>(ARITY);
+        this.firstBucket = 0;
+        this.lastBucket = -1;
+        this.size = 0;
+    }
+
+    @Override
+    public void add(E element, float priority, float tieBreaker) {
+        size++;
+        var scaled = priority / bucketWidth;
+
+        // Also catches NaN.
+        if (!(scaled < MAX_BUCKETS)) {
+            overflow.add(element, priority, tieBreaker);
+            return;
+        }
+
+        var index = Math.max(0, (int) scaled);
+
+        var bucket = bucket(index);
+
+        // Within a bucket, the tie breaker comes first.
+        bucket.add(element, tieBreaker, priority);
+
+        if (lastBucket < 0) {
+            firstBucket = index;
+            lastBucket = index;
+        } else {
+            firstBucket = Math.min(firstBucket, index);
+            lastBucket = Math.max(lastBucket, index);
+        }
+    }
+
+    @Override
+    public @Nullable E poll() {
+        if (size == 0) {
+            return null;
+        }
+
+        size--;
+        var index = nextBucket();
+        return index <= lastBucket ? buckets[index].poll() : overflow.poll();
+    }
+
+    @Override
+    public float peekPriority() {
+        if (size == 0) {
+            return Float.POSITIVE_INFINITY;
+        }
+
+        var index = nextBucket();
+        return index <= lastBucket ? index * bucketWidth : overflow.peekPriority();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (var i = firstBucket; i <= lastBucket; i++) {
+            var bucket = buckets[i];
+
+            if (bucket != null) {
+                bucket.clear();
+            }
+        }
+
+        overflow.clear();
+        firstBucket = 0;
+        lastBucket = -1;
+        size = 0;
+    }
+
+    /**
+     * Returns the first bucket with elements, or a value past {@link #lastBucket} if only the overflow heap has any.
+     */
+    private int nextBucket() {
+        while (firstBucket <= lastBucket && (buckets[firstBucket] == null || buckets[firstBucket].isEmpty())) {
+            firstBucket++;
+        }
+
+        if (firstBucket > lastBucket) {
+            // Every bucket is empty, so the next element starts a new range.
+            firstBucket = 0;
+            lastBucket = -1;
+            return 0;
+        }
+
+        return firstBucket;
+    }
+
+    private DAryHeapOpenList<E> bucket(int index) {
+        if (index >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, Math.min(MAX_BUCKETS, Math.max(index + 1, buckets.length * 2)));
+        }
+
+        var bucket = buckets[index];
+
+        if (bucket == null) {
+            bucket = new DAryHeapOpenList<>(ARITY);
+            buckets[index] = bucket;
+        }
+
+        return bucket;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> @Nullable DAryHeapOpenList<E>[] newBuckets(int length) {
+        return (DAryHeapOpenList<E>[]) new DAryHeapOpenList<?>[length];
+    }
+}
@@ -0,0 +1,140 @@
+package com.just.goap.search.impl;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+import com.just.goap.search.OpenList;
+
+/**
+ * An {@link OpenList} implemented as a d-ary heap over parallel primitive arrays, so that adding an element allocates
+ * nothing once the arrays are large enough.
+ *
+ * @param <E> The element type.
+ */
+public class DAryHeapOpenList<E> implements OpenList<E> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int arity;
+
+    private Object[] elements;
+
+    private float[] priorities;
+
+    private float[] tieBreakers;
+
+    private int size;
+
+    public DAryHeapOpenList(int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity must be at least 2");
+        }
+
+        this.arity = arity;
+        this.elements = new Object[INITIAL_CAPACITY];
+        this.priorities = new float[INITIAL_CAPACITY];
+        this.tieBreakers = new float[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    @Override
+    public void add(E element, float priority, float tieBreaker) {
+        if (size == elements.length) {
+            var capacity = size + (size >> 1);
+            elements = Arrays.copyOf(elements, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+            tieBreakers = Arrays.copyOf(tieBreakers, capacity);
+        }
+
+        siftUp(size++, element, priority, tieBreaker);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable E poll() {
+        if (size == 0) {
+            return null;
+        }
+
+        var top = (E) elements[0];
+        var last = --size;
+
+        if (last > 0) {
+            siftDown(0, elements[last], priorities[last], tieBreakers[last]);
+        }
+
+        elements[last] = null;
+        return top;
+    }
+
+    @Override
+    public float peekPriority() {
+        return size == 0 ? Float.POSITIVE_INFINITY : priorities[0];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+    }
+
+    private void siftUp(int index, Object element, float priority, float tieBreaker) {
+        while (index > 0) {
+            var parent = (index - 1) / arity;
+
+            if (!isBefore(priority, tieBreaker, priorities[parent], tieBreakers[parent])) {
+                break;
+            }
+
+            set(index, elements[parent], priorities[parent], tieBreakers[parent]);
+            index = parent;
+        }
+
+        set(index, element, priority, tieBreaker);
+    }
+
+    private void siftDown(int index, Object element, float priority, float tieBreaker) {
+        while (true) {
+            var firstChild = index * arity + 1;
+
+            if (firstChild >= size) {
+                break;
+            }
+
+            // Find the smallest child.
+            var best = firstChild;
+            var lastChild = Math.min(firstChild + arity, size);
+
+            for (var child = firstChild + 1; child < lastChild; child++) {
+                if (isBefore(priorities[child], tieBreakers[child], priorities[best], tieBreakers[best])) {
+                    best = child;
+                }
+            }
+
+            if (!isBefore(priorities[best], tieBreakers[best], priority, tieBreaker)) {
+                break;
+            }
+
+            set(index, elements[best], priorities[best], tieBreakers[best]);
+            index = best;
+        }
+
+        set(index, element, priority, tieBreaker);
+    }
+
+    private void set(int index, Object element, float priority, float tieBreaker) {
+        elements[index] = element;
+        priorities[index] = priority;
+        tieBreakers[index] = tieBreaker;
+    }
+
+    private static boolean isBefore(float priority, float tieBreaker, float otherPriority, float otherTieBreaker) {
+        return priority < otherPriority || (priority == otherPriority && tieBreaker < otherTieBreaker);
+    }
+}
@@ -0,0 +1,436 @@
+package com.just.goap.search.impl;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+import com.just.goap.graph.CompiledGraph;
+import com.just.goap.search.Heuristic;
+import com.just.goap.state.ReadableWorldState;
+import com.just.goap.state.TickCache;
+
+/**
+ * A {@link Heuristic} backed by pattern databases. The conditions of the graph are split into patterns of at most
+ * {@code patternSize} conditions, grouping each condition with the preconditions of the actions that satisfy it. For
+ * every pattern, the search is projected onto the pattern's conditions: a state of the projection is the set of the
+ * pattern's conditions still unsatisfied, and an action satisfying one of them replaces the ones it satisfies with its
+ * unmet preconditions from the pattern. A table holds the cost of the cheapest way to satisfy every subset of the
+ * pattern within the projection, and a node is estimated as the sum of the table entries of its unsatisfied
+ * conditions, pattern by pattern.
+ * <p>
+ * An action that satisfies conditions of several patterns is used by each of their projections, so its cost is split
+ * evenly between them rather than counted in full by each. A plan then costs at least the sum of what its actions cost
+ * in each projection, so the estimate never exceeds the cost of the cheapest plan whose actions each find their
+ * preconditions met by the world state or by earlier actions. It may still overestimate in two cases: when action
+ * costs depend on the simulated values a search adds to the world state, and for plans the backward search accepts
+ * because a condition is met by the effects of a later action, which a projection never counts.
+ * <p>
+ * Unlike {@link AdditiveHeuristic}, a pattern counts the preconditions that an action brings along, so chains of
+ * actions are estimated at their full cost rather than at the cost of their last action. With patterns of a single
+ * condition, it estimates like {@link AdditiveHeuristic}, except that it skips actions needing the very condition they
+ * satisfy and splits the cost of actions satisfying several conditions.
+ * <p>
+ * The patterns of a graph only depend on the graph, so they are computed once per compiled graph, the first time it
+ * is searched, and shared by every heuristic of the same {@link #factory(int)}. The tables are not kept between
+ * searches: every search computes the tables it needs again, the first time it needs them, from the action costs and
+ * unmet preconditions of the world state it starts from. The arrays holding them are kept, so that searches of the
+ * same graph do not allocate.
+ */
+public final class PatternDatabaseHeuristic implements Heuristic {
+
+    /**
+     * Returns a factory whose heuristics share the patterns of every graph they search.
+     *
+     * @param patternSize The maximum number of conditions per pattern, between {@code 1} and {@code 16}.
+     */
+    public static Heuristic.Factory factory(int patternSize) {
+        var patternCache = new PatternCache(patternSize);
+        return () -> new PatternDatabaseHeuristic(patternCache);
+    }
+
+    private final PatternCache patternCache;
+
+    private @Nullable CompiledGraph<?> compiledGraph;
+
+    private @Nullable Patterns patterns;
+
+    private @Nullable ReadableWorldState currentWorldState;
+
+    private float[] tables;
+
+    // A table is only valid if its stamp equals the current generation, which makes dropping every table O(1).
+    private int[] tableStamps;
+
+    private int generation;
+
+    private float[] actionCosts;
+
+    private int[] unmetPreconditionMasks;
+
+    // The unsatisfied conditions of the node being estimated, pattern by pattern.
+    private int[] nodeMasks;
+
+    private int[] nodePatterns;
+
+    /**
+     * Creates a heuristic with patterns of its own, see {@link #factory(int)} to share them.
+     */
+    public PatternDatabaseHeuristic(int patternSize) {
+        this(new PatternCache(patternSize));
+    }
+
+    private PatternDatabaseHeuristic(PatternCache patternCache) {
+        this.patternCache = patternCache;
+        this.compiledGraph = null;
+        this.patterns = null;
+        this.currentWorldState = null;
+        this.tables = new float[0];
+        this.tableStamps = new int[0];
+        this.generation = 0;
+        this.actionCosts = new float[0];
+        this.unmetPreconditionMasks = new int[0];
+        this.nodeMasks = new int[0];
+        this.nodePatterns = new int[0];
+    }
+
+    @Override
+    public <T> void prepare(
+        CompiledGraph<T> compiledGraph,
+        TickCache<T> tickCache,
+        T actor,
+        ReadableWorldState currentWorldState
+    ) {
+        var patterns = patternCache.get(compiledGraph);
+
+        if (this.patterns != patterns) {
+            this.patterns = patterns;
+            this.tables = new float[patterns.tableOffsets[patterns.count]];
+            this.tableStamps = new int[patterns.count];
+            this.generation = 0;
+            this.actionCosts = new float[patterns.actionIds.length];
+            this.unmetPreconditionMasks = new int[patterns.actionIds.length];
+            this.nodeMasks = new int[patterns.count];
+            this.nodePatterns = new int[patterns.count];
+        }
+
+        this.compiledGraph = compiledGraph;
+        this.currentWorldState = currentWorldState;
+        generation++;
+    }
+
+    @Override
+    public void release() {
+        this.compiledGraph = null;
+        this.currentWorldState = null;
+    }
+
+    @Override
+    public <T> float estimate(
+        int[] conditionIds,
+        int from,
+        int to,
+        CompiledGraph<T> compiledGraph,
+        TickCache<T> tickCache,
+        T actor,
+        ReadableWorldState worldState
+    ) {
+        var patterns = this.patterns;
+
+        if (patterns == null || this.compiledGraph != compiledGraph) {
+            throw new IllegalStateException("prepare must be called for the graph before estimating");
+        }
+
+        var nodePatternCount = 0;
+
+        for (var c = from; c < to; c++) {
+            var conditionId = conditionIds[c];
+
+            if (compiledGraph.getSatisfierStart(conditionId) == compiledGraph.getSatisfierEnd(conditionId)) {
+                // No known action can satisfy this condition.
+                clearNodeMasks(nodePatternCount);
+                return Float.MAX_VALUE;
+            }
+
+            var pattern = patterns.patternOf[conditionId];
+
+            if (nodeMasks[pattern] == 0) {
+                nodePatterns[nodePatternCount++] = pattern;
+            }
+
+            nodeMasks[pattern] |= 1 << patterns.bitOf[conditionId];
+        }
+
+        var h = 0.0f;
+
+        for (var i = 0; i < nodePatternCount; i++) {
+            var pattern = nodePatterns[i];
+
+            if (tableStamps[pattern] != generation) {
+                computeTable(patterns, pattern, tickCache, actor);
+                tableStamps[pattern] = generation;
+            }
+
+            var cost = tables[patterns.tableOffsets[pattern] + nodeMasks[pattern]];
+            h = cost == Float.MAX_VALUE ? Float.MAX_VALUE : Math.min(h + cost, Float.MAX_VALUE);
+        }
+
+        clearNodeMasks(nodePatternCount);
+        return h;
+    }
+
+    private void clearNodeMasks(int nodePatternCount) {
+        for (var i = 0; i < nodePatternCount; i++) {
+            nodeMasks[nodePatterns[i]] = 0;
+        }
+    }
+
+    /**
+     * Computes the cost of satisfying every subset of the given pattern, by relaxing each subset over the actions of
+     * the pattern until no cost drops anymore. Every cheapest way visits each subset at most once, so this takes at
+     * most one sweep per subset, even if costs are negative.
+     */
+    private <T> void computeTable(Patterns patterns, int pattern, TickCache<T> tickCache, T actor) {
+        var currentWorldState = Objects.requireNonNull(this.currentWorldState);
+        var actionStart = patterns.actionOffsets[pattern];
+        var actionEnd = patterns.actionOffsets[pattern + 1];
+
+        for (var i = actionStart; i < actionEnd; i++) {
+            var actionId = patterns.actionIds[i];
+            actionCosts[i] = tickCache.getCost(actionId, actor, currentWorldState) / patterns.patternCounts[actionId];
+            unmetPreconditionMasks[i] = 0;
+
+            for (var conditionId : tickCache.getUnmetPreconditions(actionId)) {
+                if (conditionId < patterns.patternOf.length && patterns.patternOf[conditionId] == pattern) {
+                    unmetPreconditionMasks[i] |= 1 << patterns.bitOf[conditionId];
+                }
+            }
+        }
+
+        var offset = patterns.tableOffsets[pattern];
+        var subsets = patterns.tableOffsets[pattern + 1] - offset;
+
+        Arrays.fill(tables, offset + 1, offset + subsets, Float.MAX_VALUE);
+        tables[offset] = 0.0f;
+
+        for (var sweep = 0; sweep < subsets; sweep++) {
+            var changed = false;
+
+            for (var subset = 1; subset < subsets; subset++) {
+                var best = tables[offset + subset];
+
+                for (var i = actionStart; i < actionEnd; i++) {
+                    if ((patterns.satisfiedMasks[i] & subset) == 0) {
+                        // Only actions satisfying an unsatisfied condition are tried.
+                        continue;
+                    }
+
+                    var rest = tables[offset + ((subset & ~patterns.satisfiedMasks[i]) | unmetPreconditionMasks[i])];
+
+                    if (rest != Float.MAX_VALUE && actionCosts[i] + rest < best) {
+                        best = actionCosts[i] + rest;
+                    }
+                }
+
+                if (best < tables[offset + subset]) {
+                    tables[offset + subset] = best;
+                    changed = true;
+                }
+            }
+
+            if (!changed) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * The patterns of every graph searched with a given pattern size. Graphs are held weakly, and patterns never refer
+     * back to their graph, so a graph that is no longer used drops out along with its patterns.
+     */
+    private static final class PatternCache {
+
+        private final int patternSize;
+
+        private final Map<CompiledGraph<?>, Patterns> patterns;
+
+        PatternCache(int patternSize) {
+            if (patternSize < 1 || patternSize > Patterns.MAX_PATTERN_SIZE) {
+                throw new IllegalArgumentException("patternSize must be between 1 and " + Patterns.MAX_PATTERN_SIZE);
+            }
+
+            this.patternSize = patternSize;
+            this.patterns = new WeakHashMap<>();
+        }
+
+        // Heuristics of one factory run on several threads at once.
+        synchronized Patterns get(CompiledGraph<?> compiledGraph) {
+            return patterns.computeIfAbsent(compiledGraph, $ -> new Patterns(compiledGraph, patternSize));
+        }
+    }
+
+    /**
+     * The patterns of a graph, with the conditions of each pattern and the actions satisfying them stored as
+     * compressed sparse rows like in {@link CompiledGraph}. The tables are laid out the same way: pattern {@code p}
+     * owns {@code tables[tableOffsets[p]]} up to, but excluding, {@code tables[tableOffsets[p + 1]]}, indexed by a bit
+     * mask of the pattern's unsatisfied conditions.
+     */
+    private static final class Patterns {
+
+        static final int MAX_PATTERN_SIZE = 16;
+
+        final int count;
+
+        final int[] patternOf;
+
+        final int[] bitOf;
+
+        final int[] conditionOffsets;
+
+        final int[] conditionIds;
+
+        final int[] actionOffsets;
+
+        final int[] actionIds;
+
+        // The conditions of the pattern that each action satisfies.
+        final int[] satisfiedMasks;
+
+        // The number of patterns each action satisfies conditions of, by action id.
+        final int[] patternCounts;
+
+        final int[] tableOffsets;
+
+        Patterns(CompiledGraph<?> compiledGraph, int patternSize) {
+            var conditionCount = compiledGraph.getConditionCount();
+            this.patternOf = new int[conditionCount];
+            this.bitOf = new int[conditionCount];
+
+            Arrays.fill(patternOf, -1);
+
+            // Grow each pattern from its first condition along the preconditions of the actions satisfying it, so
+            // that the conditions of a chain of actions end up in the same pattern.
+            var sizes = new int[conditionCount];
+            var count = 0;
+            var pendingConditions = new ArrayDeque<Integer>();
+
+            for (var first = 0; first < conditionCount; first++) {
+                if (patternOf[first] >= 0) {
+                    continue;
+                }
+
+                var pattern = count++;
+                pendingConditions.clear();
+                pendingConditions.add(first);
+
+                while (!pendingConditions.isEmpty() && sizes[pattern] < patternSize) {
+                    int conditionId = pendingConditions.poll();
+
+                    if (patternOf[conditionId] >= 0) {
+                        continue;
+                    }
+
+                    patternOf[conditionId] = pattern;
+                    bitOf[conditionId] = sizes[pattern]++;
+
+                    var satisfierEnd = compiledGraph.getSatisfierEnd(conditionId);
+
+                    for (var i = compiledGraph.getSatisfierStart(conditionId); i < satisfierEnd; i++) {
+                        var actionId = compiledGraph.getSatisfier(i);
+                        var preconditionEnd = compiledGraph.getPreconditionEnd(actionId);
+
+                        for (var j = compiledGraph.getPreconditionStart(actionId); j < preconditionEnd; j++) {
+                            var preconditionId = compiledGraph.getPrecondition(j);
+
+                            if (patternOf[preconditionId] < 0) {
+                                pendingConditions.add(preconditionId);
+                            }
+                        }
+                    }
+                }
+            }
+
+            this.count = count;
+
+            // The conditions of each pattern.
+            this.conditionOffsets = new int[count + 1];
+
+            for (var pattern : patternOf) {
+                conditionOffsets[pattern + 1]++;
+            }
+
+            for (var pattern = 0; pattern < count; pattern++) {
+                conditionOffsets[pattern + 1] += conditionOffsets[pattern];
+            }
+
+            this.conditionIds = new int[conditionCount];
+            var conditionCursors = Arrays.copyOf(conditionOffsets, count);
+
+            for (var conditionId = 0; conditionId < conditionCount; conditionId++) {
+                conditionIds[conditionCursors[patternOf[conditionId]]++] = conditionId;
+            }
+
+            // The actions of each pattern, without duplicates, along with the pattern's conditions they satisfy.
+            var actionMasks = new int[compiledGraph.getActionCount()];
+            var patternActions = new int[compiledGraph.getActionCount()];
+            this.actionOffsets = new int[count + 1];
+            var actionIds = new int[16];
+            var satisfiedMasks = new int[16];
+            var actionCursor = 0;
+
+            for (var pattern = 0; pattern < count; pattern++) {
+                actionOffsets[pattern] = actionCursor;
+                var patternActionCount = 0;
+
+                for (var k = conditionOffsets[pattern]; k < conditionOffsets[pattern + 1]; k++) {
+                    var conditionId = conditionIds[k];
+                    var satisfierEnd = compiledGraph.getSatisfierEnd(conditionId);
+
+                    for (var i = compiledGraph.getSatisfierStart(conditionId); i < satisfierEnd; i++) {
+                        var actionId = compiledGraph.getSatisfier(i);
+
+                        if (actionMasks[actionId] == 0) {
+                            patternActions[patternActionCount++] = actionId;
+                        }
+
+                        actionMasks[actionId] |= 1 << bitOf[conditionId];
+                    }
+                }
+
+                if (actionCursor + patternActionCount > actionIds.length) {
+                    var length = Math.max(actionIds.length * 2, actionCursor + patternActionCount);
+                    actionIds = Arrays.copyOf(actionIds, length);
+                    satisfiedMasks = Arrays.copyOf(satisfiedMasks, length);
+                }
+
+                for (var i = 0; i < patternActionCount; i++) {
+                    var actionId = patternActions[i];
+                    actionIds[actionCursor] = actionId;
+                    satisfiedMasks[actionCursor] = actionMasks[actionId];
+                    actionCursor++;
+                    actionMasks[actionId] = 0;
+                }
+            }
+
+            actionOffsets[count] = actionCursor;
+            this.actionIds = Arrays.copyOf(actionIds, actionCursor);
+            this.satisfiedMasks = Arrays.copyOf(satisfiedMasks, actionCursor);
+            this.patternCounts = new int[compiledGraph.getActionCount()];
+
+            for (var actionId : this.actionIds) {
+                patternCounts[actionId]++;
+            }
+
+            this.tableOffsets = new int[count + 1];
+
+            for (var pattern = 0; pattern < count; pattern++) {
+                tableOffsets[pattern + 1] = tableOffsets[pattern] + (1 << sizes[pattern]);
+            }
+
+        }
+
+    }
+}
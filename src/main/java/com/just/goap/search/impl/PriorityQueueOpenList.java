@@ -0,0 +1,58 @@
+package com.just.goap.search.impl;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import com.just.goap.search.OpenList;
+
+/**
+ * An {@link OpenList} backed by a {@link PriorityQueue}, wrapping each element with its keys.
+ *
+ * @param <E> The element type.
+ */
+public class PriorityQueueOpenList<E> implements OpenList<E> {
+
+    private static final Comparator<Entry<?>> COMPARATOR = Comparator.<Entry<?>>comparingDouble(Entry::priority)
+        .thenComparingDouble(Entry::tieBreaker);
+
+    private final PriorityQueue<Entry<E>> queue;
+
+    public PriorityQueueOpenList() {
+        this.queue = new PriorityQueue<>(COMPARATOR);
+    }
+
+    @Override
+    public void add(E element, float priority, float tieBreaker) {
+        queue.add(new Entry<>(element, priority, tieBreaker));
+    }
+
+    @Override
+    public @Nullable E poll() {
+        var entry = queue.poll();
+        return entry == null ? null : entry.element();
+    }
+
+    @Override
+    public float peekPriority() {
+        var entry = queue.peek();
+        return entry == null ? Float.POSITIVE_INFINITY : entry.priority();
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+    }
+
+    private record Entry<E>(
+        E element,
+        float priority,
+        float tieBreaker
+    ) {}
+}
@@ -0,0 +1,28 @@
+package com.just.goap.sensor;
+
+import java.util.function.Predicate;
+
+import com.just.goap.StateKey;
+import com.just.goap.state.ReadableWorldState;
+
+public final class MapBoolean<T> implements Sensor.BooleanMono<T> {
+
+    private final StateKey.Sensed<Boolean> outputKeyA;
+
+    private final Predicate<? super T> extractor;
+
+    MapBoolean(StateKey.Sensed<Boolean> outputKeyA, Predicate<? super T> extractor) {
+        this.outputKeyA = outputKeyA;
+        this.extractor = extractor;
+    }
+
+    @Override
+    public StateKey.Sensed<Boolean> key() {
+        return outputKeyA;
+    }
+
+    @Override
+    public boolean applyAsBoolean(T actor, ReadableWorldState worldState) {
+        return extractor.test(actor);
+    }
+}
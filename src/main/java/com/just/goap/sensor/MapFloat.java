@@ -0,0 +1,32 @@
+package com.just.goap.sensor;
+
+import com.just.goap.StateKey;
+import com.just.goap.state.ReadableWorldState;
+
+public final class MapFloat<T> implements Sensor.FloatMono<T> {
+
+    private final StateKey.Sensed<Float> outputKeyA;
+
+    private final Extractor<? super T> extractor;
+
+    MapFloat(StateKey.Sensed<Float> outputKeyA, Extractor<? super T> extractor) {
+        this.outputKeyA = outputKeyA;
+        this.extractor = extractor;
+    }
+
+    @Override
+    public StateKey.Sensed<Float> key() {
+        return outputKeyA;
+    }
+
+    @Override
+    public float applyAsFloat(T actor, ReadableWorldState worldState) {
+        return extractor.apply(actor);
+    }
+
+    @FunctionalInterface
+    public interface Extractor<T> {
+
+        float apply(T actor);
+    }
+}
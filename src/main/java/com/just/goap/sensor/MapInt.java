@@ -0,0 +1,28 @@
+package com.just.goap.sensor;
+
+import java.util.function.ToIntFunction;
+
+import com.just.goap.StateKey;
+import com.just.goap.state.ReadableWorldState;
+
+public final class MapInt<T> implements Sensor.IntMono<T> {
+
+    private final StateKey.Sensed<Integer> outputKeyA;
+
+    private final ToIntFunction<? super T> extractor;
+
+    MapInt(StateKey.Sensed<Integer> outputKeyA, ToIntFunction<? super T> extractor) {
+        this.outputKeyA = outputKeyA;
+        this.extractor = extractor;
+    }
+
+    @Override
+    public StateKey.Sensed<Integer> key() {
+        return outputKeyA;
+    }
+
+    @Override
+    public int applyAsInt(T actor, ReadableWorldState worldState) {
+        return extractor.applyAsInt(actor);
+    }
+}
@@ -0,0 +1,28 @@
+package com.just.goap.sensor;
+
+import java.util.function.ToLongFunction;
+
+import com.just.goap.StateKey;
+import com.just.goap.state.ReadableWorldState;
+
+public final class MapLong<T> implements Sensor.LongMono<T> {
+
+    private final StateKey.Sensed<Long> outputKeyA;
+
+    private final ToLongFunction<? super T> extractor;
+
+    MapLong(StateKey.Sensed<Long> outputKeyA, ToLongFunction<? super T> extractor) {
+        this.outputKeyA = outputKeyA;
+        this.extractor = extractor;
+    }
+
+    @Override
+    public StateKey.Sensed<Long> key() {
+        return outputKeyA;
+    }
+
+    @Override
+    public long applyAsLong(T actor, ReadableWorldState worldState) {
+        return extractor.applyAsLong(actor);
+    }
+}
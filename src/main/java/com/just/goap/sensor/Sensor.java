@@ -22,4 +22,60 @@ public interface Sensor<T> {
     }
 
     interface Multi<T> extends Sensor<T> {}
+
+    /**
+     * A sensor for a single {@link StateKey.Type#INT} key that produces its value without boxing.
+     */
+    interface IntMono<T> extends Mono<T, Integer> {
+
+        int applyAsInt(T actor, ReadableWorldState worldState);
+
+        @Override
+        @SuppressWarnings("unchecked")
+        default <V> V apply(StateKey<V> key, T actor, ReadableWorldState worldState) {
+            return (V) Integer.valueOf(applyAsInt(actor, worldState));
+        }
+    }
+
+    /**
+     * A sensor for a single {@link StateKey.Type#LONG} key that produces its value without boxing.
+     */
+    interface LongMono<T> extends Mono<T, Long> {
+
+        long applyAsLong(T actor, ReadableWorldState worldState);
+
+        @Override
+        @SuppressWarnings("unchecked")
+        default <V> V apply(StateKey<V> key, T actor, ReadableWorldState worldState) {
+            return (V) Long.valueOf(applyAsLong(actor, worldState));
+        }
+    }
+
+    /**
+     * A sensor for a single {@link StateKey.Type#FLOAT} key that produces its value without boxing.
+     */
+    interface FloatMono<T> extends Mono<T, Float> {
+
+        float applyAsFloat(T actor, ReadableWorldState worldState);
+
+        @Override
+        @SuppressWarnings("unchecked")
+        default <V> V apply(StateKey<V> key, T actor, ReadableWorldState worldState) {
+            return (V) Float.valueOf(applyAsFloat(actor, worldState));
+        }
+    }
+
+    /**
+     * A sensor for a single {@link StateKey.Type#BOOLEAN} key that produces its value without boxing.
+     */
+    interface BooleanMono<T> extends Mono<T, Boolean> {
+
+        boolean applyAsBoolean(T actor, ReadableWorldState worldState);
+
+        @Override
+        @SuppressWarnings("unchecked")
+        default <V> V apply(StateKey<V> key, T actor, ReadableWorldState worldState) {
+            return (V) Boolean.valueOf(applyAsBoolean(actor, worldState));
+        }
+    }
 }
@@ -1,5 +1,9 @@
 package com.just.goap.sensor;
 
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
 import com.just.core.functional.function.Function;
 import com.just.core.functional.function.Function2;
 import com.just.core.functional.function.Function3;
@@ -106,6 +110,22 @@ public class Sensors {
         return new com.just.goap.sensor.Map<>(key, extractor);
     }
 
+    public static <T> MapInt<T> mapInt(StateKey.Sensed<Integer> key, ToIntFunction<? super T> extractor) {
+        return new MapInt<>(key, extractor);
+    }
+
+    public static <T> MapLong<T> mapLong(StateKey.Sensed<Long> key, ToLongFunction<? super T> extractor) {
+        return new MapLong<>(key, extractor);
+    }
+
+    public static <T> MapFloat<T> mapFloat(StateKey.Sensed<Float> key, MapFloat.Extractor<? super T> extractor) {
+        return new MapFloat<>(key, extractor);
+    }
+
+    public static <T> MapBoolean<T> mapBoolean(StateKey.Sensed<Boolean> key, Predicate<? super T> extractor) {
+        return new MapBoolean<>(key, extractor);
+    }
+
     public static <T, I1, O1, O2> Map1To2<T, I1, O1, O2> multiMap(
         StateKey.Sensed<I1> sourceKeyA,
         StateKey.Sensed<O1> outputKeyA,
@@ -0,0 +1,76 @@
+package com.just.goap.state;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.just.goap.StateKey;
+import com.just.goap.graph.CompiledGraph;
+
+/**
+ * Numbers the primitive keys of one graph densely from {@code 0}, so that world states for the graph can store their
+ * values unboxed in arrays indexed by slot. See {@link CompiledGraph#getKeySlots()}.
+ * <p>
+ * Keys outside the table have no slot, and world states store their values boxed along with the object keys.
+ */
+public final class KeySlots {
+
+    /**
+     * The table of world states that belong to no graph, which stores every value boxed.
+     */
+    public static final KeySlots EMPTY = new KeySlots(Map.of());
+
+    /**
+     * Returns a table numbering the primitive keys among the given keys, skipping any other key.
+     */
+    public static KeySlots of(Collection<? extends StateKey<?>> keys) {
+        var slots = new HashMap<StateKey<?>, Integer>();
+
+        for (var key : keys) {
+            if (key.type().isPrimitive()) {
+                slots.putIfAbsent(key, slots.size());
+            }
+        }
+
+        return slots.isEmpty() ? EMPTY : new KeySlots(slots);
+    }
+
+    /**
+     * Returns the table the values of the given world state are numbered by, or {@link #EMPTY} if it has none.
+     */
+    static KeySlots of(ReadableWorldState worldState) {
+        return switch (worldState) {
+            case SensingWorldState<?> sensingWorldState -> sensingWorldState.getGraph()
+                .getCompiledGraph()
+                .getKeySlots();
+            case SimulatedWorldState simulatedWorldState -> simulatedWorldState.getKeySlots();
+            case MapWorldState mapWorldState -> mapWorldState.getKeySlots();
+            default -> EMPTY;
+        };
+    }
+
+    private final Map<StateKey<?>, Integer> slots;
+
+    private KeySlots(Map<StateKey<?>, Integer> slots) {
+        this.slots = slots;
+    }
+
+    /**
+     * @return The slot of the given key, or {@code -1} if it has none.
+     */
+    public int slotOf(StateKey<?> key) {
+        if (!key.type().isPrimitive()) {
+            return -1;
+        }
+
+        var slot = slots.get(key);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * @return The number of slots.
+     */
+    public int size() {
+        return slots.size();
+    }
+}
@@ -0,0 +1,259 @@
+package com.just.goap.state;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.just.goap.StateKey;
+import com.just.goap.effect.EffectContainer;
+
+/**
+ * The default {@link WorldState}, backed by a map for object keys and a {@link PrimitiveStore} for primitive keys that
+ * have a slot in its {@link KeySlots} table. Primitive keys without a slot are stored boxed in the map.
+ */
+final class MapWorldState implements WorldState {
+
+    private final Map<StateKey<?>, Object> stateMap;
+
+    private final PrimitiveStore primitiveStore;
+
+    MapWorldState(KeySlots slots) {
+        this.stateMap = new HashMap<>();
+        this.primitiveStore = new PrimitiveStore(slots);
+    }
+
+    /**
+     * Creates a world state holding a copy of the given entries. The given map is neither changed nor kept.
+     */
+    MapWorldState(Map<StateKey<?>, Object> stateMap) {
+        this(KeySlots.EMPTY);
+        setAll(stateMap);
+    }
+
+    KeySlots getKeySlots() {
+        return primitiveStore.getSlots();
+    }
+
+    /**
+     * Switches to another slot table, dropping the values of primitive keys with a slot.
+     */
+    void setKeySlots(KeySlots slots) {
+        if (primitiveStore.getSlots() != slots) {
+            primitiveStore.setSlots(slots);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable T getOrNull(StateKey<T> key) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot >= 0) {
+            return (T) primitiveStore.getBoxed(slot, key);
+        }
+
+        return (T) stateMap.get(key);
+    }
+
+    @Override
+    public boolean has(StateKey<?> key) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot >= 0) {
+            return primitiveStore.has(slot);
+        }
+
+        return stateMap.get(key) != null;
+    }
+
+    @Override
+    public int getInt(StateKey<Integer> key) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot < 0 || key.type() != StateKey.Type.INT) {
+            return WorldState.super.getInt(key);
+        }
+
+        return primitiveStore.has(slot) ? primitiveStore.getInt(slot) : 0;
+    }
+
+    @Override
+    public long getLong(StateKey<Long> key) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot < 0 || key.type() != StateKey.Type.LONG) {
+            return WorldState.super.getLong(key);
+        }
+
+        return primitiveStore.has(slot) ? primitiveStore.getLong(slot) : 0L;
+    }
+
+    @Override
+    public float getFloat(StateKey<Float> key) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot < 0 || key.type() != StateKey.Type.FLOAT) {
+            return WorldState.super.getFloat(key);
+        }
+
+        return primitiveStore.has(slot) ? primitiveStore.getFloat(slot) : 0.0f;
+    }
+
+    @Override
+    public boolean getBoolean(StateKey<Boolean> key) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot < 0 || key.type() != StateKey.Type.BOOLEAN) {
+            return WorldState.super.getBoolean(key);
+        }
+
+        return primitiveStore.has(slot) && primitiveStore.getBoolean(slot);
+    }
+
+    /**
+     * Returns the contents of this world state. While no primitive key with a slot has a value, this is the map the
+     * world state writes to; otherwise it is a copy that later writes do not show up in, and vice versa.
+     */
+    @Override
+    public Map<StateKey<?>, Object> getMap() {
+        if (primitiveStore.isEmpty()) {
+            return stateMap;
+        }
+
+        var merged = new HashMap<>(stateMap);
+        primitiveStore.putAllInto(merged);
+        return merged;
+    }
+
+    /**
+     * Returns the hash code of {@link #getMap()}, without building the map.
+     */
+    int valuesHashCode() {
+        return stateMap.hashCode() + primitiveStore.contentHashCode();
+    }
+
+    /**
+     * Returns what comparing the {@link #getMap()}s of both world states would return, without building the maps as
+     * long as both use the same slot table.
+     */
+    boolean hasSameValues(MapWorldState other) {
+        if (primitiveStore.getSlots() != other.primitiveStore.getSlots()) {
+            return getMap().equals(other.getMap());
+        }
+
+        return stateMap.equals(other.stateMap) && primitiveStore.hasSameContent(other.primitiveStore);
+    }
+
+    @Override
+    public boolean satisfiedBy(ReadableWorldState worldState) {
+        for (var entry : stateMap.entrySet()) {
+            var otherValue = worldState.getOrNull(entry.getKey());
+
+            if (!entry.getValue().equals(otherValue)) {
+                return false;
+            }
+        }
+
+        return primitiveStore.isContainedIn(worldState);
+    }
+
+    @Override
+    public <T> void set(StateKey<T> key, T value) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot >= 0) {
+            primitiveStore.putBoxed(slot, key, value);
+        } else {
+            stateMap.put(key, value);
+        }
+    }
+
+    @Override
+    public void setInt(StateKey<Integer> key, int value) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot >= 0 && key.type() == StateKey.Type.INT) {
+            primitiveStore.putInt(slot, key, value);
+        } else {
+            set(key, value);
+        }
+    }
+
+    @Override
+    public void setLong(StateKey<Long> key, long value) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot >= 0 && key.type() == StateKey.Type.LONG) {
+            primitiveStore.putLong(slot, key, value);
+        } else {
+            set(key, value);
+        }
+    }
+
+    @Override
+    public void setFloat(StateKey<Float> key, float value) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot >= 0 && key.type() == StateKey.Type.FLOAT) {
+            primitiveStore.putFloat(slot, key, value);
+        } else {
+            set(key, value);
+        }
+    }
+
+    @Override
+    public void setBoolean(StateKey<Boolean> key, boolean value) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot >= 0 && key.type() == StateKey.Type.BOOLEAN) {
+            primitiveStore.putBoolean(slot, key, value);
+        } else {
+            set(key, value);
+        }
+    }
+
+    @Override
+    public void setAll(Map<StateKey<?>, Object> map) {
+        for (var entry : map.entrySet()) {
+            var key = entry.getKey();
+            var slot = primitiveStore.slotOf(key);
+
+            if (slot >= 0) {
+                primitiveStore.putBoxed(slot, key, entry.getValue());
+            } else {
+                stateMap.put(key, entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void apply(EffectContainer effectContainer) {
+        for (var effect : effectContainer.getEffects()) {
+            effect.apply(this);
+        }
+    }
+
+    @Override
+    public void clear() {
+        stateMap.clear();
+        primitiveStore.clear();
+    }
+
+    /**
+     * Replaces the contents of this world state with a copy of the given world state's contents, adopting its slot
+     * table.
+     */
+    void copyFrom(MapWorldState other) {
+        stateMap.clear();
+        stateMap.putAll(other.stateMap);
+        primitiveStore.copyFrom(other.primitiveStore);
+    }
+
+    @Override
+    public String toString() {
+        return "WorldState{" +
+            "stateMap=" + getMap() +
+            '}';
+    }
+}
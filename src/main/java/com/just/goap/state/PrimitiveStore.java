@@ -0,0 +1,343 @@
+package com.just.goap.state;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import com.just.goap.StateKey;
+
+/**
+ * Unboxed storage for values of primitive {@link StateKey}s, indexed by their slot in a {@link KeySlots} table.
+ * <p>
+ * Every primitive type is encoded into a {@code long}: ints and longs as-is, floats as their raw int bits and booleans
+ * as {@code 0}/{@code 1}. Presence is tracked separately in a bit set so that a stored {@code 0} can be told apart from
+ * a missing value.
+ * <p>
+ * Keys without a slot cannot be stored here, so callers keep their values boxed elsewhere.
+ */
+final class PrimitiveStore {
+
+    private static final long[] EMPTY_VALUES = new long[0];
+
+    private static final StateKey<?>[] EMPTY_KEYS = new StateKey<?>[0];
+
+    private KeySlots slots;
+
+    private long[] values;
+
+    private long[] present;
+
+    private StateKey<?>[] keys;
+
+    private int size;
+
+    PrimitiveStore(KeySlots slots) {
+        this.slots = slots;
+        this.values = EMPTY_VALUES;
+        this.present = EMPTY_VALUES;
+        this.keys = EMPTY_KEYS;
+        this.size = 0;
+    }
+
+    KeySlots getSlots() {
+        return slots;
+    }
+
+    /**
+     * Switches to another slot table, dropping every stored value.
+     */
+    void setSlots(KeySlots slots) {
+        clear();
+        this.slots = slots;
+    }
+
+    /**
+     * @return The slot of the given key, or {@code -1} if its values cannot be stored here.
+     */
+    int slotOf(StateKey<?> key) {
+        return slots.slotOf(key);
+    }
+
+    boolean has(int slot) {
+        var word = slot >>> 6;
+        return word < present.length && (present[word] & (1L << slot)) != 0;
+    }
+
+    long get(int slot) {
+        return values[slot];
+    }
+
+    int getInt(int slot) {
+        return (int) values[slot];
+    }
+
+    long getLong(int slot) {
+        return values[slot];
+    }
+
+    float getFloat(int slot) {
+        return Float.intBitsToFloat((int) values[slot]);
+    }
+
+    boolean getBoolean(int slot) {
+        return values[slot] != 0;
+    }
+
+    void put(int slot, StateKey<?> key, long bits) {
+        ensureCapacity(slot);
+
+        var word = slot >>> 6;
+        var mask = 1L << slot;
+
+        if ((present[word] & mask) == 0) {
+            present[word] |= mask;
+            keys[slot] = key;
+            size++;
+        }
+
+        values[slot] = bits;
+    }
+
+    void putInt(int slot, StateKey<?> key, int value) {
+        put(slot, key, value);
+    }
+
+    void putLong(int slot, StateKey<?> key, long value) {
+        put(slot, key, value);
+    }
+
+    void putFloat(int slot, StateKey<?> key, float value) {
+        put(slot, key, Float.floatToRawIntBits(value));
+    }
+
+    void putBoolean(int slot, StateKey<?> key, boolean value) {
+        put(slot, key, value ? 1L : 0L);
+    }
+
+    void remove(int slot) {
+        if (has(slot)) {
+            present[slot >>> 6] &= ~(1L << slot);
+            keys[slot] = null;
+            size--;
+        }
+    }
+
+    /**
+     * Stores a boxed value for the given primitive key, or removes the value if {@code value} is {@code null}.
+     */
+    void putBoxed(int slot, StateKey<?> key, Object value) {
+        if (value == null) {
+            remove(slot);
+            return;
+        }
+
+        switch (key.type()) {
+            case INT -> putInt(slot, key, (Integer) value);
+            case LONG -> putLong(slot, key, (Long) value);
+            case FLOAT -> putFloat(slot, key, (Float) value);
+            case BOOLEAN -> putBoolean(slot, key, (Boolean) value);
+            case OBJECT -> throw new IllegalArgumentException("Key '" + key + "' is not a primitive key.");
+        }
+    }
+
+    /**
+     * Returns the value for the given primitive key as a boxed object, or {@code null} if no value is stored.
+     */
+    Object getBoxed(int slot, StateKey<?> key) {
+        if (!has(slot)) {
+            return null;
+        }
+
+        return switch (key.type()) {
+            case INT -> getInt(slot);
+            case LONG -> getLong(slot);
+            case FLOAT -> getFloat(slot);
+            case BOOLEAN -> getBoolean(slot);
+            case OBJECT -> throw new IllegalArgumentException("Key '" + key + "' is not a primitive key.");
+        };
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copies every stored value into the given map, boxing as needed.
+     */
+    void putAllInto(Map<StateKey<?>, Object> map) {
+        if (size == 0) {
+            return;
+        }
+
+        for (var slot = 0; slot < keys.length; slot++) {
+            if (has(slot)) {
+                var key = keys[slot];
+                map.put(key, getBoxed(slot, key));
+            }
+        }
+    }
+
+    /**
+     * Returns the hash code of the map {@link #putAllInto(Map)} would fill, without boxing.
+     */
+    int contentHashCode() {
+        if (size == 0) {
+            return 0;
+        }
+
+        var hashCode = 0;
+
+        for (var slot = 0; slot < keys.length; slot++) {
+            if (!has(slot)) {
+                continue;
+            }
+
+            var key = keys[slot];
+            var valueHashCode = switch (key.type()) {
+                case INT -> Integer.hashCode(getInt(slot));
+                case LONG -> Long.hashCode(getLong(slot));
+                case FLOAT -> Float.hashCode(getFloat(slot));
+                case BOOLEAN -> Boolean.hashCode(getBoolean(slot));
+                case OBJECT -> 0;
+            };
+            hashCode += key.hashCode() ^ valueHashCode;
+        }
+
+        return hashCode;
+    }
+
+    /**
+     * Returns {@code true} if both stores hold the same values for the same keys, comparing floats the way
+     * {@link Float#equals(Object)} does. Both stores must use the same slot table.
+     */
+    boolean hasSameContent(PrimitiveStore other) {
+        if (size != other.size) {
+            return false;
+        }
+
+        if (size == 0) {
+            return true;
+        }
+
+        for (var slot = 0; slot < keys.length; slot++) {
+            if (!has(slot)) {
+                continue;
+            }
+
+            if (!other.has(slot)) {
+                return false;
+            }
+
+            var equal = keys[slot].type() == StateKey.Type.FLOAT
+                ? Float.floatToIntBits(getFloat(slot)) == Float.floatToIntBits(other.getFloat(slot))
+                : values[slot] == other.values[slot];
+
+            if (!equal) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if every value stored here is also present, with the same value, in the given world state.
+     */
+    boolean isContainedIn(ReadableWorldState worldState) {
+        if (size == 0) {
+            return true;
+        }
+
+        for (var slot = 0; slot < keys.length; slot++) {
+            if (!has(slot)) {
+                continue;
+            }
+
+            var key = keys[slot];
+
+            if (!worldState.has(key)) {
+                return false;
+            }
+
+            var equal = switch (key.type()) {
+                case INT -> worldState.getInt(asInt(key)) == getInt(slot);
+                case LONG -> worldState.getLong(asLong(key)) == getLong(slot);
+                // Compare floats the way Float.equals() does.
+                case FLOAT -> Float.floatToIntBits(worldState.getFloat(asFloat(key))) == Float.floatToIntBits(
+                    getFloat(slot)
+                );
+                case BOOLEAN -> worldState.getBoolean(asBoolean(key)) == getBoolean(slot);
+                case OBJECT -> false;
+            };
+
+            if (!equal) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Replaces the contents of this store with a copy of the given store's contents, adopting its slot table.
+     */
+    void copyFrom(PrimitiveStore other) {
+        this.slots = other.slots;
+
+        if (values.length < other.values.length) {
+            this.values = other.values.clone();
+            this.present = other.present.clone();
+            this.keys = other.keys.clone();
+        } else {
+            // Reuse the arrays, values past the copied ones are never read as long as their present bits are clear.
+            System.arraycopy(other.values, 0, values, 0, other.values.length);
+            System.arraycopy(other.present, 0, present, 0, other.present.length);
+            System.arraycopy(other.keys, 0, keys, 0, other.keys.length);
+            Arrays.fill(present, other.present.length, present.length, 0L);
+            Arrays.fill(keys, other.keys.length, keys.length, null);
+        }
+
+        this.size = other.size;
+    }
+
+    void clear() {
+        if (size == 0) {
+            return;
+        }
+
+        Arrays.fill(present, 0L);
+        Arrays.fill(keys, null);
+        this.size = 0;
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < values.length) {
+            return;
+        }
+
+        // Slots are dense per graph, so the whole table fits at once.
+        var capacity = Math.max(slot + 1, slots.size());
+        this.values = Arrays.copyOf(values, capacity);
+        this.keys = Arrays.copyOf(keys, capacity);
+        this.present = Arrays.copyOf(present, (capacity + 63) >>> 6);
+    }
+
+    @SuppressWarnings("unchecked")
+    static StateKey<Integer> asInt(StateKey<?> key) {
+        return (StateKey<Integer>) key;
+    }
+
+    @SuppressWarnings("unchecked")
+    static StateKey<Long> asLong(StateKey<?> key) {
+        return (StateKey<Long>) key;
+    }
+
+    @SuppressWarnings("unchecked")
+    static StateKey<Float> asFloat(StateKey<?> key) {
+        return (StateKey<Float>) key;
+    }
+
+    @SuppressWarnings("unchecked")
+    static StateKey<Boolean> asBoolean(StateKey<?> key) {
+        return (StateKey<Boolean>) key;
+    }
+}
@@ -54,6 +54,42 @@ public interface ReadableWorldState extends Satisfiable, Satisfier {
             : value;
     }
 
+    /**
+     * Returns the value for the given key without boxing if the world state stores it unboxed, or {@code 0} if no
+     * value is present. Use {@link #has(StateKey)} to tell a missing value apart from {@code 0}.
+     */
+    default int getInt(StateKey<Integer> key) {
+        var value = getOrNull(key);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Returns the value for the given key without boxing if the world state stores it unboxed, or {@code 0} if no
+     * value is present.
+     */
+    default long getLong(StateKey<Long> key) {
+        var value = getOrNull(key);
+        return value == null ? 0L : value;
+    }
+
+    /**
+     * Returns the value for the given key without boxing if the world state stores it unboxed, or {@code 0} if no
+     * value is present.
+     */
+    default float getFloat(StateKey<Float> key) {
+        var value = getOrNull(key);
+        return value == null ? 0.0f : value;
+    }
+
+    /**
+     * Returns the value for the given key without boxing if the world state stores it unboxed, or {@code false} if no
+     * value is present.
+     */
+    default boolean getBoolean(StateKey<Boolean> key) {
+        var value = getOrNull(key);
+        return value != null && value;
+    }
+
     default <T> T getOrThrow(StateKey<T> key) {
         return Objects.requireNonNull(getOrNull(key));
     }
@@ -8,7 +8,9 @@ import java.util.Map;
 
 import com.just.goap.StateKey;
 import com.just.goap.effect.EffectContainer;
+import com.just.goap.event.SensorEvent;
 import com.just.goap.graph.Graph;
+import com.just.goap.sensor.Sensor;
 
 public final class SensingWorldState<T> implements WorldState {
 
@@ -18,49 +20,250 @@ public final class SensingWorldState<T> implements WorldState {
 
     private final Map<StateKey<?>, Object> stateMap;
 
+    private final PrimitiveStore primitiveStore;
+
+    private final TickCache<T> tickCache;
+
     private T actor;
 
     public SensingWorldState(Graph<T> graph) {
         this.graph = graph;
         this.stateMap = new HashMap<>();
+        this.primitiveStore = new PrimitiveStore(graph.getCompiledGraph().getKeySlots());
+        this.tickCache = new TickCache<>(graph.getCompiledGraph(), this);
     }
 
     @Override
     public <O> O getOrNull(StateKey<O> key) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot >= 0) {
+            @SuppressWarnings("unchecked")
+            var value = (O) (sensePrimitive(slot, key) ? primitiveStore.getBoxed(slot, key) : null);
+            return value;
+        }
+
         @SuppressWarnings("unchecked")
         var value = (O) stateMap.get(key);
 
         if (value == null) {
-            var sensor = graph.getSensorMap().get(key);
+            var sensor = getSensorOrWarn(key);
 
             if (sensor != null) {
+                var event = new SensorEvent();
+                event.begin();
                 value = sensor.apply(key, actor, this);
-                set(key, value);
-            } else {
-                LOGGER.warn("Attempted to sense a value for key '{}', but no sensor exists for key '{}'.", key, key);
+                event.complete(key, sensor);
+                // Sensing only fills in values, so it goes around set() and leaves the tick cache intact.
+                stateMap.put(key, value);
             }
         }
 
         return value;
     }
 
+    @Override
+    public boolean has(StateKey<?> key) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot >= 0) {
+            return sensePrimitive(slot, key);
+        }
+
+        return getOrNull(key) != null;
+    }
+
+    @Override
+    public int getInt(StateKey<Integer> key) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot < 0 || key.type() != StateKey.Type.INT) {
+            return WorldState.super.getInt(key);
+        }
+
+        return sensePrimitive(slot, key) ? primitiveStore.getInt(slot) : 0;
+    }
+
+    @Override
+    public long getLong(StateKey<Long> key) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot < 0 || key.type() != StateKey.Type.LONG) {
+            return WorldState.super.getLong(key);
+        }
+
+        return sensePrimitive(slot, key) ? primitiveStore.getLong(slot) : 0L;
+    }
+
+    @Override
+    public float getFloat(StateKey<Float> key) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot < 0 || key.type() != StateKey.Type.FLOAT) {
+            return WorldState.super.getFloat(key);
+        }
+
+        return sensePrimitive(slot, key) ? primitiveStore.getFloat(slot) : 0.0f;
+    }
+
+    @Override
+    public boolean getBoolean(StateKey<Boolean> key) {
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot < 0 || key.type() != StateKey.Type.BOOLEAN) {
+            return WorldState.super.getBoolean(key);
+        }
+
+        return sensePrimitive(slot, key) && primitiveStore.getBoolean(slot);
+    }
+
+    /**
+     * Makes sure the value of a primitive key is in the primitive store, invoking its sensor if needed.
+     *
+     * @return {@code true} if a value is present after sensing.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean sensePrimitive(int slot, StateKey<?> key) {
+        if (primitiveStore.has(slot)) {
+            return true;
+        }
+
+        var sensor = getSensorOrWarn(key);
+
+        if (sensor == null) {
+            return false;
+        }
+
+        var event = new SensorEvent();
+        event.begin();
+
+        switch (sensor) {
+            case Sensor.IntMono<?> intSensor -> primitiveStore.putInt(
+                slot,
+                key,
+                ((Sensor.IntMono<T>) intSensor).applyAsInt(actor, this)
+            );
+            case Sensor.LongMono<?> longSensor -> primitiveStore.putLong(
+                slot,
+                key,
+                ((Sensor.LongMono<T>) longSensor).applyAsLong(actor, this)
+            );
+            case Sensor.FloatMono<?> floatSensor -> primitiveStore.putFloat(
+                slot,
+                key,
+                ((Sensor.FloatMono<T>) floatSensor).applyAsFloat(actor, this)
+            );
+            case Sensor.BooleanMono<?> booleanSensor -> primitiveStore.putBoolean(
+                slot,
+                key,
+                ((Sensor.BooleanMono<T>) booleanSensor).applyAsBoolean(actor, this)
+            );
+            default -> primitiveStore.putBoxed(slot, key, ((Sensor<T>) sensor).apply(key, actor, this));
+        }
+
+        event.complete(key, sensor);
+        return primitiveStore.has(slot);
+    }
+
+    private Sensor<? super T> getSensorOrWarn(StateKey<?> key) {
+        var sensor = graph.getSensorMap().get(key);
+
+        if (sensor == null) {
+            LOGGER.warn("Attempted to sense a value for key '{}', but no sensor exists for key '{}'.", key, key);
+        }
+
+        return sensor;
+    }
+
     @Override
     public Map<StateKey<?>, Object> getMap() {
-        return stateMap;
+        if (primitiveStore.isEmpty()) {
+            return stateMap;
+        }
+
+        var merged = new HashMap<>(stateMap);
+        primitiveStore.putAllInto(merged);
+        return merged;
     }
 
     @Override
     public <U> void set(StateKey<U> key, U value) {
-        stateMap.put(key, value);
+        tickCache.clear();
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot >= 0) {
+            primitiveStore.putBoxed(slot, key, value);
+        } else {
+            stateMap.put(key, value);
+        }
+    }
+
+    @Override
+    public void setInt(StateKey<Integer> key, int value) {
+        tickCache.clear();
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot >= 0 && key.type() == StateKey.Type.INT) {
+            primitiveStore.putInt(slot, key, value);
+        } else {
+            set(key, value);
+        }
+    }
+
+    @Override
+    public void setLong(StateKey<Long> key, long value) {
+        tickCache.clear();
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot >= 0 && key.type() == StateKey.Type.LONG) {
+            primitiveStore.putLong(slot, key, value);
+        } else {
+            set(key, value);
+        }
+    }
+
+    @Override
+    public void setFloat(StateKey<Float> key, float value) {
+        tickCache.clear();
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot >= 0 && key.type() == StateKey.Type.FLOAT) {
+            primitiveStore.putFloat(slot, key, value);
+        } else {
+            set(key, value);
+        }
+    }
+
+    @Override
+    public void setBoolean(StateKey<Boolean> key, boolean value) {
+        tickCache.clear();
+        var slot = primitiveStore.slotOf(key);
+
+        if (slot >= 0 && key.type() == StateKey.Type.BOOLEAN) {
+            primitiveStore.putBoolean(slot, key, value);
+        } else {
+            set(key, value);
+        }
     }
 
     @Override
     public void setAll(Map<StateKey<?>, Object> map) {
-        stateMap.putAll(map);
+        tickCache.clear();
+        for (var entry : map.entrySet()) {
+            var key = entry.getKey();
+            var slot = primitiveStore.slotOf(key);
+
+            if (slot >= 0) {
+                primitiveStore.putBoxed(slot, key, entry.getValue());
+            } else {
+                stateMap.put(key, entry.getValue());
+            }
+        }
     }
 
     @Override
     public void apply(EffectContainer effectContainer) {
+        // Every effect goes through a setter, which clears the tick cache.
         for (var effect : effectContainer.getEffects()) {
             effect.apply(this);
         }
@@ -68,7 +271,9 @@ public final class SensingWorldState<T> implements WorldState {
 
     @Override
     public void clear() {
+        tickCache.clear();
         stateMap.clear();
+        primitiveStore.clear();
     }
 
     public void setActor(T actor) {
@@ -85,4 +290,11 @@ public final class SensingWorldState<T> implements WorldState {
     public Graph<T> getGraph() {
         return graph;
     }
+
+    /**
+     * Returns the planning cache for the current tick. It is cleared together with this world state.
+     */
+    public TickCache<T> getTickCache() {
+        return tickCache;
+    }
 }
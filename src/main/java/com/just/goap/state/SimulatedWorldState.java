@@ -10,12 +10,12 @@ import com.just.goap.effect.EffectContainer;
 
 public final class SimulatedWorldState implements WorldState {
 
-    private final WorldState simulatedWorldState;
+    private final MapWorldState simulatedWorldState;
 
-    private final ReadableWorldState backingWorldState;
+    private ReadableWorldState backingWorldState;
 
     public SimulatedWorldState(ReadableWorldState backingWorldState) {
-        this.simulatedWorldState = WorldState.create();
+        this.simulatedWorldState = new MapWorldState(KeySlots.of(backingWorldState));
         this.backingWorldState = backingWorldState;
     }
 
@@ -32,6 +32,39 @@ public final class SimulatedWorldState implements WorldState {
         return backingWorldState.getOrNull(key);
     }
 
+    @Override
+    public boolean has(StateKey<?> key) {
+        return simulatedWorldState.has(key) || backingWorldState.has(key);
+    }
+
+    @Override
+    public int getInt(StateKey<Integer> key) {
+        return simulatedWorldState.has(key)
+            ? simulatedWorldState.getInt(key)
+            : backingWorldState.getInt(key);
+    }
+
+    @Override
+    public long getLong(StateKey<Long> key) {
+        return simulatedWorldState.has(key)
+            ? simulatedWorldState.getLong(key)
+            : backingWorldState.getLong(key);
+    }
+
+    @Override
+    public float getFloat(StateKey<Float> key) {
+        return simulatedWorldState.has(key)
+            ? simulatedWorldState.getFloat(key)
+            : backingWorldState.getFloat(key);
+    }
+
+    @Override
+    public boolean getBoolean(StateKey<Boolean> key) {
+        return simulatedWorldState.has(key)
+            ? simulatedWorldState.getBoolean(key)
+            : backingWorldState.getBoolean(key);
+    }
+
     @Override
     public Map<StateKey<?>, Object> getMap() {
         // Return a merged view (simulated overrides + sensed base).
@@ -41,11 +74,53 @@ public final class SimulatedWorldState implements WorldState {
         return merged;
     }
 
+    /**
+     * Returns the values simulated on top of the backing world state, without the values of the backing world state.
+     */
+    public Map<StateKey<?>, Object> getSimulatedMap() {
+        return simulatedWorldState.getMap();
+    }
+
+    /**
+     * Returns the hash code of {@link #getSimulatedMap()}, without building the map.
+     */
+    public int simulatedHashCode() {
+        return simulatedWorldState.valuesHashCode();
+    }
+
+    /**
+     * Returns {@code true} if both world states simulate the same values, which is what comparing their
+     * {@link #getSimulatedMap()}s would return, without building the maps. The backing world states are not compared.
+     */
+    public boolean hasSameSimulatedValues(SimulatedWorldState other) {
+        return simulatedWorldState.hasSameValues(other.simulatedWorldState);
+    }
+
     @Override
     public <V> void set(StateKey<V> key, V value) {
         simulatedWorldState.set(key, value);
     }
 
+    @Override
+    public void setInt(StateKey<Integer> key, int value) {
+        simulatedWorldState.setInt(key, value);
+    }
+
+    @Override
+    public void setLong(StateKey<Long> key, long value) {
+        simulatedWorldState.setLong(key, value);
+    }
+
+    @Override
+    public void setFloat(StateKey<Float> key, float value) {
+        simulatedWorldState.setFloat(key, value);
+    }
+
+    @Override
+    public void setBoolean(StateKey<Boolean> key, boolean value) {
+        simulatedWorldState.setBoolean(key, value);
+    }
+
     @Override
     public void setAll(Map<StateKey<?>, Object> map) {
         simulatedWorldState.setAll(map);
@@ -63,10 +138,33 @@ public final class SimulatedWorldState implements WorldState {
         simulatedWorldState.clear();
     }
 
+    /**
+     * Clears the simulated values and reads through to the given world state from now on, reusing the storage of this
+     * world state.
+     */
+    public void reset(ReadableWorldState backingWorldState) {
+        this.backingWorldState = backingWorldState;
+        simulatedWorldState.clear();
+        simulatedWorldState.setKeySlots(KeySlots.of(backingWorldState));
+    }
+
+    /**
+     * Replaces the contents of this world state with a copy of the given world state's simulated values, reading
+     * through to the same backing world state. Unlike {@link #copy()}, this reuses the storage of this world state.
+     */
+    public void copyFrom(SimulatedWorldState other) {
+        this.backingWorldState = other.backingWorldState;
+        simulatedWorldState.copyFrom(other.simulatedWorldState);
+    }
+
+    KeySlots getKeySlots() {
+        return simulatedWorldState.getKeySlots();
+    }
+
     public SimulatedWorldState copy() {
         // Create a deep copy of the simulation layer, preserving the same sensing base.
         var copy = new SimulatedWorldState(backingWorldState);
-        copy.simulatedWorldState.getMap().putAll(simulatedWorldState.getMap());
+        copy.simulatedWorldState.copyFrom(simulatedWorldState);
         return copy;
     }
 }
@@ -0,0 +1,136 @@
+package com.just.goap.state;
+
+import java.util.Arrays;
+
+import com.just.goap.action.Action;
+import com.just.goap.graph.CompiledGraph;
+import com.just.goap.graph.Graph;
+
+/**
+ * Planning results that only depend on the sensed world state, and therefore stay valid for a whole tick.
+ * <p>
+ * A {@link SensingWorldState} owns one of these and clears it whenever it is cleared or written to from outside, so
+ * every goal search in a tick shares the same entries. Entries are computed the first time they are asked for.
+ *
+ * @param <T> The actor type.
+ */
+public final class TickCache<T> {
+
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * Returns the cost of the given action in the given world state. Sensed-only costs are read from the tick cache of
+     * the world state when it has one.
+     *
+     * @see Action#isCostSensedOnly()
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> float getCost(Action<? super T> action, T actor, ReadableWorldState worldState) {
+        if (action.isCostSensedOnly() && worldState instanceof SensingWorldState<?> sensingWorldState) {
+            var tickCache = (TickCache<T>) sensingWorldState.getTickCache();
+            var actionId = tickCache.compiledGraph.getActionId(action);
+
+            if (actionId >= 0) {
+                return tickCache.getCost(actionId, actor, worldState);
+            }
+        }
+
+        return action.getCost(actor, worldState);
+    }
+
+    /**
+     * Returns the cache of the given world state if it is a {@link SensingWorldState} for the same graph, or a new
+     * cache that only lives as long as the caller holds on to it otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TickCache<T> of(Graph<T> graph, ReadableWorldState worldState) {
+        if (worldState instanceof SensingWorldState<?> sensingWorldState && sensingWorldState.getGraph() == graph) {
+            return (TickCache<T>) sensingWorldState.getTickCache();
+        }
+
+        return new TickCache<>(graph.getCompiledGraph(), worldState);
+    }
+
+    private final CompiledGraph<T> compiledGraph;
+
+    private final ReadableWorldState worldState;
+
+    private final int[][] unmetPreconditions;
+
+    // An entry is only valid if its stamp equals the current generation, which makes clearing O(1).
+    private final int[] unmetPreconditionStamps;
+
+    private final float[] costs;
+
+    private final int[] costStamps;
+
+    private int generation;
+
+    TickCache(CompiledGraph<T> compiledGraph, ReadableWorldState worldState) {
+        this.compiledGraph = compiledGraph;
+        this.worldState = worldState;
+        this.unmetPreconditions = new int[compiledGraph.getActionCount()][];
+        this.unmetPreconditionStamps = new int[compiledGraph.getActionCount()];
+        this.costs = new float[compiledGraph.getActionCount()];
+        this.costStamps = new int[compiledGraph.getActionCount()];
+        this.generation = 1;
+    }
+
+    /**
+     * Returns the ids of the preconditions of the given action that the world state does not satisfy. The returned
+     * array is shared and must not be modified.
+     *
+     * @param actionId The {@link CompiledGraph} id of the action.
+     */
+    public int[] getUnmetPreconditions(int actionId) {
+        if (unmetPreconditionStamps[actionId] == generation) {
+            return unmetPreconditions[actionId];
+        }
+
+        var start = compiledGraph.getPreconditionStart(actionId);
+        var end = compiledGraph.getPreconditionEnd(actionId);
+        var unmet = new int[end - start];
+        var count = 0;
+
+        for (var i = start; i < end; i++) {
+            var conditionId = compiledGraph.getPrecondition(i);
+
+            if (!compiledGraph.getCondition(conditionId).satisfiedBy(worldState)) {
+                unmet[count++] = conditionId;
+            }
+        }
+
+        var result = count == 0 ? EMPTY : count == unmet.length ? unmet : Arrays.copyOf(unmet, count);
+        unmetPreconditions[actionId] = result;
+        unmetPreconditionStamps[actionId] = generation;
+        return result;
+    }
+
+    /**
+     * Returns the cost of the given action. Sensed-only costs are computed against the sensed world state once per
+     * tick, any other cost is computed against {@code worldState} on every call.
+     *
+     * @param actionId   The {@link CompiledGraph} id of the action.
+     * @param actor      The actor.
+     * @param worldState The world state to compute a cost that is not sensed-only in, such as a simulated state.
+     * @see Action#isCostSensedOnly()
+     */
+    public float getCost(int actionId, T actor, ReadableWorldState worldState) {
+        var action = compiledGraph.getAction(actionId);
+
+        if (!action.isCostSensedOnly()) {
+            return action.getCost(actor, worldState);
+        }
+
+        if (costStamps[actionId] != generation) {
+            costs[actionId] = action.getCost(actor, this.worldState);
+            costStamps[actionId] = generation;
+        }
+
+        return costs[actionId];
+    }
+
+    void clear() {
+        generation++;
+    }
+}
@@ -1,54 +1,20 @@
 package com.just.goap.state;
 
-import org.jetbrains.annotations.Nullable;
-
-import java.util.HashMap;
 import java.util.Map;
 
 import com.just.goap.StateKey;
-import com.just.goap.effect.EffectContainer;
 
 public interface WorldState extends ReadableWorldState, WritableWorldState {
 
     static WorldState create() {
-        return create(new HashMap<>());
+        return new MapWorldState(KeySlots.EMPTY);
     }
 
+    /**
+     * Creates a world state holding a copy of the given entries. Later changes to the given map do not show up in the
+     * world state, and the world state never writes to the given map.
+     */
     static WorldState create(Map<StateKey<?>, Object> stateMap) {
-        return new WorldState() {
-
-            @Override
-            @SuppressWarnings("unchecked")
-            public <T> @Nullable T getOrNull(StateKey<T> key) {
-                return (T) stateMap.get(key);
-            }
-
-            @Override
-            public Map<StateKey<?>, Object> getMap() {
-                return stateMap;
-            }
-
-            @Override
-            public <T> void set(StateKey<T> key, T value) {
-                stateMap.put(key, value);
-            }
-
-            @Override
-            public void setAll(Map<StateKey<?>, Object> map) {
-                stateMap.putAll(map);
-            }
-
-            @Override
-            public void apply(EffectContainer effectContainer) {
-                for (var effect : effectContainer.getEffects()) {
-                    effect.apply(this);
-                }
-            }
-
-            @Override
-            public void clear() {
-                stateMap.clear();
-            }
-        };
+        return new MapWorldState(stateMap);
     }
 }
@@ -9,6 +9,22 @@ public interface WritableWorldState {
 
     <T> void set(StateKey<T> key, T value);
 
+    default void setInt(StateKey<Integer> key, int value) {
+        set(key, value);
+    }
+
+    default void setLong(StateKey<Long> key, long value) {
+        set(key, value);
+    }
+
+    default void setFloat(StateKey<Float> key, float value) {
+        set(key, value);
+    }
+
+    default void setBoolean(StateKey<Boolean> key, boolean value) {
+        set(key, value);
+    }
+
     void setAll(Map<StateKey<?>, Object> map);
 
     void apply(EffectContainer effectContainer);
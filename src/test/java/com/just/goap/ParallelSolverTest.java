@@ -0,0 +1,126 @@
+package com.just.goap;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.just.goap.action.Action;
+import com.just.goap.condition.expression.Expressions;
+import com.just.goap.goal.Goal;
+import com.just.goap.graph.Graph;
+import com.just.goap.state.SensingWorldState;
+
+class ParallelSolverTest {
+
+    private static final int SEEDS = 40;
+
+    private static final int MAX_DEPTH = 1;
+
+    @Test
+    void findsPlansAsCheapAsAOStar() {
+        for (var seed = 1L; seed <= SEEDS; seed++) {
+            var graph = randomTree(seed);
+            var goal = graph.getAvailableGoals().iterator().next();
+            var actor = new Object();
+
+            var worldState = new SensingWorldState<>(graph);
+            worldState.setActor(actor);
+            var expected = cost(AOStar.solve(graph, goal, worldState, actor));
+
+            Assertions.assertTrue(expected > 0.0f, "seed " + seed);
+
+            for (var threads : new int[] { 1, 2, 4 }) {
+                var parallelWorldState = new SensingWorldState<>(graph);
+                parallelWorldState.setActor(actor);
+                var plan = new ParallelSolver<>(threads).solve(
+                    graph,
+                    goal,
+                    parallelWorldState,
+                    actor,
+                    Float.POSITIVE_INFINITY
+                );
+
+                Assertions.assertEquals(expected, cost(plan), "seed " + seed + ", " + threads + " threads");
+            }
+        }
+    }
+
+    @Test
+    void findsNoPlanAtTheCostBound() {
+        var graph = randomTree(7);
+        var goal = graph.getAvailableGoals().iterator().next();
+        var actor = new Object();
+        var worldState = new SensingWorldState<>(graph);
+        worldState.setActor(actor);
+        var cost = cost(AOStar.solve(graph, goal, worldState, actor));
+
+        Assertions.assertNull(new ParallelSolver<>(2).solve(graph, goal, worldState, actor, cost));
+        Assertions.assertEquals(cost, cost(new ParallelSolver<>(2).solve(graph, goal, worldState, actor, cost + 1)));
+    }
+
+    /**
+     * Builds a random graph in which every key is needed by one action or goal only, and every action sets a single
+     * key. Each unsatisfied condition then takes its own action to satisfy, which keeps the additive heuristic
+     * admissible and consistent, so that any A* finds the cheapest plan.
+     */
+    private static Graph<Object> randomTree(long seed) {
+        var random = new Random(seed);
+        var actions = new ArrayList<Action<? super Object>>();
+        var goal = Goal.builder("goal");
+        var rootCount = 2 + random.nextInt(2);
+
+        for (var i = 0; i < rootCount; i++) {
+            goal.addDesiredCondition(satisfiable(random, actions, "key_" + i, 0), Expressions.Boolean.isTrue());
+        }
+
+        return Graph.builder().addActions(actions).addGoal(goal.build()).build();
+    }
+
+    /**
+     * Adds one or two actions setting the returned key, each needing up to two keys of its own.
+     */
+    private static StateKey.Derived<Boolean> satisfiable(
+        Random random,
+        List<Action<? super Object>> actions,
+        String id,
+        int depth
+    ) {
+        StateKey.Derived<Boolean> key = StateKey.derived(id);
+        var satisfierCount = 1 + random.nextInt(2);
+
+        for (var i = 0; i < satisfierCount; i++) {
+            var builder = Action.builder(id + "_" + i);
+            var preconditionCount = depth < MAX_DEPTH ? random.nextInt(3) : 0;
+
+            for (var j = 0; j < preconditionCount; j++) {
+                var precondition = satisfiable(random, actions, id + "_" + i + "_" + j, depth + 1);
+                builder.addPrecondition(precondition, Expressions.Boolean.isTrue());
+            }
+
+            actions.add(builder.addEffect(key, true).withCost(1 + random.nextInt(5)).build());
+        }
+
+        return key;
+    }
+
+    /**
+     * @return The summed cost of the plan, or {@code -1} if there is no plan.
+     */
+    private static float cost(@Nullable List<? extends AOStar.ActionWithCost<?>> plan) {
+        if (plan == null) {
+            return -1.0f;
+        }
+
+        var cost = 0.0f;
+
+        for (var actionWithCost : plan) {
+            cost += actionWithCost.cost();
+        }
+
+        return cost;
+    }
+}
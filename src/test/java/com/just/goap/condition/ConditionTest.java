@@ -0,0 +1,103 @@
+package com.just.goap.condition;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.just.goap.StateKey;
+import com.just.goap.action.Action;
+import com.just.goap.condition.expression.Expressions;
+import com.just.goap.goal.Goal;
+import com.just.goap.graph.Graph;
+
+class ConditionTest {
+
+    private static final StateKey.Derived<Boolean> HAS_AXE = StateKey.derived("has_axe");
+
+    private static final StateKey.Derived<Boolean> HAS_WOOD = StateKey.derived("has_wood");
+
+    private static final StateKey.Derived<Integer> WOOD = StateKey.derivedInt("wood");
+
+    @Test
+    void internsEqualConditionsOfDifferentActions() {
+        var chopWood = Action.builder("chop_wood")
+            .addPrecondition(HAS_AXE, Expressions.Boolean.isTrue())
+            .addEffect(HAS_WOOD, true)
+            .build();
+        var chopTree = Action.builder("chop_tree")
+            .addPrecondition(HAS_AXE, Expressions.Boolean.isTrue())
+            .addEffect(HAS_WOOD, true)
+            .build();
+
+        Assertions.assertSame(
+            chopWood.getPreconditionContainer().getConditions().getFirst(),
+            chopTree.getPreconditionContainer().getConditions().getFirst()
+        );
+
+        var graph = Graph.builder()
+            .addAction(chopWood)
+            .addAction(chopTree)
+            .addAction(Action.builder("buy_axe").addEffect(HAS_AXE, true).build())
+            .addGoal(Goal.builder("gather_wood").addDesiredCondition(HAS_WOOD, Expressions.Boolean.isTrue()).build())
+            .build();
+
+        // has_axe is true, has_wood is true.
+        Assertions.assertEquals(2, graph.getCompiledGraph().getConditionCount());
+    }
+
+    @Test
+    void internsConditionsWithStructurallyEqualExpressions() {
+        assertInterned(
+            Condition.derived(WOOD, Expressions.Compare.atLeast(3)),
+            Condition.derived(WOOD, Expressions.Compare.atLeast(3))
+        );
+
+        StateKey.Derived<List<Integer>> logs = StateKey.derived("logs");
+        assertInterned(
+            Condition.derived(logs, Expressions.Collection.anyMatch(Expressions.Compare.greaterThan(3))),
+            Condition.derived(logs, Expressions.Collection.anyMatch(Expressions.Compare.greaterThan(3)))
+        );
+
+        StateKey.Derived<Optional<Integer>> nextLog = StateKey.derived("next_log");
+        assertInterned(
+            Condition.derived(nextLog, Expressions.Optional.<Integer>value(Expressions.Compare.lessThan(5))),
+            Condition.derived(nextLog, Expressions.Optional.<Integer>value(Expressions.Compare.lessThan(5)))
+        );
+
+        StateKey.Derived<com.just.core.functional.option.Option<Integer>> axe = StateKey.derived("axe");
+        assertInterned(
+            Condition.derived(axe, Expressions.Option.<Integer>value(Expressions.Compare.equalTo(1))),
+            Condition.derived(axe, Expressions.Option.<Integer>value(Expressions.Compare.equalTo(1)))
+        );
+    }
+
+    @Test
+    void keepsDifferentConditionsApart() {
+        Assertions.assertNotSame(
+            Condition.derived(WOOD, Expressions.Compare.atLeast(3)),
+            Condition.derived(WOOD, Expressions.Compare.atLeast(4))
+        );
+
+        StateKey.Derived<Optional<Integer>> nextLog = StateKey.derived("next_log");
+        Assertions.assertNotSame(
+            Condition.derived(nextLog, Expressions.Optional.<Integer>value(Expressions.Compare.lessThan(5))),
+            Condition.derived(nextLog, Expressions.Optional.<Integer>value(Expressions.Compare.greaterThan(5)))
+        );
+    }
+
+    @Test
+    void evaluatesOptionalValues() {
+        var lessThanFive = Expressions.Optional.<Integer>value(Expressions.Compare.lessThan(5));
+
+        Assertions.assertTrue(lessThanFive.evaluate(Optional.of(4)));
+        Assertions.assertFalse(lessThanFive.evaluate(Optional.of(5)));
+        Assertions.assertFalse(lessThanFive.evaluate(Optional.empty()));
+    }
+
+    private static void assertInterned(Condition<?> first, Condition<?> second) {
+        Assertions.assertEquals(first, second);
+        Assertions.assertSame(first, second);
+    }
+}
@@ -0,0 +1,164 @@
+package com.just.goap.graph;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import com.just.goap.StateKey;
+import com.just.goap.action.Action;
+import com.just.goap.condition.expression.Expressions;
+import com.just.goap.goal.Goal;
+
+class GraphValidatorTest {
+
+    private static final int SEEDS = 1000;
+
+    private static final int KEYS = 10;
+
+    private static final int ACTIONS = 20;
+
+    @Test
+    void validatesEditsLikeAFullValidation() {
+        var validEdits = 0;
+        var invalidEdits = 0;
+
+        for (var seed = 1L; seed <= SEEDS; seed++) {
+            var random = new Random(seed);
+            var keys = new ArrayList<StateKey.Derived<Boolean>>();
+
+            for (var i = 0; i < KEYS; i++) {
+                keys.add(StateKey.derived("key_" + seed + "_" + i));
+            }
+
+            var goals = goals(random, keys);
+            var actions = new ArrayList<Action<? super Object>>();
+
+            for (var i = 0; i < ACTIONS; i++) {
+                actions.add(action(random, keys, "action_" + i));
+            }
+
+            var graph = build(() -> Graph.builder().addActions(actions).addGoals(goals).build());
+
+            if (graph == null) {
+                continue;
+            }
+
+            var removed = new ArrayList<Action<? super Object>>();
+            var added = new ArrayList<Action<? super Object>>();
+            var removedCount = 1 + random.nextInt(3);
+            var addedCount = random.nextInt(3);
+
+            for (var i = 0; i < removedCount; i++) {
+                removed.add(actions.get(random.nextInt(actions.size())));
+            }
+
+            for (var i = 0; i < addedCount; i++) {
+                added.add(action(random, keys, "added_" + i));
+            }
+
+            var editedActions = new LinkedHashSet<>(actions);
+            removed.forEach(editedActions::remove);
+            editedActions.addAll(added);
+
+            var edited = build(() -> graph.edit().removeActions(removed).addActions(added).build());
+            var rebuilt = build(() -> Graph.builder().addActions(List.copyOf(editedActions)).addGoals(goals).build());
+
+            Assertions.assertEquals(rebuilt != null, edited != null, "seed " + seed);
+
+            if (edited == null) {
+                invalidEdits++;
+            } else {
+                Assertions.assertEquals(editedActions, edited.getAvailableActions(), "seed " + seed);
+                validEdits++;
+            }
+        }
+
+        // Make sure the random edits cover both outcomes.
+        Assertions.assertTrue(validEdits > 50, "only " + validEdits + " valid edits");
+        Assertions.assertTrue(invalidEdits > 50, "only " + invalidEdits + " invalid edits");
+    }
+
+    @Test
+    void leavesTheEditedGraphUntouched() {
+        StateKey.Derived<Boolean> hasWood = StateKey.derived("has_wood");
+        StateKey.Derived<Boolean> hasAxe = StateKey.derived("has_axe");
+        var chopWood = Action.builder("chop_wood")
+            .addPrecondition(hasAxe, Expressions.Boolean.isTrue())
+            .addEffect(hasWood, true)
+            .build();
+        var buyAxe = Action.builder("buy_axe").addEffect(hasAxe, true).build();
+        var findAxe = Action.builder("find_axe").addEffect(hasAxe, true).build();
+        var graph = Graph.builder()
+            .addAction(chopWood)
+            .addAction(buyAxe)
+            .addGoal(Goal.builder("gather_wood").addDesiredCondition(hasWood, Expressions.Boolean.isTrue()).build())
+            .build();
+
+        var edited = graph.edit().removeAction(buyAxe).addAction(findAxe).build();
+
+        Assertions.assertEquals(2, graph.getAvailableActions().size());
+        Assertions.assertTrue(graph.getAvailableActions().contains(buyAxe));
+        Assertions.assertTrue(edited.getAvailableActions().contains(findAxe));
+        Assertions.assertFalse(edited.getAvailableActions().contains(buyAxe));
+        Assertions.assertSame(graph, graph.edit().addAction(findAxe).removeAction(findAxe).build());
+        // Nothing would satisfy the precondition of chop_wood anymore.
+        Assertions.assertNull(build(() -> graph.edit().removeAction(buyAxe).build()));
+    }
+
+    private static List<Goal> goals(Random random, List<StateKey.Derived<Boolean>> keys) {
+        var goals = new ArrayList<Goal>();
+
+        for (var i = 0; i < 3; i++) {
+            var goal = Goal.builder("goal_" + i);
+            var desiredConditionCount = 1 + random.nextInt(2);
+
+            for (var j = 0; j < desiredConditionCount; j++) {
+                goal.addDesiredCondition(keys.get(random.nextInt(keys.size())), Expressions.Boolean.isTrue());
+            }
+
+            goals.add(goal.build());
+        }
+
+        return goals;
+    }
+
+    private static Action<Object> action(Random random, List<StateKey.Derived<Boolean>> keys, String name) {
+        var builder = Action.builder(name);
+        var effectKey = random.nextInt(keys.size());
+
+        builder.addEffect(keys.get(effectKey), true);
+
+        if (random.nextInt(4) == 0) {
+            builder.addEffect(keys.get(random.nextInt(keys.size())), true);
+        }
+
+        var preconditionCount = random.nextInt(3);
+
+        for (var i = 0; i < preconditionCount; i++) {
+            var key = random.nextInt(keys.size());
+
+            if (key != effectKey) {
+                builder.addPrecondition(keys.get(key), Expressions.Boolean.isTrue());
+            }
+        }
+
+        return builder.withCost(1 + random.nextInt(5)).build();
+    }
+
+    /**
+     * @return The built graph, or {@code null} if it failed validation.
+     */
+    private static @Nullable Graph<Object> build(Supplier<Graph<Object>> builder) {
+        try {
+            return builder.get();
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+}